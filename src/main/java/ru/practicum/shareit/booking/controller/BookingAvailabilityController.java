@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.booking.dto.AvailabilityBatchDto;
+import ru.practicum.shareit.booking.dto.AvailabilityProbeDto;
+import ru.practicum.shareit.booking.service.BookingAvailabilityService;
+
+import javax.validation.Valid;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@Validated
+@RequestMapping(path = "/items/availability")
+public class BookingAvailabilityController {
+    private final BookingAvailabilityService bookingAvailabilityService;
+
+    @PostMapping
+    public List<AvailabilityProbeDto> checkAvailability(
+            @RequestHeader(value = BookingController.USER_ID_HEADER, required = false) Long userId,
+            @Valid @RequestBody AvailabilityBatchDto availabilityBatchDto) {
+        return bookingAvailabilityService.checkAvailability(userId, availabilityBatchDto.getProbes());
+    }
+}
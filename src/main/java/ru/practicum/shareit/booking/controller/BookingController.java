@@ -4,6 +4,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -14,13 +17,34 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingBulkResultDto;
+import ru.practicum.shareit.booking.dto.BookingBulkUpdateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingHoldDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.model.BookingExportFormat;
+import ru.practicum.shareit.booking.service.BookingAwaitService;
+import ru.practicum.shareit.booking.service.BookingExportService;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingStreamService;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 
 @RestController
@@ -30,7 +54,11 @@ import java.util.List;
 public class BookingController {
     public static final String USER_ID_HEADER = "X-Sharer-User-Id";
     private static final String BOOKING_START_DATE_FIELD_NAME = "start";
+    private static final String EXPORT_TIMEOUT_INTERCEPTOR = BookingController.class.getName() + ".exportTimeout";
     private final BookingService bookingService;
+    private final BookingStreamService bookingStreamService;
+    private final BookingAwaitService bookingAwaitService;
+    private final BookingExportService bookingExportService;
 
     @PostMapping
     public BookingDto createBooking(
@@ -40,6 +68,29 @@ public class BookingController {
         return bookingService.createBooking(bookingDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBookings(
+            @RequestHeader(USER_ID_HEADER) long userId,
+            @RequestParam(defaultValue = "true") boolean atomic,
+            @Valid @RequestBody BookingBatchDto bookingBatchDto) {
+        return bookingService.createBookings(userId, bookingBatchDto.getBookings(), atomic);
+    }
+
+    @PostMapping("/hold")
+    public BookingHoldDto createHold(
+            @RequestHeader(USER_ID_HEADER) long userId,
+            @RequestParam(defaultValue = "15") @Positive @Max(60) int ttl,
+            @Valid @RequestBody BookingHoldDto bookingHoldDto) {
+        return bookingService.createHold(userId, bookingHoldDto, Duration.ofMinutes(ttl));
+    }
+
+    @PostMapping("/hold/{holdId}/confirm")
+    public BookingDto confirmHold(
+            @RequestHeader(USER_ID_HEADER) long userId,
+            @PathVariable String holdId) {
+        return bookingService.confirmHold(userId, holdId);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto updateBooking(
             @RequestHeader(USER_ID_HEADER) long userId,
@@ -54,6 +105,13 @@ public class BookingController {
         return bookingService.updateBooking(bookingDto);
     }
 
+    @PatchMapping("/bulk")
+    public List<BookingBulkResultDto> updateBookings(
+            @RequestHeader(USER_ID_HEADER) long userId,
+            @Valid @RequestBody BookingBulkUpdateDto bookingBulkUpdateDto) {
+        return bookingService.updateBookings(userId, bookingBulkUpdateDto);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(
             @RequestHeader(USER_ID_HEADER) long userId,
@@ -61,6 +119,14 @@ public class BookingController {
         return bookingService.getBookingById(userId, bookingId);
     }
 
+    @GetMapping("/{bookingId}/await")
+    public DeferredResult<BookingDto> awaitBooking(
+            @RequestHeader(USER_ID_HEADER) long userId,
+            @PathVariable long bookingId,
+            @RequestParam(defaultValue = "30") @Positive @Max(120) int timeout) {
+        return bookingAwaitService.awaitBooking(userId, bookingId, TimeUnit.SECONDS.toMillis(timeout));
+    }
+
     @GetMapping
     public List<BookingDto> getAllBookingByUserId(
             @RequestHeader(USER_ID_HEADER) long userId,
@@ -84,4 +150,65 @@ public class BookingController {
                 Sort.by(Sort.Direction.DESC, BOOKING_START_DATE_FIELD_NAME));
         return bookingService.getAllBookingByOwnerId(userId, state, pageable);
     }
+
+    @GetMapping("/summary")
+    public BookingSummaryDto getBookingSummaryByUserId(@RequestHeader(USER_ID_HEADER) long userId) {
+        return bookingService.getBookingSummaryByUserId(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto getBookingSummaryByOwnerId(@RequestHeader(USER_ID_HEADER) long userId) {
+        return bookingService.getBookingSummaryByOwnerId(userId);
+    }
+
+    @GetMapping(path = "/owner/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOwnerBookings(@RequestHeader(USER_ID_HEADER) long userId) {
+        return bookingStreamService.subscribe(userId);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(
+            @RequestHeader(USER_ID_HEADER) long userId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            NativeWebRequest webRequest) {
+        BookingExportFormat exportFormat = BookingExportFormat.of(format);
+        StreamingResponseBody body = bookingExportService.exportByOwnerId(userId, exportFormat);
+        applyExportTimeout(webRequest);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"bookings." + exportFormat.getFileExtension() + "\"")
+                .body(body);
+    }
+
+    @GetMapping("/owner/calendar.ics")
+    public ResponseEntity<StreamingResponseBody> getOwnerCalendar(
+            @RequestHeader(USER_ID_HEADER) long userId,
+            NativeWebRequest webRequest) {
+        if (webRequest.checkNotModified(bookingExportService.getHistoryTag(userId))) {
+            return null;
+        }
+        StreamingResponseBody body = bookingExportService.exportByOwnerId(userId, BookingExportFormat.ICS);
+        applyExportTimeout(webRequest);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(BookingExportFormat.ICS.getContentType()))
+                .body(body);
+    }
+
+    /**
+     * Gives the streamed body of this request the export timeout instead of the default async request timeout. The
+     * timeout can only be set before async processing starts, which happens after the handler returns.
+     */
+    private void applyExportTimeout(NativeWebRequest webRequest) {
+        long timeout = bookingExportService.getTimeout().toMillis();
+        WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor(EXPORT_TIMEOUT_INTERCEPTOR,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                        if (request instanceof AsyncWebRequest) {
+                            ((AsyncWebRequest) request).setTimeout(timeout);
+                        }
+                    }
+                });
+    }
 }
\ No newline at end of file
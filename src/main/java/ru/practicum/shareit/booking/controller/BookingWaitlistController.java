@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.booking.dto.WaitlistEntryDto;
+import ru.practicum.shareit.booking.service.BookingWaitlistService;
+
+import javax.validation.Valid;
+
+@RestController
+@RequiredArgsConstructor
+@Validated
+@RequestMapping(path = "/items/{itemId}/waitlist")
+public class BookingWaitlistController {
+    private final BookingWaitlistService bookingWaitlistService;
+
+    @PostMapping
+    public WaitlistEntryDto joinWaitlist(
+            @RequestHeader(BookingController.USER_ID_HEADER) long userId,
+            @PathVariable long itemId,
+            @Valid @RequestBody WaitlistEntryDto waitlistEntryDto) {
+        return bookingWaitlistService.join(userId, itemId, waitlistEntryDto);
+    }
+}
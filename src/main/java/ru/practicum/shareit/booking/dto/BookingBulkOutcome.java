@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.dto;
+
+public enum BookingBulkOutcome {
+    UPDATED,
+    NOT_FOUND,
+    NOT_OWNER,
+    NOT_WAITING
+}
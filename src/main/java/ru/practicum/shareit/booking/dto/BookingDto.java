@@ -9,6 +9,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import ru.practicum.shareit.booking.model.BookingRecurrence;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -53,4 +54,10 @@ public class BookingDto {
     @Future
     @NotNull
     private LocalDateTime end;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BookingRecurrence recurrence;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime recurrenceUntil;
 }
\ No newline at end of file
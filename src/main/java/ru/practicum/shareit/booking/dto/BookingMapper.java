@@ -2,11 +2,18 @@ package ru.practicum.shareit.booking.dto;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingHold;
+import ru.practicum.shareit.booking.model.BookingPhase;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.user.dto.UserMapper;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
 @Component
 @RequiredArgsConstructor
 public class BookingMapper {
@@ -21,6 +28,8 @@ public class BookingMapper {
                 .item(itemMapper.toItemDto(booking.getItem()))
                 .booker(userMapper.toUserDto(booking.getBooker()))
                 .status(booking.getStatus())
+                .recurrence(booking.getRecurrence())
+                .recurrenceUntil(booking.getRecurrenceUntil())
                 .build();
     }
 
@@ -38,7 +47,34 @@ public class BookingMapper {
         return Booking.builder()
                 .start(bookingDto.getStart())
                 .end(bookingDto.getEnd())
+                .recurrence(bookingDto.getRecurrence())
+                .recurrenceUntil(bookingDto.getRecurrenceUntil())
                 .status(BookingStatus.WAITING)
                 .build();
     }
+
+    public Booking toBooking(ArchivedBooking archivedBooking) {
+        return Booking.builder()
+                .id(archivedBooking.getId())
+                .start(archivedBooking.getStart())
+                .end(archivedBooking.getEnd())
+                .item(archivedBooking.getItem())
+                .booker(archivedBooking.getBooker())
+                .ownerId(archivedBooking.getOwnerId())
+                .status(archivedBooking.getStatus())
+                .phase(BookingPhase.PAST)
+                .version(archivedBooking.getVersion())
+                .build();
+    }
+
+    public BookingHoldDto toBookingHoldDto(BookingHold hold) {
+        return BookingHoldDto.builder()
+                .id(hold.getId())
+                .itemId(hold.getItemId())
+                .start(hold.getStart())
+                .end(hold.getEnd())
+                .expiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(hold.getExpiresAtMillis()),
+                        ZoneId.systemDefault()))
+                .build();
+    }
 }
\ No newline at end of file
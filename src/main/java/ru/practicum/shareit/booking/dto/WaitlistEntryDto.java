@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.validation.constraints.Future;
+import javax.validation.constraints.FutureOrPresent;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+@Builder
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WaitlistEntryDto {
+    private Long id;
+
+    private Long itemId;
+
+    @FutureOrPresent
+    @NotNull
+    private LocalDateTime start;
+
+    @Future
+    @NotNull
+    private LocalDateTime end;
+
+    private LocalDateTime created;
+
+    private Integer position;
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class BookingEvent {
+    private final BookingEventType type;
+    private final Long ownerId;
+    private final BookingDto booking;
+}
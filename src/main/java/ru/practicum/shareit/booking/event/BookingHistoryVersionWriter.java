@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+
+/**
+ * Bumps the booking history version of the owner on every {@link BookingEvent}. Like {@link BookingOutboxWriter}
+ * the listener runs inside the publishing transaction, so the version moves if and only if the change commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingHistoryVersionWriter {
+    private final UserRepository userRepository;
+
+    @EventListener
+    public void onBookingEvent(BookingEvent event) {
+        userRepository.incrementHistoryVersion(List.of(event.getOwnerId()));
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.model.BookingRecurrence;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * A booking change as stored in the booking journal. {@code eventId} is the id of the outbox event it came from.
+ */
+@Builder
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class BookingJournalEvent {
+    private final long eventId;
+    private final BookingEventType type;
+    private final LocalDateTime created;
+    private final long bookingId;
+    private final long itemId;
+    private final long bookerId;
+    private final BookingStatus status;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final BookingRecurrence recurrence;
+    private final LocalDateTime recurrenceUntil;
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.service.OutboxService;
+
+/**
+ * Copies every {@link BookingEvent} to the outbox. The listener runs synchronously inside the publishing transaction,
+ * so bookings changed by the service, the expiry job and waitlist promotion all reach the outbox with the change.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingOutboxWriter {
+    private final OutboxService outboxService;
+
+    @EventListener
+    public void onBookingEvent(BookingEvent event) {
+        DomainEventType type = event.getType() == BookingEventType.CREATED
+                ? DomainEventType.BOOKING_CREATED : DomainEventType.BOOKING_STATUS_CHANGED;
+        outboxService.append(type, event.getBooking().getId(), event.getBooking());
+    }
+}
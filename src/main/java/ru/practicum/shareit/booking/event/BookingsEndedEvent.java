@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.repository.BookingBookerView;
+
+import java.util.List;
+
+/**
+ * Published after approved bookings have been moved to the past phase and the change is committed.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class BookingsEndedEvent {
+    private final List<BookingBookerView> bookings;
+}
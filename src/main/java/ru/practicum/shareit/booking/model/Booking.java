@@ -13,7 +13,10 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
 
 @Entity
@@ -45,6 +48,49 @@ public class Booking {
     @JoinColumn(name = "booker_id")
     private User booker;
 
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
-}
\ No newline at end of file
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "phase", nullable = false)
+    private BookingPhase phase;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "recurrence")
+    private BookingRecurrence recurrence;
+
+    @Column(name = "recurrence_until")
+    private LocalDateTime recurrenceUntil;
+
+    @Column(name = "series_end", nullable = false)
+    private LocalDateTime seriesEnd;
+
+    @Column(name = "updated", nullable = false)
+    private LocalDateTime updated;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @PrePersist
+    void prePersist() {
+        LocalDateTime now = LocalDateTime.now();
+        seriesEnd = toRecurrenceRule().getSeriesEnd();
+        if (phase == null) {
+            phase = BookingPhase.of(start, seriesEnd, now);
+        }
+        updated = now;
+    }
+
+    public RecurrenceRule toRecurrenceRule() {
+        return RecurrenceRule.of(start, end, recurrence, recurrenceUntil);
+    }
+
+    @PreUpdate
+    void preUpdate() {
+        updated = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.model;
+
+import javax.validation.ValidationException;
+import java.util.Locale;
+
+public enum BookingExportFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv"),
+    ICS("text/calendar");
+
+    private final String contentType;
+
+    BookingExportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    /**
+     * Parses a download format of the history export. ICS is served by the calendar feed only.
+     */
+    public static BookingExportFormat of(String format) {
+        BookingExportFormat exportFormat;
+        try {
+            exportFormat = valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unknown format: " + format);
+        }
+        if (exportFormat == ICS) {
+            throw new ValidationException("Unknown format: " + format);
+        }
+        return exportFormat;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
\ No newline at end of file
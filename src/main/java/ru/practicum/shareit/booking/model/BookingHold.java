@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * A time slot of an item reserved for a booker until {@code expiresAt}. Holds live in memory only and become
+ * bookings when confirmed.
+ */
+@Builder
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class BookingHold {
+    private final String id;
+    private final Long itemId;
+    private final Long bookerId;
+    private final Long ownerId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final long expiresAtMillis;
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAtMillis <= nowMillis;
+    }
+}
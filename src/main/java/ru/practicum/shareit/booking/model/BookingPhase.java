@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.LocalDateTime;
+
+public enum BookingPhase {
+    FUTURE,
+    CURRENT,
+    PAST;
+
+    public static BookingPhase of(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (start.isAfter(now)) {
+            return FUTURE;
+        }
+        if (end.isBefore(now)) {
+            return PAST;
+        }
+        return CURRENT;
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum BookingRecurrence {
+    WEEKLY(ChronoUnit.WEEKS, Duration.ofDays(7)),
+    MONTHLY(ChronoUnit.MONTHS, Duration.ofDays(28));
+
+    private final ChronoUnit unit;
+    private final Duration shortestPeriod;
+
+    BookingRecurrence(ChronoUnit unit, Duration shortestPeriod) {
+        this.unit = unit;
+        this.shortestPeriod = shortestPeriod;
+    }
+
+    /**
+     * Returns the start of the occurrence with the given index. Months are always added to the first start, so a
+     * series starting on the 31st falls on the last day of shorter months and returns to the 31st afterwards.
+     */
+    public LocalDateTime occurrenceStart(LocalDateTime first, long index) {
+        return first.plus(index, unit);
+    }
+
+    /**
+     * Returns the number of whole periods between {@code first} and {@code time}. It is off by at most one from
+     * the index of the last occurrence starting before {@code time}.
+     */
+    public long periodsBetween(LocalDateTime first, LocalDateTime time) {
+        return unit.between(first, time);
+    }
+
+    /**
+     * Returns the shortest gap between two consecutive starts. A booking may not last longer, or its occurrences
+     * would overlap each other.
+     */
+    public Duration getShortestPeriod() {
+        return shortestPeriod;
+    }
+}
@@ -3,23 +3,99 @@ package ru.practicum.shareit.booking.model;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDateTime;
+import java.util.stream.LongStream;
 
 public enum BookingState {
-    ALL((r, q, cb) -> cb.isTrue(cb.literal(true))),
-    CURRENT((r, q, cb) -> cb.between(
-            cb.literal(LocalDateTime.now()), r.get("start"), r.get("end"))),
-    PAST((r, q, cb) -> cb.lessThan(r.get("end"), LocalDateTime.now())),
-    FUTURE((r, q, cb) -> cb.greaterThan(r.get("start"), LocalDateTime.now())),
-    WAITING((r, q, cb) -> cb.equal(r.<BookingStatus>get("status"), BookingStatus.WAITING)),
-    REJECTED((r, q, cb) -> cb.equal(r.<BookingStatus>get("status"), BookingStatus.REJECTED));
+    ALL((r, q, cb) -> cb.isTrue(cb.literal(true)),
+            (r, q, cb) -> cb.isTrue(cb.literal(true)),
+            (r, q, cb) -> cb.isTrue(cb.literal(true))),
+    CURRENT((r, q, cb) -> cb.equal(r.<BookingPhase>get("phase"), BookingPhase.CURRENT), null,
+            (r, q, cb) -> cb.equal(r.<BookingPhase>get("phase"), BookingPhase.CURRENT)),
+    PAST((r, q, cb) -> cb.equal(r.<BookingPhase>get("phase"), BookingPhase.PAST),
+            (r, q, cb) -> cb.isTrue(cb.literal(true)),
+            (r, q, cb) -> cb.notEqual(r.<BookingPhase>get("phase"), BookingPhase.FUTURE)),
+    FUTURE((r, q, cb) -> cb.equal(r.<BookingPhase>get("phase"), BookingPhase.FUTURE), null,
+            (r, q, cb) -> cb.notEqual(r.<BookingPhase>get("phase"), BookingPhase.PAST)),
+    WAITING((r, q, cb) -> cb.equal(r.<BookingStatus>get("status"), BookingStatus.WAITING), null,
+            (r, q, cb) -> cb.equal(r.<BookingStatus>get("status"), BookingStatus.WAITING)),
+    REJECTED((r, q, cb) -> cb.equal(r.<BookingStatus>get("status"), BookingStatus.REJECTED),
+            (r, q, cb) -> cb.equal(r.<BookingStatus>get("status"), BookingStatus.REJECTED),
+            (r, q, cb) -> cb.equal(r.<BookingStatus>get("status"), BookingStatus.REJECTED));
 
     private final Specification<Booking> specification;
+    private final Specification<ArchivedBooking> archiveSpecification;
+    private final Specification<Booking> seriesSpecification;
 
-    BookingState(Specification<Booking> specification) {
+    BookingState(Specification<Booking> specification, Specification<ArchivedBooking> archiveSpecification,
+                 Specification<Booking> seriesSpecification) {
         this.specification = specification;
+        this.archiveSpecification = archiveSpecification;
+        this.seriesSpecification = seriesSpecification;
     }
 
     public Specification<Booking> getSpecification() {
         return specification;
     }
+
+    /**
+     * Returns the filter for archived bookings, or {@code null} if no booking in this state can be archived and
+     * the archive does not need to be queried.
+     */
+    public Specification<ArchivedBooking> getArchiveSpecification() {
+        return archiveSpecification;
+    }
+
+    /**
+     * Returns the filter for recurring bookings that may have an occurrence in this state. The phase of a recurring
+     * booking spans all of its occurrences, so a series that is still running can have both past and future ones.
+     */
+    public Specification<Booking> getSeriesSpecification() {
+        return seriesSpecification;
+    }
+
+    /**
+     * Returns the indexes of the occurrences of {@code rule} that are in this state, latest first if
+     * {@code descending}. Only the indexes around {@code now} are visited for the time based states.
+     */
+    public LongStream occurrenceIndexes(RecurrenceRule rule, LocalDateTime now, boolean descending) {
+        long first = 0;
+        long last = rule.getCount() - 1;
+        switch (this) {
+            case CURRENT:
+                last = rule.lastIndexStartingAtOrBefore(now);
+                first = last;
+                break;
+            case PAST:
+                last = rule.lastIndexStartingBefore(now);
+                break;
+            case FUTURE:
+                first = rule.lastIndexStartingAtOrBefore(now) + 1;
+                break;
+            default:
+                break;
+        }
+        if (first < 0 || first > last) {
+            return LongStream.empty();
+        }
+        long from = first;
+        long to = last;
+        LongStream indexes = descending
+                ? LongStream.iterate(to, index -> index >= from, index -> index - 1)
+                : LongStream.iterate(from, index -> index <= to, index -> index + 1);
+        return indexes.filter(index -> includes(rule, index, now));
+    }
+
+    private boolean includes(RecurrenceRule rule, long index, LocalDateTime now) {
+        BookingPhase phase = BookingPhase.of(rule.getStart(index), rule.getEnd(index), now);
+        switch (this) {
+            case CURRENT:
+                return phase == BookingPhase.CURRENT;
+            case PAST:
+                return phase == BookingPhase.PAST;
+            case FUTURE:
+                return phase == BookingPhase.FUTURE;
+            default:
+                return true;
+        }
+    }
 }
\ No newline at end of file
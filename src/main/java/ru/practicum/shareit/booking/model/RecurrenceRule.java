@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * The occurrences of a booking: the first one from {@code start} to {@code end}, then one per period of the
+ * recurrence for every start not later than {@code until}. A booking without a recurrence has a single occurrence.
+ * Occurrences are computed from their index and never stored.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class RecurrenceRule {
+    private final LocalDateTime start;
+    private final Duration duration;
+    private final BookingRecurrence recurrence;
+    private final long count;
+
+    private RecurrenceRule(LocalDateTime start, Duration duration, BookingRecurrence recurrence, LocalDateTime until) {
+        this.start = start;
+        this.duration = duration;
+        this.recurrence = recurrence;
+        this.count = recurrence == null || until == null
+                ? 1 : Math.max(1, lastIndex(start, recurrence, until, true, Long.MAX_VALUE) + 1);
+    }
+
+    public static RecurrenceRule of(LocalDateTime start, LocalDateTime end, BookingRecurrence recurrence,
+                                    LocalDateTime until) {
+        return new RecurrenceRule(start, Duration.between(start, end), recurrence, until);
+    }
+
+    public static RecurrenceRule once(LocalDateTime start, LocalDateTime end) {
+        return of(start, end, null, null);
+    }
+
+    public LocalDateTime getStart(long index) {
+        return recurrence == null ? start : recurrence.occurrenceStart(start, index);
+    }
+
+    public LocalDateTime getEnd(long index) {
+        return getStart(index).plus(duration);
+    }
+
+    /**
+     * Returns the end of the last occurrence.
+     */
+    public LocalDateTime getSeriesEnd() {
+        return getEnd(count - 1);
+    }
+
+    /**
+     * Returns the index of the last occurrence starting before {@code time}, or {@code -1} if there is none.
+     */
+    public long lastIndexStartingBefore(LocalDateTime time) {
+        return lastIndex(time, false);
+    }
+
+    /**
+     * Returns the index of the last occurrence starting before or at {@code time}, or {@code -1} if there is none.
+     */
+    public long lastIndexStartingAtOrBefore(LocalDateTime time) {
+        return lastIndex(time, true);
+    }
+
+    /**
+     * Tells whether any occurrence overlaps the given interval. Occurrences follow each other without overlapping,
+     * so only the last one starting before {@code otherEnd} needs to be checked.
+     */
+    public boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+        long index = lastIndexStartingBefore(otherEnd);
+        return index >= 0 && getEnd(index).isAfter(otherStart);
+    }
+
+    /**
+     * Tells whether any occurrences of the two rules overlap. Walks the occurrences of the shorter rule within the
+     * span of the other one and checks each of them against the other rule.
+     */
+    public boolean overlaps(RecurrenceRule other) {
+        RecurrenceRule shorter = count <= other.count ? this : other;
+        RecurrenceRule longer = shorter == this ? other : this;
+        LocalDateTime longerEnd = longer.getSeriesEnd();
+        for (long index = Math.max(0, shorter.lastIndexStartingBefore(longer.start));
+             index < shorter.count && shorter.getStart(index).isBefore(longerEnd); index++) {
+            if (longer.overlaps(shorter.getStart(index), shorter.getEnd(index))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long lastIndex(LocalDateTime time, boolean inclusive) {
+        return lastIndex(start, recurrence, time, inclusive, count);
+    }
+
+    private static long lastIndex(LocalDateTime first, BookingRecurrence recurrence, LocalDateTime time,
+                                  boolean inclusive, long count) {
+        if (!startsBefore(first, time, inclusive)) {
+            return -1;
+        }
+        if (recurrence == null) {
+            return 0;
+        }
+        long index = Math.min(recurrence.periodsBetween(first, time), count - 1);
+        while (index + 1 < count && startsBefore(recurrence.occurrenceStart(first, index + 1), time, inclusive)) {
+            index++;
+        }
+        while (index > 0 && !startsBefore(recurrence.occurrenceStart(first, index), time, inclusive)) {
+            index--;
+        }
+        return index;
+    }
+
+    private static boolean startsBefore(LocalDateTime occurrenceStart, LocalDateTime time, boolean inclusive) {
+        return inclusive ? !occurrenceStart.isAfter(time) : occurrenceStart.isBefore(time);
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long>,
+        JpaSpecificationExecutor<ArchivedBooking> {
+    String SUMMARY_SELECT = "SELECT COUNT(a) AS allCount, " +
+            "SUM(CASE WHEN a.status = :rejected THEN 1 ELSE 0 END) AS rejectedCount " +
+            "FROM ArchivedBooking a ";
+
+    @Modifying
+    @Query(value = "INSERT INTO bookings_archive " +
+            "(booking_id, start_date, end_date, item_id, booker_id, owner_id, status, version, archived_at) " +
+            "SELECT booking_id, start_date, end_date, item_id, booker_id, owner_id, status, version, :archivedAt " +
+            "FROM bookings " +
+            "WHERE booking_id IN :bookingIds", nativeQuery = true)
+    int copyFromBookings(@Param("bookingIds") Collection<Long> bookingIds,
+                         @Param("archivedAt") LocalDateTime archivedAt);
+
+    boolean existsByBookerIdAndItemIdAndStatus(Long bookerId, Long itemId, BookingStatus status);
+
+    Optional<ArchivedBooking> findFirstByItemIdAndStatusOrderByStartDesc(Long itemId, BookingStatus status);
+
+    @Query(SUMMARY_SELECT + "WHERE a.ownerId = :ownerId")
+    ArchivedBookingSummaryView summarizeByOwnerId(@Param("ownerId") long ownerId,
+                                                  @Param("rejected") BookingStatus rejected);
+
+    @Query(SUMMARY_SELECT + "WHERE a.booker.id = :bookerId")
+    ArchivedBookingSummaryView summarizeByBookerId(@Param("bookerId") long bookerId,
+                                                   @Param("rejected") BookingStatus rejected);
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE,
+                    value = BookingRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT a FROM ArchivedBooking a " +
+            "JOIN FETCH a.item i " +
+            "JOIN FETCH i.owner " +
+            "LEFT JOIN FETCH i.request r " +
+            "LEFT JOIN FETCH r.requestor " +
+            "JOIN FETCH a.booker " +
+            "WHERE a.ownerId = :ownerId " +
+            "ORDER BY a.start DESC, a.id DESC")
+    Stream<ArchivedBooking> streamByOwnerId(@Param("ownerId") long ownerId);
+}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.repository;
+
+public interface BookingBookerView {
+    Long getId();
+
+    Long getItemId();
+
+    Long getBookerId();
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.BookingRecurrence;
+import ru.practicum.shareit.booking.model.RecurrenceRule;
+
+import java.time.LocalDateTime;
+
+public interface BookingIntervalView {
+    Long getItemId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+    BookingRecurrence getRecurrence();
+
+    LocalDateTime getRecurrenceUntil();
+
+    default RecurrenceRule toRecurrenceRule() {
+        return RecurrenceRule.of(getStartDate(), getEndDate(), getRecurrence(), getRecurrenceUntil());
+    }
+}
\ No newline at end of file
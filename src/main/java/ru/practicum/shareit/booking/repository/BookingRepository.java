@@ -1,8 +1,225 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
+    String SUMMARY_SELECT = "SELECT COUNT(b) AS allCount, " +
+            "SUM(CASE WHEN b.phase = :currentPhase THEN 1 ELSE 0 END) AS currentCount, " +
+            "SUM(CASE WHEN b.phase = :pastPhase THEN 1 ELSE 0 END) AS pastCount, " +
+            "SUM(CASE WHEN b.phase = :futurePhase THEN 1 ELSE 0 END) AS futureCount, " +
+            "SUM(CASE WHEN b.status = :waiting THEN 1 ELSE 0 END) AS waitingCount, " +
+            "SUM(CASE WHEN b.status = :rejected THEN 1 ELSE 0 END) AS rejectedCount " +
+            "FROM Booking b ";
+    String SERIES_SELECT = "SELECT b.start AS startDate, b.end AS endDate, b.recurrence AS recurrence, " +
+            "b.recurrenceUntil AS recurrenceUntil, b.status AS status " +
+            "FROM Booking b ";
+    String EXPORT_FETCH_SIZE = "500";
+
+    /**
+     * Returns the first {@code limit} bookings matching {@code specification} in {@code sort} order.
+     */
+    default List<Booking> findLimited(Specification<Booking> specification, Sort sort, int limit) {
+        return findAll(specification, PageRequest.of(0, limit, sort)).getContent();
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.updated = :now, b.version = b.version + 1 " +
+            "WHERE b.id = :bookingId " +
+            "AND b.ownerId = :ownerId " +
+            "AND b.status = :expected")
+    int updateStatus(@Param("bookingId") long bookingId,
+                     @Param("ownerId") long ownerId,
+                     @Param("expected") BookingStatus expected,
+                     @Param("status") BookingStatus status,
+                     @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.updated = :now, b.version = b.version + 1 " +
+            "WHERE b.id IN :bookingIds " +
+            "AND b.ownerId = :ownerId " +
+            "AND b.status = :expected")
+    int updateStatusIn(@Param("bookingIds") Collection<Long> bookingIds,
+                       @Param("ownerId") long ownerId,
+                       @Param("expected") BookingStatus expected,
+                       @Param("status") BookingStatus status,
+                       @Param("now") LocalDateTime now);
+
+    Optional<Booking> findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(Long itemId, BookingStatus status,
+                                                                          LocalDateTime time);
+
+    Optional<Booking> findFirstByItemIdAndStatusNotAndStartAfterOrderByStartAsc(Long itemId, BookingStatus status,
+                                                                           LocalDateTime time);
+
+    /**
+     * Locks the given bookings in id order, so their statuses cannot change before the transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id AS id, b.ownerId AS ownerId, b.status AS status " +
+            "FROM Booking b " +
+            "WHERE b.id IN :bookingIds " +
+            "ORDER BY b.id")
+    List<BookingStatusView> findStatusViewsByIdInForUpdate(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Query("SELECT b.item.id AS itemId, b.start AS startDate, b.end AS endDate, " +
+            "b.recurrence AS recurrence, b.recurrenceUntil AS recurrenceUntil " +
+            "FROM Booking b " +
+            "WHERE b.item.id IN :itemIds " +
+            "AND b.status = :status " +
+            "AND b.start < :rangeEnd " +
+            "AND b.seriesEnd > :rangeStart")
+    List<BookingIntervalView> findIntervals(@Param("itemIds") Collection<Long> itemIds,
+                                            @Param("status") BookingStatus status,
+                                            @Param("rangeStart") LocalDateTime rangeStart,
+                                            @Param("rangeEnd") LocalDateTime rangeEnd);
+
+    @Query(SUMMARY_SELECT + "WHERE b.ownerId = :ownerId AND b.recurrence IS NULL")
+    BookingSummaryView summarizeByOwnerId(@Param("ownerId") long ownerId,
+                                          @Param("currentPhase") BookingPhase currentPhase,
+                                          @Param("pastPhase") BookingPhase pastPhase,
+                                          @Param("futurePhase") BookingPhase futurePhase,
+                                          @Param("waiting") BookingStatus waiting,
+                                          @Param("rejected") BookingStatus rejected);
+
+    @Query(SUMMARY_SELECT + "WHERE b.booker.id = :bookerId AND b.recurrence IS NULL")
+    BookingSummaryView summarizeByBookerId(@Param("bookerId") long bookerId,
+                                           @Param("currentPhase") BookingPhase currentPhase,
+                                           @Param("pastPhase") BookingPhase pastPhase,
+                                           @Param("futurePhase") BookingPhase futurePhase,
+                                           @Param("waiting") BookingStatus waiting,
+                                           @Param("rejected") BookingStatus rejected);
+
+    @Query(SERIES_SELECT + "WHERE b.ownerId = :ownerId AND b.recurrence IS NOT NULL")
+    List<BookingSeriesView> findSeriesByOwnerId(@Param("ownerId") long ownerId);
+
+    @Query(SERIES_SELECT + "WHERE b.booker.id = :bookerId AND b.recurrence IS NOT NULL")
+    List<BookingSeriesView> findSeriesByBookerId(@Param("bookerId") long bookerId);
+
+    @Query("SELECT b.id AS id, b.start AS startDate, b.seriesEnd AS endDate " +
+            "FROM Booking b " +
+            "WHERE (b.start >= :rangeStart AND b.start < :rangeEnd) " +
+            "OR (b.seriesEnd >= :rangeStart AND b.seriesEnd < :rangeEnd)")
+    List<BookingPeriodView> findPeriodsWithTransitionBetween(@Param("rangeStart") LocalDateTime rangeStart,
+                                                             @Param("rangeEnd") LocalDateTime rangeEnd);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.phase = :phase, b.version = b.version + 1 " +
+            "WHERE b.id IN :bookingIds " +
+            "AND b.phase IN :expected")
+    int updatePhaseIn(@Param("bookingIds") Collection<Long> bookingIds,
+                      @Param("expected") Collection<BookingPhase> expected,
+                      @Param("phase") BookingPhase phase);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.phase = :phase, b.version = b.version + 1 " +
+            "WHERE b.phase IN :expected " +
+            "AND b.start <= :now")
+    int updatePhaseStartedBefore(@Param("expected") Collection<BookingPhase> expected,
+                                 @Param("phase") BookingPhase phase,
+                                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.phase = :phase, b.version = b.version + 1 " +
+            "WHERE b.phase IN :expected " +
+            "AND b.seriesEnd < :now")
+    int updatePhaseEndedBefore(@Param("expected") Collection<BookingPhase> expected,
+                               @Param("phase") BookingPhase phase,
+                               @Param("now") LocalDateTime now);
+
+    @Query("SELECT b.id FROM Booking b " +
+            "WHERE b.status = :status " +
+            "AND b.start < :startBefore " +
+            "AND b.id > :afterId " +
+            "ORDER BY b.id")
+    List<Long> findIdsByStatusAndStartBefore(@Param("status") BookingStatus status,
+                                             @Param("startBefore") LocalDateTime startBefore,
+                                             @Param("afterId") long afterId,
+                                             Pageable pageable);
+
+    @Query("SELECT MIN(b.start) FROM Booking b " +
+            "WHERE b.status = :status " +
+            "AND b.start < :startBefore")
+    LocalDateTime findMinStartByStatusAndStartBefore(@Param("status") BookingStatus status,
+                                                     @Param("startBefore") LocalDateTime startBefore);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.updated = :now, b.version = b.version + 1 " +
+            "WHERE b.id IN :bookingIds " +
+            "AND b.status = :expected")
+    int updateStatusByIdIn(@Param("bookingIds") Collection<Long> bookingIds,
+                           @Param("expected") BookingStatus expected,
+                           @Param("status") BookingStatus status,
+                           @Param("now") LocalDateTime now);
+
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.booker.id AS bookerId " +
+            "FROM Booking b " +
+            "WHERE b.id IN :bookingIds " +
+            "AND b.status = :status")
+    List<BookingBookerView> findBookersByIdInAndStatus(@Param("bookingIds") Collection<Long> bookingIds,
+                                                       @Param("status") BookingStatus status);
+
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.booker.id AS bookerId " +
+            "FROM Booking b " +
+            "WHERE b.status = :status " +
+            "AND b.end >= :endAfter " +
+            "AND b.end < :endBefore " +
+            "AND b.id > :afterId " +
+            "ORDER BY b.id")
+    List<BookingBookerView> findBookersByStatusAndEndBetween(@Param("status") BookingStatus status,
+                                                             @Param("endAfter") LocalDateTime endAfter,
+                                                             @Param("endBefore") LocalDateTime endBefore,
+                                                             @Param("afterId") long afterId,
+                                                             Pageable pageable);
+
+    @Query("SELECT b.id FROM Booking b " +
+            "WHERE b.phase = :phase " +
+            "AND b.end < :endBefore " +
+            "AND b.recurrence IS NULL " +
+            "AND b.id > :afterId " +
+            "ORDER BY b.id")
+    List<Long> findIdsByPhaseAndEndBefore(@Param("phase") BookingPhase phase,
+                                          @Param("endBefore") LocalDateTime endBefore,
+                                          @Param("afterId") long afterId,
+                                          Pageable pageable);
+
+    @Query("SELECT DISTINCT b.ownerId FROM Booking b WHERE b.id IN :bookingIds")
+    List<Long> findOwnerIdsByIdIn(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Booking b WHERE b.id IN :bookingIds")
+    int deleteByIdIn(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b " +
+            "JOIN FETCH b.item i " +
+            "JOIN FETCH i.owner " +
+            "LEFT JOIN FETCH i.request r " +
+            "LEFT JOIN FETCH r.requestor " +
+            "JOIN FETCH b.booker " +
+            "WHERE b.ownerId = :ownerId " +
+            "ORDER BY b.start DESC, b.id DESC")
+    Stream<Booking> streamByOwnerId(@Param("ownerId") long ownerId);
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.BookingRecurrence;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.RecurrenceRule;
+
+import java.time.LocalDateTime;
+
+public interface BookingSeriesView {
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+    BookingRecurrence getRecurrence();
+
+    LocalDateTime getRecurrenceUntil();
+
+    BookingStatus getStatus();
+
+    default RecurrenceRule toRecurrenceRule() {
+        return RecurrenceRule.of(getStartDate(), getEndDate(), getRecurrence(), getRecurrenceUntil());
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+public interface BookingStatusView {
+    Long getId();
+
+    Long getOwnerId();
+
+    BookingStatus getStatus();
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.repository;
+
+public interface BookingSummaryView {
+    Long getAllCount();
+
+    Long getCurrentCount();
+
+    Long getPastCount();
+
+    Long getFutureCount();
+
+    Long getWaitingCount();
+
+    Long getRejectedCount();
+}
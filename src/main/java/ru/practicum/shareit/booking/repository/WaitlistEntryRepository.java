@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.shareit.booking.model.WaitlistEntry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+    List<WaitlistEntry> findAllByItemIdOrderById(Long itemId);
+
+    boolean existsByItemIdAndUserIdAndStartAndEnd(Long itemId, Long userId, LocalDateTime start, LocalDateTime end);
+
+    long countByItemIdAndIdLessThanEqual(Long itemId, Long id);
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.scheduler.SchedulerLockService;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves PAST bookings that ended more than {@code retention} ago from {@code bookings} to
+ * {@code bookings_archive}.
+ * <p>
+ * Every chunk is copied with a single INSERT ... SELECT and deleted from the hot table in the same short
+ * transaction, walking the candidates in keyset order by id. The move reorders the exported histories of the owners,
+ * so it also bumps their history versions. Like {@link BookingExpiryJob} it runs on one node at a time under the
+ * {@value #LOCK_NAME} scheduler lock.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking-archive.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingArchiveJob {
+    static final String LOCK_NAME = "booking-archive";
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final UserRepository userRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int chunkSize;
+    private final Duration leaseTime;
+    private final Counter archivedCounter;
+    private final Timer runTimer;
+
+    public BookingArchiveJob(BookingRepository bookingRepository,
+                             ArchivedBookingRepository archivedBookingRepository,
+                             UserRepository userRepository,
+                             SchedulerLockService schedulerLockService,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${shareit.booking-archive.retention:P90D}") Duration retention,
+                             @Value("${shareit.booking-archive.chunk-size:500}") int chunkSize,
+                             @Value("${shareit.booking-archive.lease-time:PT5M}") Duration leaseTime) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.userRepository = userRepository;
+        this.schedulerLockService = schedulerLockService;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = retention;
+        this.chunkSize = chunkSize;
+        this.leaseTime = leaseTime;
+        this.archivedCounter = Counter.builder("shareit.booking.archive.archived")
+                .description("Bookings moved to the archive table")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("shareit.booking.archive.duration")
+                .description("Duration of a booking archive run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-archive.interval:PT1H}")
+    public void archiveBookings() {
+        if (!schedulerLockService.tryLock(LOCK_NAME, leaseTime)) {
+            log.debug("Booking archiving is running on another node");
+            return;
+        }
+        try {
+            runTimer.record(this::archive);
+        } finally {
+            schedulerLockService.unlock(LOCK_NAME);
+        }
+    }
+
+    private void archive() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime endBefore = now.minus(retention);
+        long afterId = 0;
+        long archived = 0;
+        while (true) {
+            long cursor = afterId;
+            List<Long> bookingIds = transactionTemplate.execute(status -> archiveChunk(endBefore, cursor, now));
+            if (bookingIds == null || bookingIds.isEmpty()) {
+                break;
+            }
+            archived += bookingIds.size();
+            if (bookingIds.size() < chunkSize) {
+                break;
+            }
+            afterId = bookingIds.get(bookingIds.size() - 1);
+            if (!schedulerLockService.tryLock(LOCK_NAME, leaseTime)) {
+                log.warn("Lost booking archive lock after booking with id:{}", afterId);
+                break;
+            }
+        }
+        log.info("Archived {} bookings that ended before {}", archived, endBefore);
+    }
+
+    private List<Long> archiveChunk(LocalDateTime endBefore, long afterId, LocalDateTime archivedAt) {
+        List<Long> bookingIds = bookingRepository.findIdsByPhaseAndEndBefore(BookingPhase.PAST, endBefore, afterId,
+                PageRequest.of(0, chunkSize));
+        if (bookingIds.isEmpty()) {
+            return bookingIds;
+        }
+        userRepository.incrementHistoryVersion(bookingRepository.findOwnerIdsByIdIn(bookingIds));
+        archivedBookingRepository.copyFromBookings(bookingIds, archivedAt);
+        bookingRepository.deleteByIdIn(bookingIds);
+        archivedCounter.increment(bookingIds.size());
+        return bookingIds;
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.AvailabilityProbeDto;
+import ru.practicum.shareit.booking.model.BookingHold;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.RecurrenceRule;
+import ru.practicum.shareit.booking.repository.BookingIntervalView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.validation.ValidationException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Answers a batch of "is this item free from start to end" probes. The approved bookings of all probed items are
+ * read with one query covering the union of the probed ranges and, together with the active holds, indexed per item
+ * in memory; every probe is then answered from the index.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class BookingAvailabilityService {
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingHoldRegistry bookingHoldRegistry;
+
+    /**
+     * Returns the probes in the same order with {@code available} set. Items that don't exist or aren't available
+     * are reported as busy. Holds of {@code userId}, if given, don't count.
+     */
+    public List<AvailabilityProbeDto> checkAvailability(Long userId, List<AvailabilityProbeDto> probes) {
+        probes.forEach(this::validateProbe);
+        Set<Long> itemIds = probes.stream()
+                .map(AvailabilityProbeDto::getItemId)
+                .collect(Collectors.toSet());
+        Set<Long> availableItemIds = new HashSet<>(itemRepository.findAvailableIdsByIdIn(itemIds));
+        Map<Long, BookingIntervalIndex> indexes = availableItemIds.isEmpty()
+                ? Map.of() : buildIndexes(userId, availableItemIds, probes);
+        BookingIntervalIndex empty = new BookingIntervalIndex(List.of());
+        List<AvailabilityProbeDto> results = probes.stream()
+                .map(probe -> probe.toBuilder()
+                        .available(availableItemIds.contains(probe.getItemId())
+                                && !indexes.getOrDefault(probe.getItemId(), empty)
+                                .overlaps(probe.getStart(), probe.getEnd()))
+                        .build())
+                .collect(Collectors.toList());
+        log.debug("Checked availability of {} items for {} probes", itemIds.size(), probes.size());
+        return results;
+    }
+
+    private Map<Long, BookingIntervalIndex> buildIndexes(Long userId, Set<Long> itemIds,
+                                                         List<AvailabilityProbeDto> probes) {
+        LocalDateTime rangeStart = probes.stream()
+                .map(AvailabilityProbeDto::getStart)
+                .min(Comparator.naturalOrder())
+                .orElseThrow();
+        LocalDateTime rangeEnd = probes.stream()
+                .map(AvailabilityProbeDto::getEnd)
+                .max(Comparator.naturalOrder())
+                .orElseThrow();
+        Map<Long, List<RecurrenceRule>> busy = new HashMap<>();
+        for (BookingIntervalView interval : bookingRepository.findIntervals(itemIds, BookingStatus.APPROVED,
+                rangeStart, rangeEnd)) {
+            busy.computeIfAbsent(interval.getItemId(), id -> new ArrayList<>()).add(interval.toRecurrenceRule());
+        }
+        for (BookingHold hold : bookingHoldRegistry.findActiveByItemIds(itemIds)) {
+            if (!hold.getBookerId().equals(userId)) {
+                busy.computeIfAbsent(hold.getItemId(), id -> new ArrayList<>())
+                        .add(RecurrenceRule.once(hold.getStart(), hold.getEnd()));
+            }
+        }
+        Map<Long, BookingIntervalIndex> indexes = new HashMap<>();
+        busy.forEach((itemId, rules) -> indexes.put(itemId, new BookingIntervalIndex(rules)));
+        return indexes;
+    }
+
+    private void validateProbe(AvailabilityProbeDto probe) {
+        if (!probe.getStart().isBefore(probe.getEnd())) {
+            throw new ValidationException(String.format("Probe of item with id:%d must start before it ends",
+                    probe.getItemId()));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parks long-poll requests of bookers until their booking leaves the WAITING status.
+ * <p>
+ * A waiter is registered before the current status is read, so a status change committed in between is seen
+ * either by the read or by {@link #onBookingEvent(BookingEvent)}. Parked requests hold neither a servlet thread
+ * nor a database connection.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingAwaitService {
+    private final BookingService bookingService;
+    private final Map<Long, Set<DeferredResult<BookingDto>>> waiters = new ConcurrentHashMap<>();
+
+    public DeferredResult<BookingDto> awaitBooking(long userId, long bookingId, long timeoutMillis) {
+        DeferredResult<BookingDto> result = new DeferredResult<>(timeoutMillis);
+        waiters.compute(bookingId, (id, bookingWaiters) -> {
+            Set<DeferredResult<BookingDto>> updated = bookingWaiters == null
+                    ? ConcurrentHashMap.newKeySet() : bookingWaiters;
+            updated.add(result);
+            return updated;
+        });
+        result.onCompletion(() -> removeWaiter(bookingId, result));
+        BookingDto booking;
+        try {
+            booking = bookingService.getBookingById(userId, bookingId);
+        } catch (RuntimeException e) {
+            removeWaiter(bookingId, result);
+            throw e;
+        }
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            removeWaiter(bookingId, result);
+            result.setResult(booking);
+        } else {
+            result.onTimeout(() -> result.setResult(booking));
+        }
+        return result;
+    }
+
+    @TransactionalEventListener
+    public void onBookingEvent(BookingEvent event) {
+        if (event.getType() != BookingEventType.STATUS_CHANGED) {
+            return;
+        }
+        Set<DeferredResult<BookingDto>> bookingWaiters = waiters.remove(event.getBooking().getId());
+        if (bookingWaiters == null) {
+            return;
+        }
+        bookingWaiters.forEach(waiter -> waiter.setResult(event.getBooking()));
+        log.info("Released {} waiters of booking with id:{}", bookingWaiters.size(), event.getBooking().getId());
+    }
+
+    public int getWaiterCount() {
+        return waiters.values().stream()
+                .mapToInt(Set::size)
+                .sum();
+    }
+
+    private void removeWaiter(long bookingId, DeferredResult<BookingDto> result) {
+        waiters.computeIfPresent(bookingId, (id, bookingWaiters) -> {
+            bookingWaiters.remove(result);
+            return bookingWaiters.isEmpty() ? null : bookingWaiters;
+        });
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.scheduler.SchedulerLockService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cancels WAITING bookings whose start date has passed without an answer from the owner.
+ * <p>
+ * Stale bookings are walked in keyset order by id, one short transaction per chunk, so the sweep never holds
+ * locks on more than {@code chunk-size} rows. Only the node that holds the {@value #LOCK_NAME} scheduler lock
+ * runs it; the lease is extended after every chunk.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking-expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingExpiryJob {
+    static final String LOCK_NAME = "booking-expiry";
+    private final BookingRepository bookingRepository;
+    private final BookingMapper bookingMapper;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final Duration leaseTime;
+    private final Counter expiredCounter;
+    private final Counter chunkCounter;
+    private final Timer sweepTimer;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public BookingExpiryJob(BookingRepository bookingRepository,
+                            BookingMapper bookingMapper,
+                            SchedulerLockService schedulerLockService,
+                            TransactionTemplate transactionTemplate,
+                            ApplicationEventPublisher eventPublisher,
+                            MeterRegistry meterRegistry,
+                            @Value("${shareit.booking-expiry.chunk-size:500}") int chunkSize,
+                            @Value("${shareit.booking-expiry.lease-time:PT5M}") Duration leaseTime) {
+        this.bookingRepository = bookingRepository;
+        this.bookingMapper = bookingMapper;
+        this.schedulerLockService = schedulerLockService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.leaseTime = leaseTime;
+        this.expiredCounter = Counter.builder("shareit.booking.expiry.expired")
+                .description("WAITING bookings canceled because their start date passed")
+                .register(meterRegistry);
+        this.chunkCounter = Counter.builder("shareit.booking.expiry.chunks")
+                .description("Chunks processed by the booking expiry sweep")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("shareit.booking.expiry.duration")
+                .description("Duration of a booking expiry sweep")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.expiry.lag", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest stale WAITING booking left after the last sweep")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-expiry.interval:PT1M}")
+    public void expireStaleBookings() {
+        if (!schedulerLockService.tryLock(LOCK_NAME, leaseTime)) {
+            log.debug("Booking expiry is running on another node");
+            return;
+        }
+        try {
+            sweepTimer.record(this::sweep);
+        } finally {
+            schedulerLockService.unlock(LOCK_NAME);
+        }
+    }
+
+    private void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        AtomicLong expired = new AtomicLong();
+        long afterId = 0;
+        while (true) {
+            long cursor = afterId;
+            List<Long> bookingIds = transactionTemplate.execute(status -> expireChunk(now, cursor, expired));
+            if (bookingIds == null || bookingIds.isEmpty()) {
+                break;
+            }
+            chunkCounter.increment();
+            if (bookingIds.size() < chunkSize) {
+                break;
+            }
+            afterId = bookingIds.get(bookingIds.size() - 1);
+            if (!schedulerLockService.tryLock(LOCK_NAME, leaseTime)) {
+                log.warn("Lost booking expiry lock after booking with id:{}", afterId);
+                break;
+            }
+        }
+        LocalDateTime oldest = bookingRepository.findMinStartByStatusAndStartBefore(BookingStatus.WAITING, now);
+        lagSeconds.set(oldest == null ? 0 : Duration.between(oldest, now).getSeconds());
+        log.info("Canceled {} stale WAITING bookings", expired.get());
+    }
+
+    private List<Long> expireChunk(LocalDateTime now, long afterId, AtomicLong expired) {
+        List<Long> bookingIds = bookingRepository.findIdsByStatusAndStartBefore(BookingStatus.WAITING, now, afterId,
+                PageRequest.of(0, chunkSize));
+        if (bookingIds.isEmpty()) {
+            return bookingIds;
+        }
+        int canceled = bookingRepository.updateStatusByIdIn(bookingIds, BookingStatus.WAITING,
+                BookingStatus.CANCELED, LocalDateTime.now());
+        expired.addAndGet(canceled);
+        expiredCounter.increment(canceled);
+        if (canceled > 0) {
+            bookingRepository.findAllById(bookingIds).stream()
+                    .filter(booking -> booking.getStatus() == BookingStatus.CANCELED)
+                    .forEach(booking -> eventPublisher.publishEvent(new BookingEvent(BookingEventType.STATUS_CHANGED,
+                            booking.getOwnerId(), bookingMapper.toBookingResponseDto(booking))));
+        }
+        return bookingIds;
+    }
+}
@@ -0,0 +1,268 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingExportFormat;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the full booking history of an owner, hot bookings first and archived ones after, each newest first.
+ * <p>
+ * Rows are read through a forward-only cursor and written one by one. Every {@code chunkSize} rows the writer
+ * is flushed to the client and the persistence context is cleared, so memory use does not grow with the size
+ * of the history.
+ */
+@Slf4j
+@Service
+public class BookingExportService {
+    private static final String CSV_HEADER = "id,start,end,status,itemId,itemName,bookerId,bookerName,"
+            + "recurrence,recurrenceUntil";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int ICS_LINE_OCTETS = 75;
+    private static final DateTimeFormatter ICS_LOCAL_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter ICS_UTC_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+            .withZone(ZoneOffset.UTC);
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final UserRepository userRepository;
+    private final BookingMapper bookingMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Duration timeout;
+
+    public BookingExportService(BookingRepository bookingRepository,
+                                ArchivedBookingRepository archivedBookingRepository,
+                                UserRepository userRepository,
+                                BookingMapper bookingMapper,
+                                ObjectMapper objectMapper,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${shareit.booking-export.chunk-size:500}") int chunkSize,
+                                @Value("${shareit.booking-export.timeout:PT1H}") Duration timeout) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.userRepository = userRepository;
+        this.bookingMapper = bookingMapper;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.chunkSize = chunkSize;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Returns how long a single export response may take to write.
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Returns an entity tag for the owner's history.
+     * <p>
+     * The tag is the owner's booking history version, read with a single primary key lookup. Every write that
+     * changes what the export shows bumps the version in its own transaction: booking events, archiving, item
+     * updates and deletes, and renames and deletes of the bookers. The tag is read before the history, so a body
+     * is never older than the tag it is served with.
+     */
+    public String getHistoryTag(long ownerId) {
+        Long version = userRepository.findHistoryVersionById(ownerId);
+        if (version == null) {
+            throw new NotFoundException(String.format("User with id:%d not found", ownerId));
+        }
+        return String.format("\"%d-%d\"", ownerId, version);
+    }
+
+    public StreamingResponseBody exportByOwnerId(long ownerId, BookingExportFormat format) {
+        if (!userRepository.existsById(ownerId)) {
+            throw new NotFoundException(String.format("User with id:%d not found", ownerId));
+        }
+        return outputStream -> export(ownerId, format, outputStream);
+    }
+
+    void export(long ownerId, BookingExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8),
+                BUFFER_SIZE);
+        writeHeader(format, writer);
+        long rows;
+        try {
+            rows = transactionTemplate.execute(status -> {
+                long written;
+                try (Stream<Booking> bookings = bookingRepository.streamByOwnerId(ownerId)) {
+                    written = writeRows(bookings.iterator(), format, writer, 0);
+                }
+                try (Stream<Booking> bookings = archivedBookingRepository.streamByOwnerId(ownerId)
+                        .map(bookingMapper::toBooking)) {
+                    written = writeRows(bookings.iterator(), format, writer, written);
+                }
+                return written;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writeFooter(format, writer);
+        writer.flush();
+        log.info("Exported {} bookings of owner with id:{} as {}", rows, ownerId, format);
+    }
+
+    private long writeRows(Iterator<Booking> bookings, BookingExportFormat format, Writer writer, long written) {
+        try {
+            while (bookings.hasNext()) {
+                writeRow(bookingMapper.toBookingResponseDto(bookings.next()), format, writer);
+                if (++written % chunkSize == 0) {
+                    writer.flush();
+                    entityManager.clear();
+                }
+            }
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeHeader(BookingExportFormat format, Writer writer) throws IOException {
+        if (format == BookingExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        } else if (format == BookingExportFormat.ICS) {
+            writeIcsLine("BEGIN:VCALENDAR", writer);
+            writeIcsLine("VERSION:2.0", writer);
+            writeIcsLine("PRODID:-//ShareIt//Bookings//EN", writer);
+            writeIcsLine("CALSCALE:GREGORIAN", writer);
+        }
+    }
+
+    private void writeRow(BookingDto booking, BookingExportFormat format, Writer writer) throws IOException {
+        switch (format) {
+            case CSV:
+                writeCsvRow(booking, writer);
+                break;
+            case ICS:
+                writeIcsEvent(booking, writer);
+                break;
+            default:
+                writer.write(objectMapper.writeValueAsString(booking));
+                writer.write('\n');
+        }
+    }
+
+    private void writeFooter(BookingExportFormat format, Writer writer) throws IOException {
+        if (format == BookingExportFormat.ICS) {
+            writeIcsLine("END:VCALENDAR", writer);
+        }
+    }
+
+    private void writeCsvRow(BookingDto booking, Writer writer) throws IOException {
+        writer.write(String.join(",",
+                String.valueOf(booking.getId()),
+                String.valueOf(booking.getStart()),
+                String.valueOf(booking.getEnd()),
+                String.valueOf(booking.getStatus()),
+                String.valueOf(booking.getItem().getId()),
+                csvField(booking.getItem().getName()),
+                String.valueOf(booking.getBooker().getId()),
+                csvField(booking.getBooker().getName()),
+                booking.getRecurrence() == null ? "" : booking.getRecurrence().name(),
+                booking.getRecurrenceUntil() == null ? "" : booking.getRecurrenceUntil().toString()));
+        writer.write('\n');
+    }
+
+    private String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private void writeIcsEvent(BookingDto booking, Writer writer) throws IOException {
+        writeIcsLine("BEGIN:VEVENT", writer);
+        writeIcsLine("UID:booking-" + booking.getId() + "@shareit", writer);
+        writeIcsLine("DTSTAMP:" + ICS_UTC_TIME.format(Instant.now()), writer);
+        writeIcsLine("DTSTART:" + ICS_LOCAL_TIME.format(booking.getStart()), writer);
+        writeIcsLine("DTEND:" + ICS_LOCAL_TIME.format(booking.getEnd()), writer);
+        if (booking.getRecurrence() != null) {
+            writeIcsLine("RRULE:FREQ=" + booking.getRecurrence() + ";UNTIL="
+                    + ICS_LOCAL_TIME.format(booking.getRecurrenceUntil()), writer);
+        }
+        writeIcsLine("SUMMARY:" + icsText(booking.getItem().getName()), writer);
+        writeIcsLine("DESCRIPTION:" + icsText("Booked by " + booking.getBooker().getName()), writer);
+        writeIcsLine("STATUS:" + icsStatus(booking.getStatus()), writer);
+        writeIcsLine("END:VEVENT", writer);
+    }
+
+    private String icsStatus(BookingStatus status) {
+        switch (status) {
+            case APPROVED:
+                return "CONFIRMED";
+            case WAITING:
+                return "TENTATIVE";
+            default:
+                return "CANCELLED";
+        }
+    }
+
+    private String icsText(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n");
+    }
+
+    /**
+     * Writes a content line, folded so that no physical line is longer than 75 octets.
+     */
+    private void writeIcsLine(String line, Writer writer) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int length = new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8).length;
+            if (octets + length > ICS_LINE_OCTETS) {
+                writer.write("\r\n ");
+                octets = 1;
+            }
+            writer.write(line, i, Character.charCount(codePoint));
+            octets += length;
+            i += Character.charCount(codePoint);
+        }
+        writer.write("\r\n");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.booking.model.BookingHold;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only journal of booking holds.
+ * <p>
+ * Every change is one tab-separated line: {@code HOLD} when a hold is placed and {@code RELEASE} when it is
+ * confirmed. Expiry writes nothing, expired holds are simply dropped on replay. Opening the journal replays it and
+ * rewrites it with the live holds only, so the file stays as small as the set of holds at startup plus the changes
+ * made since. The journal lives in a file of its own directory, which must be writable, otherwise opening fails.
+ * A record counts only once its line is terminated, so a torn last line left by a crash is dropped on replay, even
+ * if what was written of it would parse.
+ */
+@Slf4j
+class BookingHoldJournal implements Closeable {
+    private static final String HOLD = "HOLD";
+    private static final String RELEASE = "RELEASE";
+    private static final String SEPARATOR = "\t";
+    private static final String FILE_NAME = "holds.journal";
+
+    private final Path directory;
+    private final Path path;
+    private FileChannel channel;
+
+    BookingHoldJournal(Path directory) {
+        this.directory = directory;
+        this.path = directory.resolve(FILE_NAME);
+    }
+
+    /**
+     * Replays and compacts the journal and opens it for appending.
+     *
+     * @return holds that were neither released nor expired at {@code nowMillis}
+     */
+    List<BookingHold> open(long nowMillis) throws IOException {
+        Files.createDirectories(directory);
+        if (!Files.isWritable(directory)) {
+            throw new IOException(String.format("Booking hold journal directory %s is not writable",
+                    directory.toAbsolutePath()));
+        }
+        Map<String, BookingHold> holds = new LinkedHashMap<>();
+        if (Files.exists(path)) {
+            byte[] bytes = Files.readAllBytes(path);
+            int complete = completeLength(bytes);
+            if (complete < bytes.length) {
+                log.warn("Dropped {} bytes of a torn record at the end of {}", bytes.length - complete, path);
+            }
+            new String(bytes, 0, complete, StandardCharsets.UTF_8).lines()
+                    .forEach(line -> replay(line, holds));
+        }
+        holds.values().removeIf(hold -> hold.isExpired(nowMillis));
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try (BufferedWriter writer = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+            for (BookingHold hold : holds.values()) {
+                writer.write(holdRecord(hold));
+            }
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new ArrayList<>(holds.values());
+    }
+
+    void appendHold(BookingHold hold) throws IOException {
+        append(holdRecord(hold));
+    }
+
+    void appendRelease(String holdId) throws IOException {
+        append(RELEASE + SEPARATOR + holdId + "\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void append(String record) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(record.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Returns the length of {@code bytes} up to and including their last line break.
+     */
+    private static int completeLength(byte[] bytes) {
+        int length = bytes.length;
+        while (length > 0 && bytes[length - 1] != '\n') {
+            length--;
+        }
+        return length;
+    }
+
+    private void replay(String line, Map<String, BookingHold> holds) {
+        String[] fields = line.split(SEPARATOR);
+        try {
+            if (HOLD.equals(fields[0]) && fields.length == 8) {
+                BookingHold hold = BookingHold.builder()
+                        .id(fields[1])
+                        .itemId(Long.parseLong(fields[2]))
+                        .bookerId(Long.parseLong(fields[3]))
+                        .ownerId(Long.parseLong(fields[4]))
+                        .start(LocalDateTime.parse(fields[5]))
+                        .end(LocalDateTime.parse(fields[6]))
+                        .expiresAtMillis(Long.parseLong(fields[7]))
+                        .build();
+                holds.put(hold.getId(), hold);
+            } else if (RELEASE.equals(fields[0]) && fields.length == 2) {
+                holds.remove(fields[1]);
+            } else {
+                log.warn("Skipped malformed booking hold journal record: {}", line);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Skipped malformed booking hold journal record: {}", line);
+        }
+    }
+
+    private String holdRecord(BookingHold hold) {
+        return String.join(SEPARATOR, HOLD, hold.getId(), String.valueOf(hold.getItemId()),
+                String.valueOf(hold.getBookerId()), String.valueOf(hold.getOwnerId()), hold.getStart().toString(),
+                hold.getEnd().toString(), String.valueOf(hold.getExpiresAtMillis())) + "\n";
+    }
+}
@@ -0,0 +1,175 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingHold;
+import ru.practicum.shareit.booking.model.RecurrenceRule;
+import ru.practicum.shareit.scheduler.TimingWheel;
+
+import javax.annotation.PreDestroy;
+import javax.validation.ValidationException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps booking holds in memory.
+ * <p>
+ * Holds are indexed by id and by item, and their expiry is driven by a {@link TimingWheel}, so placing,
+ * checking and expiring a hold never touches the database. Placing and confirming a hold are appended to a
+ * {@link BookingHoldJournal} before they take effect, which is what brings holds back after a restart. Lookups
+ * ignore holds that expired since the last tick.
+ */
+@Slf4j
+@Component
+public class BookingHoldRegistry {
+    private final BookingHoldJournal journal;
+    private final TimingWheel<String> timingWheel;
+    private final Map<String, BookingHold> holds = new HashMap<>();
+    private final Map<Long, List<BookingHold>> holdsByItem = new HashMap<>();
+    private final Set<String> claimedHoldIds = new HashSet<>();
+
+    public BookingHoldRegistry(@Value("${shareit.booking-hold.directory}") String directory,
+                               @Value("${shareit.booking-hold.tick:PT1S}") Duration tick,
+                               @Value("${shareit.booking-hold.wheel-size:60}") int wheelSize) throws IOException {
+        long now = System.currentTimeMillis();
+        this.timingWheel = new TimingWheel<>(tick.toMillis(), wheelSize, now);
+        this.journal = new BookingHoldJournal(Paths.get(directory));
+        journal.open(now).forEach(this::register);
+        log.info("Restored {} booking holds from {}", holds.size(), directory);
+    }
+
+    /**
+     * Places {@code hold} unless another booker holds an overlapping slot of the same item.
+     */
+    public synchronized void add(BookingHold hold) {
+        if (isHeldByOthers(hold.getItemId(), hold.getBookerId(), hold.getStart(), hold.getEnd())) {
+            throw new ValidationException(String.format("Item with id:%d is held for the requested period",
+                    hold.getItemId()));
+        }
+        try {
+            journal.appendHold(hold);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        register(hold);
+    }
+
+    public synchronized Optional<BookingHold> find(String holdId) {
+        long now = System.currentTimeMillis();
+        return Optional.ofNullable(holds.get(holdId))
+                .filter(hold -> !hold.isExpired(now));
+    }
+
+    /**
+     * Takes the booker's live hold out of the registry, so that of several confirmations of it only one gets it.
+     * The hold stays in the journal until it is {@link #release released}, and a claim that doesn't lead to a
+     * booking must be {@link #restore restored}.
+     */
+    public synchronized Optional<BookingHold> claim(String holdId, long bookerId) {
+        Optional<BookingHold> hold = find(holdId).filter(found -> found.getBookerId() == bookerId);
+        hold.ifPresent(found -> {
+            unregister(holdId);
+            claimedHoldIds.add(holdId);
+        });
+        return hold;
+    }
+
+    /**
+     * Puts a claimed hold back, unless it has expired meanwhile.
+     */
+    public synchronized void restore(BookingHold hold) {
+        if (claimedHoldIds.remove(hold.getId()) && !hold.isExpired(System.currentTimeMillis())) {
+            register(hold);
+        }
+    }
+
+    public boolean isHeldByOthers(long itemId, long bookerId, LocalDateTime start, LocalDateTime end) {
+        return isHeldByOthers(itemId, bookerId, RecurrenceRule.once(start, end));
+    }
+
+    /**
+     * Tells whether another booker holds the item during any occurrence of {@code rule}.
+     */
+    public synchronized boolean isHeldByOthers(long itemId, long bookerId, RecurrenceRule rule) {
+        long now = System.currentTimeMillis();
+        return holdsByItem.getOrDefault(itemId, List.of()).stream()
+                .anyMatch(hold -> hold.getBookerId() != bookerId && !hold.isExpired(now)
+                        && rule.overlaps(hold.getStart(), hold.getEnd()));
+    }
+
+    public synchronized List<BookingHold> findActiveByItemIds(Collection<Long> itemIds) {
+        long now = System.currentTimeMillis();
+        return itemIds.stream()
+                .flatMap(itemId -> holdsByItem.getOrDefault(itemId, List.of()).stream())
+                .filter(hold -> !hold.isExpired(now))
+                .collect(Collectors.toList());
+    }
+
+    public synchronized void release(String holdId) {
+        if (unregister(holdId) == null && !claimedHoldIds.remove(holdId)) {
+            return;
+        }
+        try {
+            journal.appendRelease(holdId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized int size() {
+        return holds.size();
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-hold.tick:PT1S}")
+    public synchronized void expireHolds() {
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        for (String holdId : timingWheel.advance(now)) {
+            BookingHold hold = holds.get(holdId);
+            if (hold != null && hold.isExpired(now)) {
+                unregister(holdId);
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            log.debug("Expired {} booking holds", expired);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        journal.close();
+    }
+
+    private void register(BookingHold hold) {
+        holds.put(hold.getId(), hold);
+        holdsByItem.computeIfAbsent(hold.getItemId(), id -> new ArrayList<>()).add(hold);
+        timingWheel.add(hold.getId(), hold.getExpiresAtMillis());
+    }
+
+    private BookingHold unregister(String holdId) {
+        BookingHold hold = holds.remove(holdId);
+        if (hold != null) {
+            List<BookingHold> itemHolds = holdsByItem.get(hold.getItemId());
+            itemHolds.remove(hold);
+            if (itemHolds.isEmpty()) {
+                holdsByItem.remove(hold.getItemId());
+            }
+        }
+        return hold;
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.model.RecurrenceRule;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The busy intervals of one item. Single intervals are sorted by start with a running maximum of their ends, so an
+ * overlap check is one binary search; recurring ones are kept as rules and checked arithmetically.
+ */
+class BookingIntervalIndex {
+    private final LocalDateTime[] starts;
+    private final LocalDateTime[] maxEnds;
+    private final List<RecurrenceRule> recurring;
+
+    BookingIntervalIndex(List<RecurrenceRule> rules) {
+        List<RecurrenceRule> single = rules.stream()
+                .filter(rule -> rule.getCount() == 1)
+                .sorted(Comparator.comparing(RecurrenceRule::getStart))
+                .collect(Collectors.toList());
+        starts = new LocalDateTime[single.size()];
+        maxEnds = new LocalDateTime[single.size()];
+        for (int i = 0; i < single.size(); i++) {
+            starts[i] = single.get(i).getStart();
+            LocalDateTime end = single.get(i).getSeriesEnd();
+            maxEnds[i] = i > 0 && maxEnds[i - 1].isAfter(end) ? maxEnds[i - 1] : end;
+        }
+        recurring = rules.stream()
+                .filter(rule -> rule.getCount() > 1)
+                .collect(Collectors.toList());
+    }
+
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        int index = lastStartingBefore(end);
+        if (index >= 0 && maxEnds[index].isAfter(start)) {
+            return true;
+        }
+        return recurring.stream().anyMatch(rule -> rule.overlaps(start, end));
+    }
+
+    private int lastStartingBefore(LocalDateTime time) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle].isBefore(time)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low - 1;
+    }
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.event.BookingJournalEvent;
+import ru.practicum.shareit.journal.EventJournal;
+import ru.practicum.shareit.journal.JournalReplayStats;
+import ru.practicum.shareit.outbox.model.AggregateType;
+import ru.practicum.shareit.outbox.model.DomainEvent;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.service.DomainEventSubscriber;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends every booking change delivered by the outbox to an {@link EventJournal} on local disk, for audit and for
+ * rebuilding read models with {@link #rebuild(BookingReadModel)}.
+ * <p>
+ * Records of one outbox batch are queued as they arrive and synced together in {@link #flush()}, before the batch
+ * is marked dispatched. The ids of recently journaled outbox events are remembered, including across a restart, so
+ * an event delivered again is not written twice.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking-journal.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingJournal implements DomainEventSubscriber {
+    private static final int RECENT_EVENT_IDS = 10_000;
+    private final EventJournal journal;
+    private final ObjectMapper objectMapper;
+    private final Set<Long> recentEventIds = new LinkedHashSet<>();
+    private final List<PendingRecord> pending = new ArrayList<>();
+    private final AtomicLong replayRate = new AtomicLong();
+
+    public BookingJournal(ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${shareit.booking-journal.directory}") String directory,
+                          @Value("${shareit.booking-journal.segment-size:64MB}") DataSize segmentSize)
+            throws IOException {
+        this.objectMapper = objectMapper;
+        this.journal = EventJournal.open(Paths.get(directory), segmentSize.toBytes());
+        long tailStart = Math.max(1, journal.getNextSequence() - RECENT_EVENT_IDS);
+        journal.replay(tailStart, (sequence, payload) -> remember(BookingJournalCodec.decode(payload).getEventId()));
+        Gauge.builder("shareit.booking.journal.replay.rate", replayRate, AtomicLong::get)
+                .description("Events per second of the last read model rebuild from the booking journal")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean supports(DomainEventType type) {
+        return type.getAggregateType() == AggregateType.BOOKING;
+    }
+
+    @Override
+    public synchronized void onEvent(DomainEvent event) {
+        if (recentEventIds.contains(event.getId())) {
+            log.debug("Skipped outbox event with id:{} that is already journaled", event.getId());
+            return;
+        }
+        BookingJournalEvent journalEvent = toJournalEvent(event);
+        pending.add(new PendingRecord(event.getId(), journal.append(BookingJournalCodec.encode(journalEvent))));
+    }
+
+    /**
+     * Waits until the records queued since the last flush are on disk.
+     */
+    @Override
+    public synchronized void flush() {
+        try {
+            for (PendingRecord record : pending) {
+                record.future.join();
+                remember(record.eventId);
+            }
+        } finally {
+            pending.clear();
+        }
+    }
+
+    /**
+     * Resets {@code model} and feeds it every booking change in the journal.
+     */
+    public JournalReplayStats rebuild(BookingReadModel model) {
+        model.reset();
+        long startNanos = System.nanoTime();
+        long events;
+        try {
+            events = journal.replay(1, (sequence, payload) -> model.apply(BookingJournalCodec.decode(payload)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        JournalReplayStats stats = new JournalReplayStats(events, System.nanoTime() - startNanos);
+        replayRate.set((long) stats.getEventsPerSecond());
+        log.info("Rebuilt {} from {} booking journal events, {} events/s", model.getClass().getSimpleName(),
+                events, (long) stats.getEventsPerSecond());
+        return stats;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        journal.close();
+    }
+
+    private BookingJournalEvent toJournalEvent(DomainEvent event) {
+        BookingDto booking;
+        try {
+            booking = objectMapper.readValue(event.getPayload(), BookingDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(String.format("Cannot read booking from outbox event with id:%d",
+                    event.getId()), e);
+        }
+        return BookingJournalEvent.builder()
+                .eventId(event.getId())
+                .type(event.getType() == DomainEventType.BOOKING_CREATED
+                        ? BookingEventType.CREATED : BookingEventType.STATUS_CHANGED)
+                .created(event.getCreated())
+                .bookingId(event.getAggregateId())
+                .itemId(booking.getItem() != null ? booking.getItem().getId() : booking.getItemId())
+                .bookerId(booking.getBooker() != null ? booking.getBooker().getId() : booking.getBookerId())
+                .status(booking.getStatus())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .recurrence(booking.getRecurrence())
+                .recurrenceUntil(booking.getRecurrenceUntil())
+                .build();
+    }
+
+    private synchronized void remember(long eventId) {
+        if (recentEventIds.add(eventId) && recentEventIds.size() > RECENT_EVENT_IDS) {
+            Iterator<Long> oldest = recentEventIds.iterator();
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    private static class PendingRecord {
+        private final long eventId;
+        private final CompletableFuture<Long> future;
+
+        PendingRecord(long eventId, CompletableFuture<Long> future) {
+            this.eventId = eventId;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.event.BookingJournalEvent;
+import ru.practicum.shareit.booking.model.BookingRecurrence;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Fixed-size binary form of {@link BookingJournalEvent}. Enums are written by ordinal, so new constants must be
+ * added at the end; any other change of the layout needs a new {@link #VERSION}.
+ */
+final class BookingJournalCodec {
+    static final byte VERSION = 1;
+    private static final int TIME_BYTES = Long.BYTES + Integer.BYTES;
+    static final int RECORD_BYTES = 1 + Long.BYTES + 1 + TIME_BYTES + 3 * Long.BYTES + 1 + 2 * TIME_BYTES + 1
+            + TIME_BYTES;
+    private static final byte NONE = -1;
+
+    private BookingJournalCodec() {
+    }
+
+    static byte[] encode(BookingJournalEvent event) {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES)
+                .put(VERSION)
+                .putLong(event.getEventId())
+                .put((byte) event.getType().ordinal());
+        putTime(buffer, event.getCreated());
+        buffer.putLong(event.getBookingId())
+                .putLong(event.getItemId())
+                .putLong(event.getBookerId())
+                .put((byte) event.getStatus().ordinal());
+        putTime(buffer, event.getStart());
+        putTime(buffer, event.getEnd());
+        buffer.put(event.getRecurrence() == null ? NONE : (byte) event.getRecurrence().ordinal());
+        putTime(buffer, event.getRecurrenceUntil());
+        return buffer.array();
+    }
+
+    static BookingJournalEvent decode(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalStateException(String.format("Unknown booking journal record version %d", version));
+        }
+        BookingJournalEvent.BookingJournalEventBuilder builder = BookingJournalEvent.builder()
+                .eventId(buffer.getLong())
+                .type(BookingEventType.values()[buffer.get()])
+                .created(getTime(buffer))
+                .bookingId(buffer.getLong())
+                .itemId(buffer.getLong())
+                .bookerId(buffer.getLong())
+                .status(BookingStatus.values()[buffer.get()])
+                .start(getTime(buffer))
+                .end(getTime(buffer));
+        byte recurrence = buffer.get();
+        return builder
+                .recurrence(recurrence == NONE ? null : BookingRecurrence.values()[recurrence])
+                .recurrenceUntil(getTime(buffer))
+                .build();
+    }
+
+    private static void putTime(ByteBuffer buffer, LocalDateTime time) {
+        if (time == null) {
+            buffer.putLong(Long.MIN_VALUE).putInt(0);
+        } else {
+            buffer.putLong(time.toEpochSecond(ZoneOffset.UTC)).putInt(time.getNano());
+        }
+    }
+
+    private static LocalDateTime getTime(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return seconds == Long.MIN_VALUE ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+}
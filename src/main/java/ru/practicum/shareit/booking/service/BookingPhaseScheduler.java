@@ -0,0 +1,173 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.event.BookingsEndedEvent;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.RecurrenceRule;
+import ru.practicum.shareit.booking.repository.BookingBookerView;
+import ru.practicum.shareit.booking.repository.BookingPeriodView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.scheduler.TimingWheel;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Moves the persisted {@link BookingPhase} of bookings forward as their start and end times pass.
+ * <p>
+ * Transitions due within the next {@code horizon} are loaded into a {@link TimingWheel} and applied in batches by a
+ * per-tick set-based update. The horizon is marked as scheduled before it is loaded, so bookings committed while
+ * the load runs are picked up from their creation event. Every refill also runs catch-up updates for anything
+ * that became due while the application was down, so the wheel only has to be exact, not durable.
+ */
+@Slf4j
+@Component
+public class BookingPhaseScheduler {
+    private static final Map<BookingPhase, Set<BookingPhase>> PREVIOUS_PHASES = Map.of(
+            BookingPhase.CURRENT, Set.of(BookingPhase.FUTURE),
+            BookingPhase.PAST, Set.of(BookingPhase.FUTURE, BookingPhase.CURRENT));
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long horizonMillis;
+    private final int batchSize;
+    private final TimingWheel<PhaseTransition> timingWheel;
+    private long scheduledUntil;
+
+    public BookingPhaseScheduler(BookingRepository bookingRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${shareit.booking-phase.tick:PT1S}") Duration tick,
+                                 @Value("${shareit.booking-phase.wheel-size:60}") int wheelSize,
+                                 @Value("${shareit.booking-phase.horizon:PT1H}") Duration horizon,
+                                 @Value("${shareit.booking-phase.batch-size:500}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.horizonMillis = horizon.toMillis();
+        this.batchSize = batchSize;
+        this.scheduledUntil = System.currentTimeMillis();
+        this.timingWheel = new TimingWheel<>(tick.toMillis(), wheelSize, scheduledUntil);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refill();
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-phase.tick:PT1S}")
+    public void tick() {
+        List<PhaseTransition> due;
+        synchronized (this) {
+            due = timingWheel.advance(System.currentTimeMillis());
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        due.stream()
+                .collect(Collectors.groupingBy(PhaseTransition::getPhase,
+                        Collectors.mapping(PhaseTransition::getBookingId, Collectors.toList())))
+                .forEach(this::applyTransitions);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-phase.refill:PT10M}",
+            initialDelayString = "${shareit.booking-phase.refill:PT10M}")
+    public void refill() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer caughtUp = transactionTemplate.execute(status -> {
+            int started = bookingRepository.updatePhaseStartedBefore(PREVIOUS_PHASES.get(BookingPhase.CURRENT),
+                    BookingPhase.CURRENT, now);
+            int ended = bookingRepository.updatePhaseEndedBefore(PREVIOUS_PHASES.get(BookingPhase.PAST),
+                    BookingPhase.PAST, now);
+            return started + ended;
+        });
+        long rangeEnd = System.currentTimeMillis() + horizonMillis;
+        long rangeStart;
+        synchronized (this) {
+            rangeStart = scheduledUntil;
+            scheduledUntil = rangeEnd;
+        }
+        List<BookingPeriodView> periods = bookingRepository.findPeriodsWithTransitionBetween(
+                toLocalDateTime(rangeStart), toLocalDateTime(rangeEnd));
+        synchronized (this) {
+            periods.forEach(period -> schedule(period.getId(), period.getStartDate(), period.getEndDate(),
+                    rangeStart, rangeEnd));
+        }
+        log.info("Caught up {} booking phases, scheduled {} bookings until {}", caughtUp, periods.size(),
+                toLocalDateTime(rangeEnd));
+    }
+
+    @TransactionalEventListener
+    public void onBookingEvent(BookingEvent event) {
+        if (event.getType() != BookingEventType.CREATED) {
+            return;
+        }
+        BookingDto booking = event.getBooking();
+        synchronized (this) {
+            schedule(booking.getId(), booking.getStart(), RecurrenceRule.of(booking.getStart(), booking.getEnd(),
+                    booking.getRecurrence(), booking.getRecurrenceUntil()).getSeriesEnd(), Long.MIN_VALUE,
+                    scheduledUntil);
+        }
+    }
+
+    private void schedule(Long bookingId, LocalDateTime start, LocalDateTime end, long rangeStart, long rangeEnd) {
+        long startMillis = toMillis(start);
+        long pastMillis = toMillis(end) + 1;
+        if (startMillis >= rangeStart && startMillis < rangeEnd) {
+            timingWheel.add(new PhaseTransition(bookingId, BookingPhase.CURRENT), startMillis);
+        }
+        if (pastMillis > rangeStart && pastMillis <= rangeEnd) {
+            timingWheel.add(new PhaseTransition(bookingId, BookingPhase.PAST), pastMillis);
+        }
+    }
+
+    private void applyTransitions(BookingPhase phase, List<Long> bookingIds) {
+        for (int from = 0; from < bookingIds.size(); from += batchSize) {
+            List<Long> batch = bookingIds.subList(from, Math.min(from + batchSize, bookingIds.size()));
+            List<BookingBookerView> ended = transactionTemplate.execute(status -> {
+                int updated = bookingRepository.updatePhaseIn(batch, PREVIOUS_PHASES.get(phase), phase);
+                log.debug("Moved {} of {} bookings to phase {}", updated, batch.size(), phase);
+                return phase == BookingPhase.PAST
+                        ? bookingRepository.findBookersByIdInAndStatus(batch, BookingStatus.APPROVED) : List.of();
+            });
+            if (ended != null && !ended.isEmpty()) {
+                eventPublisher.publishEvent(new BookingsEndedEvent(ended));
+            }
+        }
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class PhaseTransition {
+        private final Long bookingId;
+        private final BookingPhase phase;
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.event.BookingJournalEvent;
+
+/**
+ * A structure derived from booking changes that {@link BookingJournal#rebuild(BookingReadModel)} can rebuild. Events
+ * arrive in journal order, which is the order of the changes for each booking. The comment eligibility index is
+ * rebuilt this way on startup.
+ */
+public interface BookingReadModel {
+    /**
+     * Drops the current state before a rebuild.
+     */
+    default void reset() {
+    }
+
+    void apply(BookingJournalEvent event);
+}
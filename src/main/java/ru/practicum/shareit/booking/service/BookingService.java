@@ -1,18 +1,36 @@
 package ru.practicum.shareit.booking.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingBulkResultDto;
+import ru.practicum.shareit.booking.dto.BookingBulkUpdateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingHoldDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 
+import java.time.Duration;
 import java.util.List;
 
 public interface BookingService {
     BookingDto createBooking(BookingDto bookingDto);
 
+    List<BookingBatchResultDto> createBookings(long bookerId, List<BookingDto> bookingDtos, boolean atomic);
+
+    BookingHoldDto createHold(long bookerId, BookingHoldDto bookingHoldDto, Duration ttl);
+
+    BookingDto confirmHold(long bookerId, String holdId);
+
     BookingDto updateBooking(BookingDto bookingDto);
 
+    List<BookingBulkResultDto> updateBookings(long ownerId, BookingBulkUpdateDto bookingBulkUpdateDto);
+
     BookingDto getBookingById(long userId, long bookingId);
 
     List<BookingDto> getAllBookingByUserId(long userId, String bookingState, Pageable pageable);
 
     List<BookingDto> getAllBookingByOwnerId(long userId, String bookingState, Pageable pageable);
+
+    BookingSummaryDto getBookingSummaryByUserId(long userId);
+
+    BookingSummaryDto getBookingSummaryByOwnerId(long userId);
 }
\ No newline at end of file
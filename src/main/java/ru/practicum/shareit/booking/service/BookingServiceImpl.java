@@ -2,17 +2,40 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingBulkOutcome;
+import ru.practicum.shareit.booking.dto.BookingBulkResultDto;
+import ru.practicum.shareit.booking.dto.BookingBulkUpdateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingHoldDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingHold;
+import ru.practicum.shareit.booking.model.BookingPhase;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.RecurrenceRule;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.ArchivedBookingSummaryView;
+import ru.practicum.shareit.booking.repository.BookingIntervalView;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingStatusView;
+import ru.practicum.shareit.booking.repository.BookingSeriesView;
+import ru.practicum.shareit.booking.repository.BookingSummaryView;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -20,18 +43,35 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import javax.validation.ValidationException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final String BOOKING_START_DATE_FIELD_NAME = "start";
+    private static final long MAX_OCCURRENCES = 520;
+    private static final int MAX_LISTED_SERIES = 100;
     private final BookingMapper bookingMapper;
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingHoldRegistry bookingHoldRegistry;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -42,24 +82,195 @@ public class BookingServiceImpl implements BookingService {
         booking.setBooker(user);
         booking.setItem(item);
         validateCreateBooking(booking);
-        booking = bookingRepository.save(booking);
-        return bookingMapper.toBookingResponseDto(bookingRepository.save(booking));
+        checkOverlaps(booking, findApprovedIntervals(List.of(item.getId()), List.of(bookingDto))
+                .getOrDefault(item.getId(), List.of()), List.of());
+        checkHolds(booking);
+        booking.setOwnerId(item.getOwner().getId());
+        BookingDto created = bookingMapper.toBookingResponseDto(bookingRepository.save(booking));
+        publishEvent(BookingEventType.CREATED, booking.getOwnerId(), created);
+        return created;
+    }
+
+    @Override
+    public BookingHoldDto createHold(long bookerId, BookingHoldDto bookingHoldDto, Duration ttl) {
+        Item item = findItemById(bookingHoldDto.getItemId());
+        Booking booking = Booking.builder()
+                .start(bookingHoldDto.getStart())
+                .end(bookingHoldDto.getEnd())
+                .item(item)
+                .booker(findUserById(bookerId))
+                .build();
+        validateCreateBooking(booking);
+        Map<Long, List<BookingIntervalView>> approvedIntervals = findApprovedIntervals(List.of(item.getId()),
+                List.of(BookingDto.builder().start(booking.getStart()).end(booking.getEnd()).build()));
+        checkOverlaps(booking, approvedIntervals.getOrDefault(item.getId(), List.of()), List.of());
+        BookingHold hold = BookingHold.builder()
+                .id(UUID.randomUUID().toString())
+                .itemId(item.getId())
+                .bookerId(bookerId)
+                .ownerId(item.getOwner().getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .expiresAtMillis(System.currentTimeMillis() + ttl.toMillis())
+                .build();
+        bookingHoldRegistry.add(hold);
+        log.info("Created hold with id:{} on item with id:{} for booker with id:{}", hold.getId(), item.getId(),
+                bookerId);
+        return bookingMapper.toBookingHoldDto(hold);
+    }
+
+    @Override
+    @Transactional
+    public BookingDto confirmHold(long bookerId, String holdId) {
+        BookingHold hold = bookingHoldRegistry.claim(holdId, bookerId)
+                .orElseThrow(() -> new NotFoundException(String.format("Hold with id:%s not found", holdId)));
+        boolean synchronizing = TransactionSynchronizationManager.isSynchronizationActive();
+        if (synchronizing) {
+            settleHoldOnCompletion(hold);
+        }
+        BookingDto created;
+        try {
+            created = createBooking(BookingDto.builder()
+                    .itemId(hold.getItemId())
+                    .bookerId(bookerId)
+                    .start(hold.getStart())
+                    .end(hold.getEnd())
+                    .build());
+        } catch (RuntimeException e) {
+            if (!synchronizing) {
+                bookingHoldRegistry.restore(hold);
+            }
+            throw e;
+        }
+        if (!synchronizing) {
+            bookingHoldRegistry.release(holdId);
+        }
+        log.info("Confirmed hold with id:{} as booking with id:{}", holdId, created.getId());
+        return created;
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createBookings(long bookerId, List<BookingDto> bookingDtos, boolean atomic) {
+        User booker = findUserById(bookerId);
+        List<Long> itemIds = bookingDtos.stream()
+                .map(BookingDto::getItemId)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        Map<Long, Item> items = itemRepository.findAllByIdInForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, List<BookingIntervalView>> approvedIntervals = findApprovedIntervals(itemIds, bookingDtos);
+        List<Booking> bookings = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        for (BookingDto bookingDto : bookingDtos) {
+            try {
+                Item item = items.get(bookingDto.getItemId());
+                if (item == null) {
+                    throw new NotFoundException(String.format("Item with id:%d not found", bookingDto.getItemId()));
+                }
+                Booking booking = bookingMapper.toBooking(bookingDto);
+                booking.setBooker(booker);
+                booking.setItem(item);
+                validateCreateBooking(booking);
+                checkOverlaps(booking, approvedIntervals.getOrDefault(item.getId(), List.of()), bookings);
+                checkHolds(booking);
+                booking.setOwnerId(item.getOwner().getId());
+                bookings.add(booking);
+                errors.add(null);
+            } catch (ValidationException | NotFoundException e) {
+                bookings.add(null);
+                errors.add(e.getMessage());
+            }
+        }
+        if (atomic && errors.stream().anyMatch(Objects::nonNull)) {
+            throw new ValidationException(IntStream.range(0, errors.size())
+                    .filter(i -> errors.get(i) != null)
+                    .mapToObj(i -> String.format("Booking #%d: %s", i, errors.get(i)))
+                    .collect(Collectors.joining("; ")));
+        }
+        Iterator<Booking> saved = bookingRepository.saveAll(bookings.stream()
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()))
+                .iterator();
+        List<BookingBatchResultDto> results = new ArrayList<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            if (bookings.get(i) == null) {
+                results.add(BookingBatchResultDto.builder().error(errors.get(i)).build());
+                continue;
+            }
+            Booking booking = saved.next();
+            BookingDto created = bookingMapper.toBookingResponseDto(booking);
+            publishEvent(BookingEventType.CREATED, booking.getOwnerId(), created);
+            results.add(BookingBatchResultDto.builder().booking(created).build());
+        }
+        log.info("Created {} of {} bookings for booker with id:{}", bookings.stream().filter(Objects::nonNull).count(),
+                bookingDtos.size(), bookerId);
+        return results;
     }
 
     @Override
     @Modifying
     @Transactional
     public BookingDto updateBooking(BookingDto bookingDto) {
+        BookingStatus status = bookingDto.isApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        int updated = bookingRepository.updateStatus(bookingDto.getId(), bookingDto.getBookerId(),
+                BookingStatus.WAITING, status, LocalDateTime.now());
         Booking booking = findBookingById(bookingDto.getId());
-        validateUpdateBooking(booking, bookingDto);
-        booking.setStatus(bookingDto.isApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        if (updated == 0) {
+            validateUpdateBooking(booking, bookingDto);
+            throw new ValidationException(String.format("Booking with id:%d not waiting for approval",
+                    bookingDto.getId()));
+        }
         log.info("Updated booking with id:{}", booking.getId());
-        return bookingMapper.toBookingResponseDto(bookingRepository.save(booking));
+        BookingDto updatedBooking = bookingMapper.toBookingResponseDto(booking);
+        publishEvent(BookingEventType.STATUS_CHANGED, booking.getOwnerId(), updatedBooking);
+        return updatedBooking;
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBulkResultDto> updateBookings(long ownerId, BookingBulkUpdateDto bookingBulkUpdateDto) {
+        BookingStatus status = Boolean.TRUE.equals(bookingBulkUpdateDto.getApproved())
+                ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        List<Long> bookingIds = bookingBulkUpdateDto.getBookingIds().stream()
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, BookingStatusView> views = bookingRepository.findStatusViewsByIdInForUpdate(bookingIds).stream()
+                .collect(Collectors.toMap(BookingStatusView::getId, Function.identity()));
+        Map<Long, BookingBulkOutcome> outcomes = new LinkedHashMap<>();
+        List<Long> waitingIds = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            BookingStatusView view = views.get(bookingId);
+            if (view == null) {
+                outcomes.put(bookingId, BookingBulkOutcome.NOT_FOUND);
+            } else if (!view.getOwnerId().equals(ownerId)) {
+                outcomes.put(bookingId, BookingBulkOutcome.NOT_OWNER);
+            } else if (!isWaitingForApproval(view.getStatus())) {
+                outcomes.put(bookingId, BookingBulkOutcome.NOT_WAITING);
+            } else {
+                outcomes.put(bookingId, BookingBulkOutcome.UPDATED);
+                waitingIds.add(bookingId);
+            }
+        }
+        int updated = 0;
+        if (!waitingIds.isEmpty()) {
+            updated = bookingRepository.updateStatusIn(waitingIds, ownerId, BookingStatus.WAITING, status,
+                    LocalDateTime.now());
+            bookingRepository.findAllById(waitingIds).forEach(booking -> publishEvent(BookingEventType.STATUS_CHANGED,
+                    booking.getOwnerId(), bookingMapper.toBookingResponseDto(booking)));
+        }
+        log.info("Updated {} of {} bookings for owner with id:{}", updated, bookingIds.size(), ownerId);
+        return outcomes.entrySet().stream()
+                .map(entry -> new BookingBulkResultDto(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
     }
 
     @Override
     public BookingDto getBookingById(long userId, long bookingId) {
-        Booking booking = findBookingById(bookingId);
+        Booking booking = bookingRepository.findById(bookingId)
+                .or(() -> archivedBookingRepository.findById(bookingId).map(bookingMapper::toBooking))
+                .orElseThrow(() -> new NotFoundException(String.format("Booking with id:%d not found", bookingId)));
         User user = findUserById(userId);
         if (!booking.getBooker().getId().equals(user.getId())
                 && !booking.getItem().getOwner().getId().equals(user.getId())) {
@@ -77,25 +288,149 @@ public class BookingServiceImpl implements BookingService {
         Specification<Booking> byBookerId = (r, q, cb) -> cb.equal(
                 r.<User>get("booker").get("id"), bookerId
         );
-        return bookingRepository.findAll(Specification.where(byBookerId).and(bookingState.getSpecification()),
-                        pageable).stream()
-                .map(bookingMapper::toBookingResponseDto)
-                .collect(Collectors.toList());
+        Specification<ArchivedBooking> archivedByBookerId = (r, q, cb) -> cb.equal(
+                r.<User>get("booker").get("id"), bookerId
+        );
+        return findBookings(byBookerId, archivedByBookerId, bookingState, pageable);
     }
 
     @Override
     public List<BookingDto> getAllBookingByOwnerId(long ownerId, String state, Pageable pageable) {
         BookingState bookingState = checkBookingState(state);
         findUserById(ownerId);
-        Specification<Booking> byOwnerId = (r, q, cb) -> cb.equal(
-                r.<Item>get("item").<User>get("owner").get("id"), ownerId
-        );
-        return bookingRepository.findAll(Specification.where(byOwnerId).and(bookingState.getSpecification()),
-                        pageable).stream()
+        Specification<Booking> byOwnerId = (r, q, cb) -> cb.equal(r.<Long>get("ownerId"), ownerId);
+        Specification<ArchivedBooking> archivedByOwnerId = (r, q, cb) -> cb.equal(r.<Long>get("ownerId"), ownerId);
+        return findBookings(byOwnerId, archivedByOwnerId, bookingState, pageable);
+    }
+
+    @Override
+    public BookingSummaryDto getBookingSummaryByUserId(long bookerId) {
+        findUserById(bookerId);
+        return toBookingSummaryDto(bookingRepository.summarizeByBookerId(bookerId, BookingPhase.CURRENT,
+                        BookingPhase.PAST, BookingPhase.FUTURE, BookingStatus.WAITING, BookingStatus.REJECTED),
+                archivedBookingRepository.summarizeByBookerId(bookerId, BookingStatus.REJECTED),
+                bookingRepository.findSeriesByBookerId(bookerId));
+    }
+
+    @Override
+    public BookingSummaryDto getBookingSummaryByOwnerId(long ownerId) {
+        findUserById(ownerId);
+        return toBookingSummaryDto(bookingRepository.summarizeByOwnerId(ownerId, BookingPhase.CURRENT,
+                        BookingPhase.PAST, BookingPhase.FUTURE, BookingStatus.WAITING, BookingStatus.REJECTED),
+                archivedBookingRepository.summarizeByOwnerId(ownerId, BookingStatus.REJECTED),
+                bookingRepository.findSeriesByOwnerId(ownerId));
+    }
+
+    /**
+     * Adds up the single bookings counted by the database and the occurrences of the recurring bookings, so the
+     * summary counts what the listings show. Recurring bookings are never archived.
+     */
+    private BookingSummaryDto toBookingSummaryDto(BookingSummaryView view, ArchivedBookingSummaryView archived,
+                                                  List<BookingSeriesView> series) {
+        long archivedCount = countOrZero(archived.getAllCount());
+        long all = countOrZero(view.getAllCount()) + archivedCount;
+        long current = countOrZero(view.getCurrentCount());
+        long past = countOrZero(view.getPastCount()) + archivedCount;
+        long future = countOrZero(view.getFutureCount());
+        long waiting = countOrZero(view.getWaitingCount());
+        long rejected = countOrZero(view.getRejectedCount()) + countOrZero(archived.getRejectedCount());
+        LocalDateTime now = LocalDateTime.now();
+        for (BookingSeriesView booking : series) {
+            RecurrenceRule rule = booking.toRecurrenceRule();
+            all += rule.getCount();
+            current += BookingState.CURRENT.occurrenceIndexes(rule, now, false).count();
+            past += BookingState.PAST.occurrenceIndexes(rule, now, false).count();
+            future += BookingState.FUTURE.occurrenceIndexes(rule, now, false).count();
+            if (booking.getStatus() == BookingStatus.WAITING) {
+                waiting += rule.getCount();
+            } else if (booking.getStatus() == BookingStatus.REJECTED) {
+                rejected += rule.getCount();
+            }
+        }
+        return BookingSummaryDto.builder()
+                .all(all)
+                .current(current)
+                .past(past)
+                .future(future)
+                .waiting(waiting)
+                .rejected(rejected)
+                .build();
+    }
+
+    /**
+     * Reads bookings of the hot table and, for states that archived bookings can be in, of the archive.
+     * Both tiers return their first {@code offset + size} rows in the requested order; the requested page is
+     * cut from the merge of the two. Recurring bookings are read separately and expanded into their occurrences
+     * in this state, at most {@code offset + size} of them per booking. At most {@value #MAX_LISTED_SERIES}
+     * recurring bookings are expanded per listing: those with the latest series end for a newest-first listing,
+     * those starting first otherwise.
+     */
+    private List<BookingDto> findBookings(Specification<Booking> hotSpecification,
+                                          Specification<ArchivedBooking> archiveSpecification,
+                                          BookingState bookingState, Pageable pageable) {
+        Specification<Booking> specification = Specification.where(hotSpecification)
+                .and((r, q, cb) -> cb.isNull(r.get("recurrence")))
+                .and(bookingState.getSpecification());
+        boolean descending = isDescending(pageable.getSort());
+        List<Booking> series = bookingRepository.findLimited(Specification.where(hotSpecification)
+                        .and((r, q, cb) -> cb.isNotNull(r.get("recurrence")))
+                        .and(bookingState.getSeriesSpecification()),
+                descending ? Sort.by(Sort.Direction.DESC, "seriesEnd") : Sort.by(Sort.Direction.ASC, "start"),
+                MAX_LISTED_SERIES);
+        if (series.size() == MAX_LISTED_SERIES) {
+            log.warn("Listing expands only the first {} recurring bookings", MAX_LISTED_SERIES);
+        }
+        if (bookingState.getArchiveSpecification() == null && series.isEmpty()) {
+            return bookingRepository.findAll(specification, pageable).stream()
+                    .map(bookingMapper::toBookingResponseDto)
+                    .collect(Collectors.toList());
+        }
+        int limit = (int) pageable.getOffset() + pageable.getPageSize();
+        Pageable head = PageRequest.of(0, limit, pageable.getSort());
+        List<BookingDto> bookings = bookingRepository.findAll(specification, head).stream()
                 .map(bookingMapper::toBookingResponseDto)
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (bookingState.getArchiveSpecification() != null) {
+            archivedBookingRepository.findAll(Specification.where(archiveSpecification)
+                            .and(bookingState.getArchiveSpecification()), head)
+                    .forEach(archivedBooking -> bookings.add(bookingMapper.toBookingResponseDto(
+                            bookingMapper.toBooking(archivedBooking))));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Booking booking : series) {
+            BookingDto bookingDto = bookingMapper.toBookingResponseDto(booking);
+            RecurrenceRule rule = booking.toRecurrenceRule();
+            bookingState.occurrenceIndexes(rule, now, descending)
+                    .limit(limit)
+                    .forEach(index -> bookings.add(bookingDto.toBuilder()
+                            .start(rule.getStart(index))
+                            .end(rule.getEnd(index))
+                            .build()));
+        }
+        return bookings.stream()
+                .sorted(byStart(descending))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
                 .collect(Collectors.toList());
     }
 
+    private boolean isDescending(Sort sort) {
+        Sort.Order order = sort.getOrderFor(BOOKING_START_DATE_FIELD_NAME);
+        return order == null || order.isDescending();
+    }
+
+    private Comparator<BookingDto> byStart(boolean descending) {
+        Comparator<BookingDto> comparator = Comparator.comparing(BookingDto::getStart);
+        if (descending) {
+            comparator = comparator.reversed();
+        }
+        return comparator.thenComparing(BookingDto::getId, Comparator.reverseOrder());
+    }
+
+    private long countOrZero(Long count) {
+        return count == null ? 0 : count;
+    }
+
     private void validateCreateBooking(Booking booking) {
         if (booking.getItem().getAvailable() == null || Boolean.FALSE.equals(booking.getItem().getAvailable())) {
             throw new ValidationException(String.format("Item with id:%d isn't available", booking.getItem().getId()));
@@ -111,6 +446,89 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStart().equals(booking.getEnd())) {
             throw new ValidationException("Start time cannot be equal to end time");
         }
+        if (booking.getRecurrence() != null || booking.getRecurrenceUntil() != null) {
+            validateRecurrence(booking);
+        }
+    }
+
+    private void validateRecurrence(Booking booking) {
+        if (booking.getRecurrence() == null) {
+            throw new ValidationException("Recurrence end date requires a recurrence");
+        }
+        if (booking.getRecurrenceUntil() == null) {
+            throw new ValidationException("Recurring booking must have a recurrence end date");
+        }
+        if (booking.getRecurrenceUntil().isBefore(booking.getStart())) {
+            throw new ValidationException("Recurrence end date cannot be earlier than start time");
+        }
+        if (Duration.between(booking.getStart(), booking.getEnd())
+                .compareTo(booking.getRecurrence().getShortestPeriod()) > 0) {
+            throw new ValidationException(String.format("%s booking cannot be longer than %d days",
+                    booking.getRecurrence(), booking.getRecurrence().getShortestPeriod().toDays()));
+        }
+        if (booking.toRecurrenceRule().getCount() > MAX_OCCURRENCES) {
+            throw new ValidationException(String.format("Recurring booking cannot have more than %d occurrences",
+                    MAX_OCCURRENCES));
+        }
+    }
+
+    private Map<Long, List<BookingIntervalView>> findApprovedIntervals(List<Long> itemIds,
+                                                                      List<BookingDto> bookingDtos) {
+        LocalDateTime rangeStart = bookingDtos.stream()
+                .map(BookingDto::getStart)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+        LocalDateTime rangeEnd = bookingDtos.stream()
+                .filter(bookingDto -> bookingDto.getStart() != null && bookingDto.getEnd() != null)
+                .map(bookingDto -> RecurrenceRule.of(bookingDto.getStart(), bookingDto.getEnd(),
+                        bookingDto.getRecurrence(), bookingDto.getRecurrenceUntil()).getSeriesEnd())
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        if (itemIds.isEmpty() || rangeStart == null || rangeEnd == null) {
+            return Map.of();
+        }
+        return bookingRepository.findIntervals(itemIds, BookingStatus.APPROVED, rangeStart, rangeEnd).stream()
+                .collect(Collectors.groupingBy(BookingIntervalView::getItemId));
+    }
+
+    private void checkOverlaps(Booking booking, List<BookingIntervalView> approvedIntervals,
+                               List<Booking> acceptedBookings) {
+        RecurrenceRule rule = booking.toRecurrenceRule();
+        boolean overlapsApproved = approvedIntervals.stream()
+                .anyMatch(interval -> rule.overlaps(interval.toRecurrenceRule()));
+        boolean overlapsAccepted = acceptedBookings.stream()
+                .filter(Objects::nonNull)
+                .filter(accepted -> accepted.getItem().getId().equals(booking.getItem().getId()))
+                .anyMatch(accepted -> rule.overlaps(accepted.toRecurrenceRule()));
+        if (overlapsApproved || overlapsAccepted) {
+            throw new ValidationException(String.format("Item with id:%d is already booked for the requested period",
+                    booking.getItem().getId()));
+        }
+    }
+
+    private void checkHolds(Booking booking) {
+        if (bookingHoldRegistry.isHeldByOthers(booking.getItem().getId(), booking.getBooker().getId(),
+                booking.toRecurrenceRule())) {
+            throw new ValidationException(String.format("Item with id:%d is held for the requested period",
+                    booking.getItem().getId()));
+        }
+    }
+
+    /**
+     * Releases a claimed hold once its booking commits, or puts it back if the transaction rolls back.
+     */
+    private void settleHoldOnCompletion(BookingHold hold) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    bookingHoldRegistry.release(hold.getId());
+                } else {
+                    bookingHoldRegistry.restore(hold);
+                }
+            }
+        });
     }
 
     private void validateUpdateBooking(Booking booking, BookingDto bookingDto) {
@@ -122,12 +540,20 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException(String.format("User with id:%d isn't owner of item with id:%d.",
                     bookingDto.getBookerId(), booking.getItem().getId()));
         }
-        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
+        if (!isWaitingForApproval(booking.getStatus())) {
             throw new ValidationException(String.format("Booking with id:%d not waiting for approval",
                     bookingDto.getId()));
         }
     }
 
+    private void publishEvent(BookingEventType type, Long ownerId, BookingDto bookingDto) {
+        eventPublisher.publishEvent(new BookingEvent(type, ownerId, bookingDto));
+    }
+
+    private boolean isWaitingForApproval(BookingStatus status) {
+        return BookingStatus.WAITING.equals(status);
+    }
+
     private User findUserById(long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException(String.format("User with id:%d not found", userId)));
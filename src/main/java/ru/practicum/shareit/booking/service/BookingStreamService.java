@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes booking events to owners subscribed via Server-Sent Events.
+ * <p>
+ * Emitters run on the servlet's async support, so an idle connection holds no thread. Every subscriber has a
+ * bounded buffer: events are queued on commit and written by a small shared pool, and when a slow client lets
+ * the buffer fill up the oldest events are dropped.
+ */
+@Slf4j
+@Service
+public class BookingStreamService {
+    private final UserRepository userRepository;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final ExecutorService senderPool;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    public BookingStreamService(UserRepository userRepository,
+                                @Value("${shareit.booking-stream.timeout:PT30M}") Duration timeout,
+                                @Value("${shareit.booking-stream.buffer-size:100}") int bufferSize,
+                                @Value("${shareit.booking-stream.sender-threads:2}") int senderThreads) {
+        this.userRepository = userRepository;
+        this.timeoutMillis = timeout.toMillis();
+        this.bufferSize = bufferSize;
+        this.senderPool = Executors.newFixedThreadPool(senderThreads);
+    }
+
+    public SseEmitter subscribe(long ownerId) {
+        if (!userRepository.existsById(ownerId)) {
+            throw new NotFoundException(String.format("User with id:%d not found", ownerId));
+        }
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMillis), bufferSize);
+        subscribers.computeIfAbsent(ownerId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        Runnable unsubscribe = () -> unsubscribe(ownerId, subscriber);
+        subscriber.emitter.onCompletion(unsubscribe);
+        subscriber.emitter.onTimeout(unsubscribe);
+        subscriber.emitter.onError(e -> unsubscribe.run());
+        log.info("Owner with id:{} subscribed to booking stream", ownerId);
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener
+    public void onBookingEvent(BookingEvent event) {
+        Set<Subscriber> ownerSubscribers = subscribers.get(event.getOwnerId());
+        if (ownerSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : ownerSubscribers) {
+            if (subscriber.offer(event)) {
+                senderPool.execute(subscriber::drain);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senderPool.shutdownNow();
+        subscribers.values().forEach(ownerSubscribers -> ownerSubscribers.forEach(s -> s.emitter.complete()));
+    }
+
+    private void unsubscribe(long ownerId, Subscriber subscriber) {
+        subscribers.computeIfPresent(ownerId, (id, ownerSubscribers) -> {
+            ownerSubscribers.remove(subscriber);
+            return ownerSubscribers.isEmpty() ? null : ownerSubscribers;
+        });
+    }
+
+    static class Subscriber {
+        private final SseEmitter emitter;
+        private final int capacity;
+        private final Deque<BookingEvent> buffer = new ArrayDeque<>();
+        private boolean draining;
+
+        Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.capacity = capacity;
+        }
+
+        /**
+         * Queues the event, dropping the oldest one if the buffer is full.
+         *
+         * @return {@code true} if the caller has to schedule a drain
+         */
+        synchronized boolean offer(BookingEvent event) {
+            if (buffer.size() == capacity) {
+                BookingEvent dropped = buffer.pollFirst();
+                log.warn("Booking stream buffer is full, dropped {}", dropped);
+            }
+            buffer.addLast(event);
+            if (draining) {
+                return false;
+            }
+            draining = true;
+            return true;
+        }
+
+        synchronized BookingEvent poll() {
+            BookingEvent event = buffer.pollFirst();
+            if (event == null) {
+                draining = false;
+            }
+            return event;
+        }
+
+        void drain() {
+            BookingEvent event;
+            while ((event = poll()) != null) {
+                try {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.getBooking().getId()))
+                            .name(event.getType().name())
+                            .data(event.getBooking(), MediaType.APPLICATION_JSON));
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Failed to send booking event, closing stream", e);
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
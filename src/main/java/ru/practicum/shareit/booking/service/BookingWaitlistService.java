@@ -0,0 +1,186 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.WaitlistEntryDto;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.RecurrenceRule;
+import ru.practicum.shareit.booking.model.WaitlistEntry;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.WaitlistEntryRepository;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.validation.ValidationException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Per-item FIFO waitlists of users hoping for a slot that is currently taken.
+ * <p>
+ * The {@code booking_waitlist} table is the only copy of the waitlists, so every instance of the application sees
+ * the same queues. When a booking is rejected or canceled, the first waiter whose window overlaps the freed slot and
+ * is not blocked by an approved booking or another booker's hold becomes a WAITING booking, and its entry is deleted
+ * with it.
+ * <p>
+ * Joining and promotion both lock the item row, so they are serialized per item: duplicate entries of a user for
+ * the same window are rejected, the returned position is counted from the table, and an entry is promoted at most
+ * once. Promotion runs in its own transaction after the status change has committed: it never delays or rolls back
+ * the owner's reject or cancel, and the {@link BookingEventType#CREATED} event it publishes reaches the usual
+ * listeners once the new booking commits. If promotion fails, the status change stays as it is, the failure is
+ * logged and the entry stays in the table.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class BookingWaitlistService {
+    private static final Set<BookingStatus> RELEASING_STATUSES = Set.of(BookingStatus.REJECTED,
+            BookingStatus.CANCELED);
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final BookingHoldRegistry bookingHoldRegistry;
+    private final BookingMapper bookingMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate promotionTemplate;
+
+    public BookingWaitlistService(WaitlistEntryRepository waitlistEntryRepository,
+                                  BookingRepository bookingRepository,
+                                  ItemRepository itemRepository,
+                                  UserRepository userRepository,
+                                  BookingHoldRegistry bookingHoldRegistry,
+                                  BookingMapper bookingMapper,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager) {
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.bookingHoldRegistry = bookingHoldRegistry;
+        this.bookingMapper = bookingMapper;
+        this.eventPublisher = eventPublisher;
+        this.promotionTemplate = new TransactionTemplate(transactionManager);
+        this.promotionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Transactional
+    public WaitlistEntryDto join(long userId, long itemId, WaitlistEntryDto waitlistEntryDto) {
+        Item item = itemRepository.findAllByIdInForUpdate(List.of(itemId)).stream()
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException(String.format("Item with id:%d not found", itemId)));
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException(String.format("User with id:%d not found", userId));
+        }
+        if (item.getOwner().getId().equals(userId)) {
+            throw new NotFoundException(String.format("Owner with id:%d cannot wait for his item with id:%d.",
+                    userId, itemId));
+        }
+        if (!waitlistEntryDto.getStart().isBefore(waitlistEntryDto.getEnd())) {
+            throw new ValidationException("Start time must be earlier than end time");
+        }
+        if (waitlistEntryRepository.existsByItemIdAndUserIdAndStartAndEnd(itemId, userId,
+                waitlistEntryDto.getStart(), waitlistEntryDto.getEnd())) {
+            throw new ValidationException(String.format("User with id:%d already waits for item with id:%d " +
+                    "in this period", userId, itemId));
+        }
+        WaitlistEntry entry = waitlistEntryRepository.save(WaitlistEntry.builder()
+                .itemId(itemId)
+                .userId(userId)
+                .start(waitlistEntryDto.getStart())
+                .end(waitlistEntryDto.getEnd())
+                .created(LocalDateTime.now())
+                .build());
+        int position = (int) waitlistEntryRepository.countByItemIdAndIdLessThanEqual(itemId, entry.getId());
+        log.info("User with id:{} joined waitlist of item with id:{}", userId, itemId);
+        return WaitlistEntryDto.builder()
+                .id(entry.getId())
+                .itemId(itemId)
+                .start(entry.getStart())
+                .end(entry.getEnd())
+                .created(entry.getCreated())
+                .position(position)
+                .build();
+    }
+
+    @TransactionalEventListener
+    public void onBookingEvent(BookingEvent event) {
+        BookingDto booking = event.getBooking();
+        if (event.getType() != BookingEventType.STATUS_CHANGED || !RELEASING_STATUSES.contains(booking.getStatus())
+                || booking.getItem() == null) {
+            return;
+        }
+        long itemId = booking.getItem().getId();
+        RecurrenceRule freed = RecurrenceRule.of(booking.getStart(), booking.getEnd(), booking.getRecurrence(),
+                booking.getRecurrenceUntil());
+        try {
+            promotionTemplate.execute(status -> {
+                promote(itemId, freed);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to promote waitlist of item with id:{} after booking with id:{} was {}", itemId,
+                    booking.getId(), booking.getStatus(), e);
+        }
+    }
+
+    private void promote(long itemId, RecurrenceRule freed) {
+        Optional<Item> item = itemRepository.findAllByIdInForUpdate(List.of(itemId)).stream()
+                .findFirst()
+                .filter(found -> Boolean.TRUE.equals(found.getAvailable()));
+        if (item.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (WaitlistEntry entry : waitlistEntryRepository.findAllByItemIdOrderById(itemId)) {
+            if (!entry.getStart().isAfter(now)) {
+                waitlistEntryRepository.delete(entry);
+                log.debug("Dropped outdated waitlist entry with id:{}", entry.getId());
+            } else if (freed.overlaps(entry.getStart(), entry.getEnd()) && isFree(itemId, entry)) {
+                waitlistEntryRepository.delete(entry);
+                Optional<User> user = userRepository.findById(entry.getUserId());
+                if (user.isPresent()) {
+                    createBooking(item.get(), user.get(), entry);
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean isFree(long itemId, WaitlistEntry entry) {
+        return bookingRepository.findIntervals(List.of(itemId), BookingStatus.APPROVED, entry.getStart(),
+                        entry.getEnd()).stream()
+                .noneMatch(interval -> interval.toRecurrenceRule().overlaps(entry.getStart(), entry.getEnd()))
+                && !bookingHoldRegistry.isHeldByOthers(itemId, entry.getUserId(), entry.getStart(), entry.getEnd());
+    }
+
+    private void createBooking(Item item, User user, WaitlistEntry entry) {
+        Booking booking = bookingRepository.save(Booking.builder()
+                .start(entry.getStart())
+                .end(entry.getEnd())
+                .item(item)
+                .booker(user)
+                .ownerId(item.getOwner().getId())
+                .status(BookingStatus.WAITING)
+                .build());
+        BookingDto created = bookingMapper.toBookingResponseDto(booking);
+        eventPublisher.publishEvent(new BookingEvent(BookingEventType.CREATED, booking.getOwnerId(), created));
+        log.info("Promoted waitlist entry with id:{} to booking with id:{}", entry.getId(), booking.getId());
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.exception.controller;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.practicum.shareit.exception.NotFoundException;
 
+import javax.persistence.OptimisticLockException;
 import javax.validation.ValidationException;
 import java.util.Objects;
 
@@ -30,6 +32,12 @@ public class ErrorHandler {
         return new ErrorResponse(Objects.requireNonNull(e.getMostSpecificCause().getMessage()));
     }
 
+    @ExceptionHandler({OptimisticLockingFailureException.class, OptimisticLockException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockException(final RuntimeException e) {
+        log.error(e.getMessage(), e);
+        return new ErrorResponse("Resource was modified concurrently, repeat the request");
+    }
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@Getter
+@RequiredArgsConstructor
+public class CachedResponse {
+    private final int status;
+    private final String contentType;
+    private final byte[] body;
+
+    public void writeTo(HttpServletResponse response) throws IOException {
+        response.setStatus(status);
+        if (contentType != null) {
+            response.setContentType(contentType);
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Component
+public class IdempotencyKeyFilter extends OncePerRequestFilter {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final Set<String> IDEMPOTENT_PATHS = Set.of("/bookings", "/items", "/requests");
+    private final IdempotencyStore idempotencyStore;
+    private final long waitTimeoutMillis;
+
+    @Autowired
+    public IdempotencyKeyFilter(@Value("${shareit.idempotency.max-entries:10000}") int maxEntries,
+                                @Value("${shareit.idempotency.ttl:PT24H}") Duration ttl,
+                                @Value("${shareit.idempotency.wait-timeout:PT30S}") Duration waitTimeout) {
+        this(new IdempotencyStore(maxEntries, ttl), waitTimeout);
+    }
+
+    IdempotencyKeyFilter(IdempotencyStore idempotencyStore, Duration waitTimeout) {
+        this.idempotencyStore = idempotencyStore;
+        this.waitTimeoutMillis = waitTimeout.toMillis();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || !IDEMPOTENT_PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = String.join(" ", request.getHeader(USER_ID_HEADER), request.getRequestURI(),
+                request.getHeader(IDEMPOTENCY_KEY_HEADER));
+        CachedBodyRequest cachedBodyRequest = new CachedBodyRequest(request);
+        byte[] bodyHash = hash(cachedBodyRequest.getBody());
+        while (true) {
+            CompletableFuture<CachedResponse> pending = new CompletableFuture<>();
+            IdempotencyStore.Entry entry = idempotencyStore.putIfAbsent(key, bodyHash, pending);
+            if (entry == null) {
+                writeError(response, HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many requests with an Idempotency-Key are in progress");
+                return;
+            }
+            if (entry.getFuture() == pending) {
+                execute(cachedBodyRequest, response, chain, key);
+                return;
+            }
+            if (!entry.hasBodyHash(bodyHash)) {
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key was already used with another request body");
+                return;
+            }
+            CachedResponse cached;
+            try {
+                cached = entry.getFuture().get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                writeError(response, HttpStatus.CONFLICT, "Request with the same Idempotency-Key is still in progress");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException(e);
+            } catch (ExecutionException e) {
+                throw new ServletException(e.getCause());
+            }
+            if (cached != null) {
+                log.info("Replaying response for Idempotency-Key {}", key);
+                response.setHeader(IDEMPOTENT_REPLAYED_HEADER, Boolean.TRUE.toString());
+                cached.writeTo(response);
+                return;
+            }
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain chain, String key)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            chain.doFilter(request, responseWrapper);
+            if (responseWrapper.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                idempotencyStore.complete(key, new CachedResponse(responseWrapper.getStatus(),
+                        responseWrapper.getContentType(), responseWrapper.getContentAsByteArray()));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                idempotencyStore.abandon(key);
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private static byte[] hash(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(String.format("{\"error\":\"%s\"}", message)
+                .getBytes(StandardCharsets.UTF_8));
+    }
+}
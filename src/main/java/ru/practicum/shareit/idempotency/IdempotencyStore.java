@@ -0,0 +1,128 @@
+package ru.practicum.shareit.idempotency;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Size-bounded, TTL-evicting map of idempotency keys to responses.
+ * <p>
+ * A key is registered with a pending future and the hash of the request body before the first execution starts,
+ * so duplicates arriving while it runs wait on that future instead of executing again, and a reuse of the key with
+ * another body can be told apart. Completed entries are moved to the tail, which keeps them ordered by expiry time
+ * and lets eviction stop at the first live entry. Pending entries count toward {@code maxEntries} but are never
+ * evicted, so a new key is refused while the store is full of executions in progress.
+ */
+public class IdempotencyStore {
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    public IdempotencyStore(int maxEntries, Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /**
+     * Registers {@code pending} for the key unless it is already known.
+     *
+     * @return the entry that owns the key, which holds {@code pending} if the caller now owns it, or {@code null}
+     * if the key is new and every slot is taken by a pending entry
+     */
+    public synchronized Entry putIfAbsent(String key, byte[] bodyHash, CompletableFuture<CachedResponse> pending) {
+        long now = System.currentTimeMillis();
+        evictExpired(now);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            return entry;
+        }
+        evictOverflow(maxEntries - 1);
+        if (entries.size() >= maxEntries) {
+            return null;
+        }
+        entry = new Entry(pending, bodyHash);
+        entries.put(key, entry);
+        return entry;
+    }
+
+    public void complete(String key, CachedResponse response) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.remove(key);
+            if (entry == null) {
+                return;
+            }
+            entry.expiresAt = System.currentTimeMillis() + ttlMillis;
+            entries.put(key, entry);
+            evictOverflow(maxEntries);
+        }
+        entry.future.complete(response);
+    }
+
+    /**
+     * Forgets the key so that the next request with it executes again; waiting duplicates are released
+     * with a {@code null} response and retry on their own.
+     */
+    public void abandon(String key) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.remove(key);
+        }
+        if (entry != null) {
+            entry.future.complete(null);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.isPending()) {
+                continue;
+            }
+            if (entry.expiresAt > now) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+    private void evictOverflow(int limit) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > limit && iterator.hasNext()) {
+            if (!iterator.next().isPending()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public static class Entry {
+        private final CompletableFuture<CachedResponse> future;
+        private final byte[] bodyHash;
+        private long expiresAt;
+
+        Entry(CompletableFuture<CachedResponse> future, byte[] bodyHash) {
+            this.future = future;
+            this.bodyHash = bodyHash;
+        }
+
+        public CompletableFuture<CachedResponse> getFuture() {
+            return future;
+        }
+
+        public boolean hasBodyHash(byte[] hash) {
+            return MessageDigest.isEqual(bodyHash, hash);
+        }
+
+        boolean isPending() {
+            return expiresAt == 0;
+        }
+    }
+}
@@ -7,11 +7,14 @@ import org.springframework.data.domain.Sort;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.CommentSearchHitDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMarker;
 import ru.practicum.shareit.item.service.ItemService;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.util.List;
@@ -41,6 +44,15 @@ public class ItemController {
         return itemService.getItemById(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public CommentPageDto getComments(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @PathVariable long itemId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") @Positive @Max(100) int size) {
+        return itemService.getComments(itemId, userId, after, size);
+    }
+
     @PostMapping
     public ItemDto createItem(
             @RequestHeader(USER_ID_HEADER) Long userId,
@@ -74,6 +86,16 @@ public class ItemController {
         return itemService.searchItemsByText(text, pageable);
     }
 
+    @GetMapping("/comments/search")
+    public List<CommentSearchHitDto> searchComments(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestParam String text,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(defaultValue = "10") @Positive int size
+    ) {
+        return itemService.searchComments(userId, text, PageRequest.of(from / size, size));
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto createComment(
             @RequestHeader(USER_ID_HEADER) Long userId,
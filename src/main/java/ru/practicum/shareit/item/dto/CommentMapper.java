@@ -6,6 +6,7 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Component
 public class CommentMapper {
@@ -23,7 +24,7 @@ public class CommentMapper {
                 .text(commentDto.getText())
                 .author(user)
                 .item(item)
-                .created(LocalDateTime.now())
+                .created(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
                 .build();
     }
 }
\ No newline at end of file
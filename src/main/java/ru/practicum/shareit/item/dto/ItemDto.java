@@ -45,6 +45,12 @@ public class ItemDto {
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<CommentDto> comments;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer commentCount;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String commentsCursor;
+
     private BookingDto lastBooking;
     private BookingDto nextBooking;
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class CommentCreatedEvent {
+    private final Long ownerId;
+    private final Long itemId;
+    private final Long commentId;
+    private final String text;
+}
@@ -1,10 +1,54 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentSearchHitDto;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
-    List<Comment> findByItemId(long itemId);
-}
\ No newline at end of file
+    @Query("SELECT new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, a.name, c.created) " +
+            "FROM Comment c " +
+            "JOIN c.author a " +
+            "WHERE c.item.id = :itemId " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<CommentDto> findLatestCommentDtosByItemId(@Param("itemId") long itemId, Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, a.name, c.created) " +
+            "FROM Comment c " +
+            "JOIN c.author a " +
+            "WHERE c.item.id = :itemId " +
+            "AND (c.created < :created OR (c.created = :created AND c.id < :id)) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<CommentDto> findCommentDtosByItemIdBefore(@Param("itemId") long itemId,
+                                                   @Param("created") LocalDateTime created,
+                                                   @Param("id") long id,
+                                                   Pageable pageable);
+
+    long countByItemId(long itemId);
+
+    @Query("SELECT DISTINCT c.item.id FROM Comment c WHERE c.author.id = :authorId")
+    List<Long> findItemIdsByAuthorId(@Param("authorId") long authorId);
+
+    @Query("SELECT c.id AS id, c.text AS text " +
+            "FROM Comment c " +
+            "WHERE c.item.owner.id = :ownerId")
+    List<CommentTextView> findTextsByOwnerId(@Param("ownerId") long ownerId);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.CommentSearchHitDto(c.id, i.id, i.name, c.text, a.name, " +
+            "c.created) " +
+            "FROM Comment c " +
+            "JOIN c.item i " +
+            "JOIN c.author a " +
+            "WHERE c.id IN :commentIds " +
+            "AND i.owner.id = :ownerId " +
+            "ORDER BY c.id DESC")
+    List<CommentSearchHitDto> findSearchHits(@Param("commentIds") Collection<Long> commentIds,
+                                             @Param("ownerId") long ownerId);
+}
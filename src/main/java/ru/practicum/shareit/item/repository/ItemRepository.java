@@ -2,9 +2,13 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
@@ -17,4 +21,17 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findItemsByText(String text, Pageable pageable);
 
     List<Item> findAllByRequestId(long requestId);
+
+    List<Item> findAllByIdGreaterThanOrderById(long afterId, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i " +
+            "WHERE i.id IN :itemIds " +
+            "ORDER BY i.id")
+    List<Item> findAllByIdInForUpdate(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query("SELECT i.id FROM Item i " +
+            "WHERE i.id IN :itemIds " +
+            "AND i.available = TRUE")
+    List<Long> findAvailableIdsByIdIn(@Param("itemIds") Collection<Long> itemIds);
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.model.OwnerItemView;
+
+import java.util.List;
+
+public interface OwnerItemViewRepository extends JpaRepository<OwnerItemView, Long> {
+    List<OwnerItemView> findAllByOwnerId(Long ownerId, Pageable pageable);
+
+    @Query("SELECT v.id FROM OwnerItemView v " +
+            "WHERE v.lastBookerId = :bookerId " +
+            "OR v.nextBookerId = :bookerId")
+    List<Long> findIdsByBookerId(@Param("bookerId") long bookerId);
+}
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.event.BookingJournalEvent;
+import ru.practicum.shareit.booking.event.BookingsEndedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingBookerView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingJournal;
+import ru.practicum.shareit.booking.service.BookingReadModel;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers, per item, the users who have completed an approved booking of it and so may comment on it.
+ * <p>
+ * Each item maps to a sorted array of booker ids that is replaced, never modified, when ids are added, so lookups
+ * are a lock-free binary search. Being eligible never expires, so the index only grows: it is filled from the
+ * bookings that the phase scheduler moves to the past, on startup from a replay of the booking journal and a scan
+ * of the bookings that ended within {@code warmup}, and from the database checks made on a miss. A miss proves
+ * nothing; the database stays the source of truth for it.
+ */
+@Slf4j
+@Component
+public class CommentEligibilityIndex implements BookingReadModel {
+    private final BookingRepository bookingRepository;
+    private final ObjectProvider<BookingJournal> bookingJournal;
+    private final Duration warmup;
+    private final int chunkSize;
+    private final Map<Long, long[]> bookersByItemId = new ConcurrentHashMap<>();
+
+    public CommentEligibilityIndex(BookingRepository bookingRepository,
+                                   ObjectProvider<BookingJournal> bookingJournal,
+                                   @Value("${shareit.comment-eligibility.warmup:P30D}") Duration warmup,
+                                   @Value("${shareit.comment-eligibility.chunk-size:500}") int chunkSize) {
+        this.bookingRepository = bookingRepository;
+        this.bookingJournal = bookingJournal;
+        this.warmup = warmup;
+        this.chunkSize = chunkSize;
+    }
+
+    public boolean contains(long itemId, long bookerId) {
+        long[] bookers = bookersByItemId.get(itemId);
+        return bookers != null && Arrays.binarySearch(bookers, bookerId) >= 0;
+    }
+
+    public void add(long itemId, long bookerId) {
+        addAll(itemId, new long[]{bookerId});
+    }
+
+    @EventListener
+    public void onBookingsEnded(BookingsEndedEvent event) {
+        addAll(event.getBookings());
+    }
+
+    /**
+     * Adds the booker of an approved booking that has ended. The index keeps what it has on a rebuild, since every
+     * entry stays valid.
+     */
+    @Override
+    public void apply(BookingJournalEvent event) {
+        if (event.getStatus() == BookingStatus.APPROVED && event.getEnd().isBefore(LocalDateTime.now())) {
+            add(event.getItemId(), event.getBookerId());
+        }
+    }
+
+    /**
+     * Replays the booking journal, if it is enabled, and loads the approved bookings that ended within
+     * {@code warmup}, one chunk per query.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        bookingJournal.ifAvailable(journal -> journal.rebuild(this));
+        if (warmup.isZero()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime endAfter = now.minus(warmup);
+        long afterId = 0;
+        long loaded = 0;
+        while (true) {
+            List<BookingBookerView> chunk = bookingRepository.findBookersByStatusAndEndBetween(
+                    BookingStatus.APPROVED, endAfter, now, afterId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            addAll(chunk);
+            loaded += chunk.size();
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+        log.info("Loaded {} completed bookings into the comment eligibility index", loaded);
+    }
+
+    private void addAll(List<BookingBookerView> bookings) {
+        Map<Long, long[]> bookersByItem = new HashMap<>();
+        for (BookingBookerView booking : bookings) {
+            bookersByItem.merge(booking.getItemId(), new long[]{booking.getBookerId()},
+                    CommentEligibilityIndex::concat);
+        }
+        bookersByItem.forEach(this::addAll);
+    }
+
+    private void addAll(long itemId, long[] bookerIds) {
+        bookersByItemId.merge(itemId, normalize(bookerIds), CommentEligibilityIndex::union);
+    }
+
+    private static long[] concat(long[] first, long[] second) {
+        long[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static long[] normalize(long[] ids) {
+        return Arrays.stream(ids).sorted().distinct().toArray();
+    }
+
+    /**
+     * Merges two sorted arrays without duplicates, returning {@code current} itself when nothing is new.
+     */
+    private static long[] union(long[] current, long[] added) {
+        long[] result = new long[current.length + added.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < current.length || j < added.length) {
+            long next;
+            if (j == added.length || i < current.length && current[i] <= added[j]) {
+                next = current[i++];
+                if (j < added.length && added[j] == next) {
+                    j++;
+                }
+            } else {
+                next = added[j++];
+            }
+            result[size++] = next;
+        }
+        return size == current.length ? current : Arrays.copyOf(result, size);
+    }
+}
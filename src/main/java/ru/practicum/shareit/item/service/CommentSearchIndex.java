@@ -0,0 +1,131 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.CommentCreatedEvent;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.CommentTextView;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Inverted index from words to the ids of the comments that contain them, split into one shard per item owner so
+ * that a search reads the postings of the searching owner only.
+ * <p>
+ * A shard is built from the database on the first search of its owner and then kept up to date from
+ * {@link CommentCreatedEvent}s after their transaction commits; events for a shard that isn't built yet are ignored,
+ * since the build will read the committed comment. Words are kept in a sorted map, so every query word matches as a
+ * prefix, which also covers the inflected forms of Russian words. At most {@code maxShards} shards are kept, the
+ * least recently used one is dropped first. Postings of deleted items stay in their shard until it is rebuilt;
+ * they do no harm because hits are read back from the database.
+ */
+@Slf4j
+@Component
+public class CommentSearchIndex {
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private final CommentRepository commentRepository;
+    private final Map<Long, Shard> shards;
+
+    public CommentSearchIndex(CommentRepository commentRepository,
+                              @Value("${shareit.comment-search.max-shards:1000}") int maxShards) {
+        this.commentRepository = commentRepository;
+        this.shards = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Shard> eldest) {
+                return size() > maxShards;
+            }
+        };
+    }
+
+    /**
+     * Returns the ids of the owner's comments that contain a word starting with every word of {@code text}.
+     */
+    public Set<Long> search(long ownerId, String text) {
+        List<String> words = tokenize(text);
+        if (words.isEmpty()) {
+            return Set.of();
+        }
+        Shard shard;
+        synchronized (shards) {
+            shard = shards.computeIfAbsent(ownerId, id -> new Shard());
+        }
+        return shard.search(ownerId, words);
+    }
+
+    @TransactionalEventListener
+    public void onCommentCreated(CommentCreatedEvent event) {
+        Shard shard;
+        synchronized (shards) {
+            shard = shards.get(event.getOwnerId());
+        }
+        if (shard != null) {
+            shard.add(event.getCommentId(), event.getText());
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        return Arrays.stream(SEPARATORS.split(text.toLowerCase(Locale.ROOT).replace('ё', 'е')))
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private class Shard {
+        private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+        private boolean built;
+
+        synchronized Set<Long> search(long ownerId, List<String> words) {
+            if (!built) {
+                build(ownerId);
+            }
+            Set<Long> result = null;
+            for (String word : words) {
+                Set<Long> matches = new HashSet<>();
+                postings.subMap(word, true, word + Character.MAX_VALUE, false).values()
+                        .forEach(matches::addAll);
+                if (result == null) {
+                    result = matches;
+                } else {
+                    result.retainAll(matches);
+                }
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            return result;
+        }
+
+        synchronized void add(long commentId, String text) {
+            if (built) {
+                index(commentId, text);
+            }
+        }
+
+        private void build(long ownerId) {
+            Collection<CommentTextView> comments = commentRepository.findTextsByOwnerId(ownerId);
+            comments.forEach(comment -> index(comment.getId(), comment.getText()));
+            built = true;
+            log.debug("Built comment search shard of owner with id:{} from {} comments, {} words", ownerId,
+                    comments.size(), postings.size());
+        }
+
+        private void index(long commentId, String text) {
+            for (String word : tokenize(text)) {
+                postings.computeIfAbsent(word, key -> new HashSet<>()).add(commentId);
+            }
+        }
+    }
+}
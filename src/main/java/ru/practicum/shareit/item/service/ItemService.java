@@ -2,6 +2,8 @@ package ru.practicum.shareit.item.service;
 
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.CommentSearchHitDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.util.List;
@@ -11,6 +13,8 @@ public interface ItemService {
 
     ItemDto getItemById(long itemId, long userId);
 
+    CommentPageDto getComments(long itemId, long userId, String after, int size);
+
     ItemDto createItem(ItemDto itemDto);
 
     ItemDto updateItem(ItemDto itemDto);
@@ -20,4 +24,6 @@ public interface ItemService {
     List<ItemDto> searchItemsByText(String text, Pageable pageable);
 
     CommentDto createComment(long itemId, long userId, CommentDto commentDto);
+
+    List<CommentSearchHitDto> searchComments(long userId, String text, Pageable pageable);
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -11,15 +12,20 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.event.CommentCreatedEvent;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.retry.RetryOnOptimisticLock;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -27,7 +33,9 @@ import javax.persistence.criteria.Predicate;
 import javax.validation.ValidationException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -40,24 +48,30 @@ public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
     private final ItemMapper itemMapper;
     private final BookingMapper bookingMapper;
     private final CommentMapper commentMapper;
+    private final OutboxService outboxService;
+    private final OwnerItemViewService ownerItemViewService;
+    private final CommentEligibilityIndex commentEligibilityIndex;
+    private final CommentSearchIndex commentSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
     private static final String BOOKING_START_DATE_FIELD_NAME = "start";
     private static final String BOOKING_END_DATE_FIELD_NAME = "end";
     private static final String ID_FIELD_NAME = "id";
     private static final String BOOKING_ITEM_FIELD_NAME = "item";
     private static final String BOOKING_BOOKER_FIELD_NAME = "booker";
     private static final String BOOKING_STATUS_FIELD_NAME = "status";
+    private static final int ITEM_COMMENTS = 10;
 
+    @Transactional
     @Override
     public List<ItemDto> getAllItemsByUserId(long userId, Pageable pageable) {
         findUserById(userId);
-        return itemRepository.findAllByOwnerId(userId, pageable).stream()
-                .map(item -> createItemDto(item, userId))
-                .collect(Collectors.toList());
+        return ownerItemViewService.findByOwnerId(userId, pageable);
     }
 
     @Override
@@ -68,6 +82,13 @@ public class ItemServiceImpl implements ItemService {
         return createItemDto(item, userId);
     }
 
+    @Override
+    public CommentPageDto getComments(long itemId, long userId, String after, int size) {
+        findUserById(userId);
+        findItemById(itemId);
+        return findCommentPage(itemId, after == null ? null : CommentCursor.decode(after), size);
+    }
+
     @Transactional
     @Override
     public ItemDto createItem(ItemDto itemDto) {
@@ -76,12 +97,16 @@ public class ItemServiceImpl implements ItemService {
         item.setOwner(user);
         item.setRequest(findRequest(itemDto).orElse(null));
         item = itemRepository.save(item);
+        ownerItemViewService.onItemSaved(item);
         log.info("Created item with id:{}", item.getId());
-        return itemMapper.toItemDto(item);
+        ItemDto created = itemMapper.toItemDto(item);
+        outboxService.append(DomainEventType.ITEM_CREATED, item.getId(), created);
+        return created;
     }
 
     @Modifying
     @Transactional
+    @RetryOnOptimisticLock
     @Override
     public ItemDto updateItem(ItemDto itemDto) {
         Item item = findItemById(itemDto.getId());
@@ -97,15 +122,22 @@ public class ItemServiceImpl implements ItemService {
         }
         item.setRequest(findRequest(itemDto).orElse(null));
         item = itemRepository.save(item);
+        ownerItemViewService.onItemSaved(item);
+        userRepository.incrementHistoryVersion(List.of(item.getOwner().getId()));
         log.info("Updated item with id:{}", item.getId());
-        return itemMapper.toItemDto(item);
+        ItemDto updated = itemMapper.toItemDto(item);
+        outboxService.append(DomainEventType.ITEM_UPDATED, item.getId(), updated);
+        return updated;
     }
 
     @Modifying
     @Transactional
     @Override
     public void deleteItem(long itemDtoId) {
+        itemRepository.findById(itemDtoId)
+                .ifPresent(item -> userRepository.incrementHistoryVersion(List.of(item.getOwner().getId())));
         itemRepository.deleteById(itemDtoId);
+        outboxService.append(DomainEventType.ITEM_DELETED, itemDtoId, Map.of("id", itemDtoId));
         log.info("Deleted item with id:{}", itemDtoId);
     }
 
@@ -125,16 +157,43 @@ public class ItemServiceImpl implements ItemService {
     public CommentDto createComment(long itemId, long userId, CommentDto commentDto) {
         User user = findUserById(userId);
         Item item = findItemById(itemId);
-        LocalDateTime time = LocalDateTime.now();
-        Specification<Booking> specification = existsBookerIdAndItemIdAndEndBefore(
-                userId, itemId, time);
-        if (!bookingRepository.exists(specification)) {
-            throw new ValidationException(String.format("User with id:%d didn't rent item with id:%d, " +
-                    "or rent is still incomplete.", userId, itemId));
+        if (!commentEligibilityIndex.contains(itemId, userId)) {
+            Specification<Booking> specification = existsBookerIdAndItemIdAndEndBefore(
+                    userId, itemId, LocalDateTime.now());
+            if (!bookingRepository.exists(specification)
+                    && !archivedBookingRepository.existsByBookerIdAndItemIdAndStatus(userId, itemId,
+                    BookingStatus.APPROVED)) {
+                throw new ValidationException(String.format("User with id:%d didn't rent item with id:%d, " +
+                        "or rent is still incomplete.", userId, itemId));
+            }
+            commentEligibilityIndex.add(itemId, userId);
         }
         Comment comment = commentRepository.save(commentMapper.toComment(commentDto, item, user));
         log.info("Created comment with id:{}", comment.getId());
-        return commentMapper.toCommentDto(comment);
+        CommentDto created = commentMapper.toCommentDto(comment);
+        ownerItemViewService.onCommentCreated(itemId, created);
+        outboxService.append(DomainEventType.COMMENT_CREATED, itemId, created);
+        eventPublisher.publishEvent(new CommentCreatedEvent(item.getOwner().getId(), itemId, comment.getId(),
+                comment.getText()));
+        return created;
+    }
+
+    @Override
+    public List<CommentSearchHitDto> searchComments(long userId, String text, Pageable pageable) {
+        findUserById(userId);
+        log.info("Search comments of owner with id:{} by request:{}", userId, text);
+        if (text.isBlank()) {
+            return new ArrayList<>();
+        }
+        List<Long> commentIds = commentSearchIndex.search(userId, text).stream()
+                .sorted(Comparator.reverseOrder())
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+        if (commentIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return commentRepository.findSearchHits(commentIds, userId);
     }
 
     private ItemDto createItemDto(Item item, long userId) {
@@ -143,13 +202,17 @@ public class ItemServiceImpl implements ItemService {
             bookingRepository.findAll(findFirstByItemIdAndStartBeforeOrderByStartDesc(
                             item.getId(), LocalDateTime.now()), PageRequest.of(0, 1)).stream()
                     .findFirst()
+                    .or(() -> archivedBookingRepository.findFirstByItemIdAndStatusOrderByStartDesc(item.getId(),
+                            BookingStatus.APPROVED).map(bookingMapper::toBooking))
                     .ifPresent(booking -> itemDto.setLastBooking(bookingMapper.toBookingDto(booking)));
             bookingRepository.findAll(findFirstByItemIdAndStartAfterOrderByStart(
                             item.getId(), LocalDateTime.now()), PageRequest.of(0, 1)).stream()
                     .findFirst()
                     .ifPresent(booking -> itemDto.setNextBooking(bookingMapper.toBookingDto(booking)));
         }
-        itemDto.setComments(findCommentDtoByItemId(item.getId()));
+        CommentPageDto comments = findCommentPage(item.getId(), null, ITEM_COMMENTS);
+        itemDto.setComments(comments.getComments());
+        itemDto.setCommentsCursor(comments.getNextCursor());
         return itemDto;
     }
 
@@ -191,11 +254,20 @@ public class ItemServiceImpl implements ItemService {
     }
 
 
-    private List<CommentDto> findCommentDtoByItemId(long itemId) {
-        return commentRepository.findByItemId(itemId)
-                .stream()
-                .map(commentMapper::toCommentDto)
-                .collect(Collectors.toList());
+    /**
+     * Returns up to {@code size} comments older than {@code after}, newest first. One extra comment is read to tell
+     * whether the page is the last one, in which case it has no next cursor.
+     */
+    private CommentPageDto findCommentPage(long itemId, CommentCursor after, int size) {
+        Pageable pageable = PageRequest.of(0, size + 1);
+        List<CommentDto> comments = after == null
+                ? commentRepository.findLatestCommentDtosByItemId(itemId, pageable)
+                : commentRepository.findCommentDtosByItemIdBefore(itemId, after.getCreated(), after.getId(), pageable);
+        if (comments.size() <= size) {
+            return new CommentPageDto(comments, null);
+        }
+        List<CommentDto> page = new ArrayList<>(comments.subList(0, size));
+        return new CommentPageDto(page, CommentCursor.of(page.get(size - 1)).encode());
     }
 
     private User findUserById(long userId) {
@@ -0,0 +1,299 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.OwnerItemView;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.OwnerItemViewRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@link OwnerItemView}, the read model behind the owner's item list.
+ * <p>
+ * Rows are updated in the transaction of the write that affects them: item writes copy the item fields, new
+ * comments bump the count and the latest comments, every {@link BookingEvent} recomputes the booking snapshots
+ * of its item, and renaming or deleting a user recomputes the rows that show the user as a booker or a comment
+ * author. The next booking becomes the last one by the passage of time alone, so a row whose next booking has
+ * started is recomputed when it is read. {@link #rebuild()} recreates all rows from the source tables.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class OwnerItemViewService {
+    private static final TypeReference<List<CommentDto>> COMMENT_LIST = new TypeReference<>() {
+    };
+    private final OwnerItemViewRepository ownerItemViewRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final CommentRepository commentRepository;
+    private final BookingMapper bookingMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int latestComments;
+    private final int rebuildChunkSize;
+
+    public OwnerItemViewService(OwnerItemViewRepository ownerItemViewRepository,
+                                ItemRepository itemRepository,
+                                BookingRepository bookingRepository,
+                                ArchivedBookingRepository archivedBookingRepository,
+                                CommentRepository commentRepository,
+                                BookingMapper bookingMapper,
+                                ObjectMapper objectMapper,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${shareit.owner-item-view.latest-comments:10}") int latestComments,
+                                @Value("${shareit.owner-item-view.rebuild-chunk-size:500}") int rebuildChunkSize) {
+        this.ownerItemViewRepository = ownerItemViewRepository;
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.commentRepository = commentRepository;
+        this.bookingMapper = bookingMapper;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.latestComments = latestComments;
+        this.rebuildChunkSize = rebuildChunkSize;
+    }
+
+    /**
+     * Returns a page of the owner's items. Rows whose next booking has started since they were written are
+     * recomputed first, which is why this method writes.
+     */
+    @Transactional
+    public List<ItemDto> findByOwnerId(long ownerId, Pageable pageable) {
+        LocalDateTime now = LocalDateTime.now();
+        return ownerItemViewRepository.findAllByOwnerId(ownerId, pageable).stream()
+                .map(view -> {
+                    if (view.getNextBookingStart() != null && !view.getNextBookingStart().isAfter(now)) {
+                        refreshBookings(view, now);
+                    }
+                    return toItemDto(view);
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onItemSaved(Item item) {
+        OwnerItemView view = ownerItemViewRepository.findById(item.getId())
+                .orElseGet(() -> OwnerItemView.builder()
+                        .id(item.getId())
+                        .latestComments("[]")
+                        .build());
+        copyItem(item, view);
+        ownerItemViewRepository.save(view);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onCommentCreated(long itemId, CommentDto comment) {
+        ownerItemViewRepository.findById(itemId).ifPresent(view -> {
+            List<CommentDto> comments = new ArrayList<>(readComments(view));
+            comments.add(0, comment);
+            if (comments.size() > latestComments) {
+                comments = comments.subList(0, latestComments);
+            }
+            view.setLatestComments(writeComments(comments));
+            view.setCommentCount(view.getCommentCount() + 1);
+        });
+    }
+
+    /**
+     * Returns the ids of the items whose rows show {@code userId} as the last or next booker or as a comment author.
+     * A user delete cascades to the user's bookings and comments, so this has to be called before it.
+     */
+    public Set<Long> findItemIdsShowingUser(long userId) {
+        Set<Long> itemIds = new TreeSet<>(ownerItemViewRepository.findIdsByBookerId(userId));
+        itemIds.addAll(commentRepository.findItemIdsByAuthorId(userId));
+        return itemIds;
+    }
+
+    /**
+     * Recomputes the booking snapshots and the comments of the given rows. Rows that no longer exist are skipped.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refresh(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        ownerItemViewRepository.findAllById(itemIds).forEach(view -> {
+            refreshBookings(view, now);
+            refreshComments(view);
+        });
+    }
+
+    /**
+     * Recomputes the booking snapshots of the booked item. Runs synchronously in the publishing transaction.
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onBookingEvent(BookingEvent event) {
+        BookingDto booking = event.getBooking();
+        Long itemId = booking.getItem() != null ? booking.getItem().getId() : booking.getItemId();
+        if (itemId == null) {
+            return;
+        }
+        ownerItemViewRepository.findById(itemId)
+                .ifPresent(view -> refreshBookings(view, LocalDateTime.now()));
+    }
+
+    /**
+     * Rebuilds the view on startup when it doesn't cover every item, for example on a database created before the
+     * view existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuildIfIncomplete() {
+        if (ownerItemViewRepository.count() != itemRepository.count()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Drops all rows and recomputes them from the items, bookings and comments, one chunk of items per transaction.
+     *
+     * @return the number of rows written
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long rebuild() {
+        transactionTemplate.execute(status -> {
+            ownerItemViewRepository.deleteAllInBatch();
+            return null;
+        });
+        long afterId = 0;
+        long rebuilt = 0;
+        while (true) {
+            long cursor = afterId;
+            List<OwnerItemView> views = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<OwnerItemView> chunk = itemRepository.findAllByIdGreaterThanOrderById(cursor,
+                                PageRequest.of(0, rebuildChunkSize)).stream()
+                        .map(item -> buildView(item, now))
+                        .collect(Collectors.toList());
+                return ownerItemViewRepository.saveAll(chunk);
+            });
+            if (views == null || views.isEmpty()) {
+                break;
+            }
+            rebuilt += views.size();
+            afterId = views.get(views.size() - 1).getId();
+        }
+        log.info("Rebuilt owner item view with {} items", rebuilt);
+        return rebuilt;
+    }
+
+    private OwnerItemView buildView(Item item, LocalDateTime now) {
+        OwnerItemView view = OwnerItemView.builder()
+                .id(item.getId())
+                .build();
+        copyItem(item, view);
+        refreshBookings(view, now);
+        refreshComments(view);
+        return view;
+    }
+
+    private void copyItem(Item item, OwnerItemView view) {
+        view.setOwnerId(item.getOwner().getId());
+        view.setName(item.getName());
+        view.setDescription(item.getDescription());
+        view.setAvailable(item.getAvailable());
+        view.setRequestId(item.getRequest() != null ? item.getRequest().getId() : null);
+    }
+
+    private void refreshComments(OwnerItemView view) {
+        List<CommentDto> comments = commentRepository.findLatestCommentDtosByItemId(view.getId(),
+                PageRequest.of(0, latestComments));
+        view.setLatestComments(writeComments(comments));
+        view.setCommentCount((int) commentRepository.countByItemId(view.getId()));
+    }
+
+    private void refreshBookings(OwnerItemView view, LocalDateTime now) {
+        Optional<Booking> last = bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(
+                        view.getId(), BookingStatus.APPROVED, now)
+                .or(() -> archivedBookingRepository.findFirstByItemIdAndStatusOrderByStartDesc(view.getId(),
+                        BookingStatus.APPROVED).map(bookingMapper::toBooking));
+        view.setLastBookingId(last.map(Booking::getId).orElse(null));
+        view.setLastBookerId(last.map(booking -> booking.getBooker().getId()).orElse(null));
+        view.setLastBookingStart(last.map(Booking::getStart).orElse(null));
+        view.setLastBookingEnd(last.map(Booking::getEnd).orElse(null));
+        Optional<Booking> next = bookingRepository.findFirstByItemIdAndStatusNotAndStartAfterOrderByStartAsc(
+                view.getId(), BookingStatus.REJECTED, now);
+        view.setNextBookingId(next.map(Booking::getId).orElse(null));
+        view.setNextBookerId(next.map(booking -> booking.getBooker().getId()).orElse(null));
+        view.setNextBookingStart(next.map(Booking::getStart).orElse(null));
+        view.setNextBookingEnd(next.map(Booking::getEnd).orElse(null));
+    }
+
+    private ItemDto toItemDto(OwnerItemView view) {
+        return ItemDto.builder()
+                .id(view.getId())
+                .name(view.getName())
+                .description(view.getDescription())
+                .available(view.getAvailable())
+                .requestId(view.getRequestId())
+                .lastBooking(toBookingDto(view.getId(), view.getLastBookingId(), view.getLastBookerId(),
+                        view.getLastBookingStart(), view.getLastBookingEnd()))
+                .nextBooking(toBookingDto(view.getId(), view.getNextBookingId(), view.getNextBookerId(),
+                        view.getNextBookingStart(), view.getNextBookingEnd()))
+                .comments(readComments(view))
+                .commentCount(view.getCommentCount())
+                .build();
+    }
+
+    private BookingDto toBookingDto(long itemId, Long bookingId, Long bookerId, LocalDateTime start,
+                                    LocalDateTime end) {
+        if (bookingId == null) {
+            return null;
+        }
+        return BookingDto.builder()
+                .id(bookingId)
+                .start(start)
+                .end(end)
+                .itemId(itemId)
+                .bookerId(bookerId)
+                .build();
+    }
+
+    private List<CommentDto> readComments(OwnerItemView view) {
+        try {
+            return objectMapper.readValue(view.getLatestComments(), COMMENT_LIST);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(String.format("Cannot read comments of item with id:%d",
+                    view.getId()), e);
+        }
+    }
+
+    private String writeComments(List<CommentDto> comments) {
+        try {
+            return objectMapper.writeValueAsString(comments);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot write comments", e);
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package ru.practicum.shareit.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary log split into segment files.
+ * <p>
+ * A record is {@code length:int crc:int sequence:long payload}, where the CRC-32 covers the sequence and the
+ * payload. Segments are named after the sequence of their first record and a new one is started when the current
+ * one would grow past {@code maxSegmentBytes}.
+ * <p>
+ * Appends are queued to a single writer thread that takes everything queued so far, writes it with one gathering
+ * write and forces it to disk once, so concurrent appenders share the cost of the sync. The future returned by
+ * {@link #append(byte[])} completes when the record is durable.
+ * <p>
+ * Replay maps each segment read-only and stops at the first record that is cut short or fails its checksum. Opening
+ * the journal truncates such a tail of the last segment, which is what a crash in the middle of a write leaves.
+ */
+@Slf4j
+public class EventJournal implements Closeable {
+    static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES;
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int MAX_BATCH = 1024;
+    private static final PendingAppend CLOSE = new PendingAppend(new byte[0]);
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final BlockingQueue<PendingAppend> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private FileChannel segment;
+    private long segmentBytes;
+    private long nextSequence;
+    private volatile boolean closed;
+
+    private EventJournal(Path directory, long maxSegmentBytes) {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.writer = new Thread(this::writeLoop, "event-journal-writer");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Opens the journal in {@code directory}, creating it if needed, and starts the writer thread.
+     */
+    public static EventJournal open(Path directory, long maxSegmentBytes) throws IOException {
+        EventJournal journal = new EventJournal(directory, maxSegmentBytes);
+        journal.recover();
+        journal.writer.start();
+        return journal;
+    }
+
+    /**
+     * Queues {@code payload} for writing. The returned future completes with the sequence of the record once it is
+     * on disk, or exceptionally if the write failed.
+     */
+    public CompletableFuture<Long> append(byte[] payload) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        PendingAppend pending = new PendingAppend(payload);
+        queue.add(pending);
+        return pending.future;
+    }
+
+    /**
+     * Passes every intact record with a sequence of at least {@code fromSequence} to {@code handler} in order.
+     *
+     * @return the number of records passed
+     */
+    public long replay(long fromSequence, JournalRecordHandler handler) throws IOException {
+        List<Path> segments = listSegments();
+        long replayed = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            if (i + 1 < segments.size() && firstSequence(segments.get(i + 1)) <= fromSequence) {
+                continue;
+            }
+            long[] count = new long[1];
+            scan(segments.get(i), (sequence, payload) -> {
+                if (sequence >= fromSequence) {
+                    handler.onRecord(sequence, payload);
+                    count[0]++;
+                }
+            });
+            replayed += count[0];
+        }
+        return replayed;
+    }
+
+    /**
+     * Returns the sequence the next record will get. Records written so far have smaller sequences.
+     */
+    public synchronized long getNextSequence() {
+        return nextSequence;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        queue.add(CLOSE);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (segment != null) {
+                segment.close();
+            }
+        }
+    }
+
+    private synchronized void recover() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments();
+        if (segments.isEmpty()) {
+            nextSequence = 1;
+            openSegment(1);
+            return;
+        }
+        Path last = segments.get(segments.size() - 1);
+        long[] lastSequence = {firstSequence(last) - 1};
+        long validBytes = scan(last, (sequence, payload) -> lastSequence[0] = sequence);
+        segment = FileChannel.open(last, StandardOpenOption.WRITE);
+        if (validBytes < segment.size()) {
+            log.warn("Truncated {} bytes of a torn record at the end of {}", segment.size() - validBytes, last);
+            segment.truncate(validBytes);
+            segment.force(false);
+        }
+        segment.position(validBytes);
+        segmentBytes = validBytes;
+        nextSequence = lastSequence[0] + 1;
+        log.info("Opened event journal {} with {} segments, next sequence {}", directory, segments.size(),
+                nextSequence);
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> batch = new ArrayList<>();
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            running = !batch.remove(CLOSE);
+            if (!batch.isEmpty()) {
+                try {
+                    write(batch);
+                } catch (IOException | RuntimeException e) {
+                    log.error("Failed to write {} records to event journal {}", batch.size(), directory, e);
+                    batch.forEach(pending -> pending.future.completeExceptionally(e));
+                }
+            }
+            batch.clear();
+        }
+        queue.forEach(pending -> pending.future.completeExceptionally(new IllegalStateException("Journal is closed")));
+    }
+
+    /**
+     * Writes {@code batch} with one sync per segment it touches. If a write fails, the segment is cut back to the
+     * last synced record so that the sequences stay contiguous.
+     */
+    private synchronized void write(List<PendingAppend> batch) throws IOException {
+        if (!segment.isOpen()) {
+            openSegment(nextSequence);
+        }
+        List<ByteBuffer> buffers = new ArrayList<>(batch.size() * 2);
+        long durableSequence = nextSequence;
+        long durableBytes = segmentBytes;
+        int flushed = 0;
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                PendingAppend pending = batch.get(i);
+                long recordBytes = HEADER_BYTES + pending.payload.length;
+                if (segmentBytes > 0 && segmentBytes + recordBytes > maxSegmentBytes) {
+                    flush(buffers, batch.subList(flushed, i));
+                    flushed = i;
+                    durableSequence = nextSequence;
+                    segment.close();
+                    openSegment(nextSequence);
+                    durableBytes = 0;
+                }
+                pending.sequence = nextSequence++;
+                buffers.add(header(pending.sequence, pending.payload));
+                buffers.add(ByteBuffer.wrap(pending.payload));
+                segmentBytes += recordBytes;
+            }
+            flush(buffers, batch.subList(flushed, batch.size()));
+        } catch (IOException | RuntimeException e) {
+            nextSequence = durableSequence;
+            segmentBytes = durableBytes;
+            if (segment.isOpen()) {
+                segment.truncate(durableBytes);
+            }
+            throw e;
+        }
+    }
+
+    private void flush(List<ByteBuffer> buffers, List<PendingAppend> appends) throws IOException {
+        if (buffers.isEmpty()) {
+            return;
+        }
+        ByteBuffer[] array = buffers.toArray(new ByteBuffer[0]);
+        long remaining = buffers.stream().mapToLong(ByteBuffer::remaining).sum();
+        while (remaining > 0) {
+            remaining -= segment.write(array);
+        }
+        segment.force(false);
+        buffers.clear();
+        appends.forEach(pending -> pending.future.complete(pending.sequence));
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX));
+        segment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        segmentBytes = segment.size();
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Maps {@code path} and passes its intact records to {@code handler}.
+     *
+     * @return the number of bytes taken by the intact records
+     */
+    private static long scan(Path path, JournalRecordHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return 0;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32 crc = new CRC32();
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int start = buffer.position();
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length < 0 || length > buffer.remaining() - Long.BYTES) {
+                    return start;
+                }
+                crc.reset();
+                crc.update(buffer.slice().limit(Long.BYTES + length));
+                if ((int) crc.getValue() != checksum) {
+                    return start;
+                }
+                long sequence = buffer.getLong();
+                ByteBuffer payload = buffer.slice().limit(length).asReadOnlyBuffer();
+                buffer.position(buffer.position() + length);
+                handler.onRecord(sequence, payload);
+            }
+            return buffer.position();
+        }
+    }
+
+    private static ByteBuffer header(long sequence, byte[] payload) {
+        CRC32 crc = new CRC32();
+        ByteBuffer sequenceBytes = ByteBuffer.allocate(Long.BYTES).putLong(0, sequence);
+        crc.update(sequenceBytes);
+        crc.update(payload);
+        return ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .putLong(sequence)
+                .flip();
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static class PendingAppend {
+        private final byte[] payload;
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+        private long sequence;
+
+        PendingAppend(byte[] payload) {
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.journal;
+
+import java.nio.ByteBuffer;
+
+@FunctionalInterface
+public interface JournalRecordHandler {
+    /**
+     * Receives one record. {@code payload} is a read-only view into the mapped segment and is only valid during
+     * the call.
+     */
+    void onRecord(long sequence, ByteBuffer payload);
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.journal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class JournalReplayStats {
+    private final long events;
+    private final long nanos;
+
+    public double getEventsPerSecond() {
+        return nanos == 0 ? 0 : events * 1_000_000_000d / nanos;
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.outbox.model;
+
+public enum AggregateType {
+    BOOKING,
+    ITEM,
+    USER,
+    REQUEST
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.outbox.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox event as handed to subscribers. {@code payload} is the JSON form of the DTO the change returned.
+ */
+@Builder
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class DomainEvent {
+    private final long id;
+    private final DomainEventType type;
+    private final long aggregateId;
+    private final String payload;
+    private final LocalDateTime created;
+
+    public AggregateType getAggregateType() {
+        return type.getAggregateType();
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.outbox.model;
+
+public enum DomainEventType {
+    BOOKING_CREATED(AggregateType.BOOKING),
+    BOOKING_STATUS_CHANGED(AggregateType.BOOKING),
+    ITEM_CREATED(AggregateType.ITEM),
+    ITEM_UPDATED(AggregateType.ITEM),
+    ITEM_DELETED(AggregateType.ITEM),
+    COMMENT_CREATED(AggregateType.ITEM),
+    USER_CREATED(AggregateType.USER),
+    USER_UPDATED(AggregateType.USER),
+    USER_DELETED(AggregateType.USER),
+    REQUEST_CREATED(AggregateType.REQUEST);
+
+    private final AggregateType aggregateType;
+
+    DomainEventType(AggregateType aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public AggregateType getAggregateType() {
+        return aggregateType;
+    }
+}
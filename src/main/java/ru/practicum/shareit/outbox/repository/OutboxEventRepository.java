@@ -0,0 +1,41 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    @Query("SELECT e FROM OutboxEvent e " +
+            "WHERE e.dispatched IS NULL " +
+            "AND e.id > :afterId " +
+            "ORDER BY e.id")
+    List<OutboxEvent> findPending(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT MIN(e.created) FROM OutboxEvent e " +
+            "WHERE e.dispatched IS NULL")
+    LocalDateTime findMinPendingCreated();
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.dispatched = :now " +
+            "WHERE e.id IN :eventIds")
+    int markDispatched(@Param("eventIds") Collection<Long> eventIds,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error " +
+            "WHERE e.id = :eventId")
+    int recordFailure(@Param("eventId") long eventId,
+                      @Param("error") String error);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e " +
+            "WHERE e.dispatched < :dispatchedBefore")
+    int deleteDispatchedBefore(@Param("dispatchedBefore") LocalDateTime dispatchedBefore);
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.outbox.service;
+
+import ru.practicum.shareit.outbox.model.DomainEvent;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+
+/**
+ * An in-process consumer of outbox events. Delivery is at least once and in order per aggregate, so handlers must
+ * tolerate seeing an event again. A handler that throws holds back the later events of the same aggregate until
+ * the event is retried.
+ */
+public interface DomainEventSubscriber {
+    default boolean supports(DomainEventType type) {
+        return true;
+    }
+
+    void onEvent(DomainEvent event);
+
+    /**
+     * Called after a batch has been handed over and before it is marked dispatched. Subscribers that buffer their
+     * work complete it here; throwing leaves the whole batch to be delivered again.
+     */
+    default void flush() {
+    }
+}
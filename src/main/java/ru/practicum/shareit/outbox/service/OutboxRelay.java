@@ -0,0 +1,204 @@
+package ru.practicum.shareit.outbox.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.model.DomainEvent;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.scheduler.SchedulerLockService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Dispatches outbox events to the {@link DomainEventSubscriber} beans.
+ * <p>
+ * Pending events are read in batches in id order and marked dispatched after each batch, so a crash in between
+ * delivers the batch again. When a subscriber fails, the remaining events of the same aggregate are held back until
+ * the next run; an event that keeps failing is given up after {@code max-attempts}. Only the node that holds the
+ * {@value #LOCK_NAME} scheduler lock dispatches, which keeps the order per aggregate.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+    static final String LOCK_NAME = "outbox-relay";
+    private static final int MAX_ERROR_LENGTH = 512;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectProvider<DomainEventSubscriber> subscribers;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retention;
+    private final Duration leaseTime;
+    private final Counter dispatchedCounter;
+    private final Counter failedCounter;
+    private final Timer lagTimer;
+    private final AtomicLong pendingAgeSeconds = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       ObjectProvider<DomainEventSubscriber> subscribers,
+                       SchedulerLockService schedulerLockService,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${shareit.outbox.batch-size:100}") int batchSize,
+                       @Value("${shareit.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${shareit.outbox.retention:P1D}") Duration retention,
+                       @Value("${shareit.outbox.lease-time:PT5M}") Duration leaseTime) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.subscribers = subscribers;
+        this.schedulerLockService = schedulerLockService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retention = retention;
+        this.leaseTime = leaseTime;
+        this.dispatchedCounter = Counter.builder("shareit.outbox.dispatched")
+                .description("Outbox events delivered to all subscribers")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("shareit.outbox.failed")
+                .description("Outbox event deliveries that a subscriber failed")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("shareit.outbox.lag")
+                .description("Time from writing an outbox event to delivering it")
+                .register(meterRegistry);
+        Gauge.builder("shareit.outbox.pending.age", pendingAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest outbox event left pending after the last run")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.interval:PT1S}")
+    public void relay() {
+        if (!schedulerLockService.tryLock(LOCK_NAME, leaseTime)) {
+            log.debug("Outbox relay is running on another node");
+            return;
+        }
+        try {
+            dispatchPending();
+        } finally {
+            schedulerLockService.unlock(LOCK_NAME);
+        }
+    }
+
+    /**
+     * Dispatches everything pending at the time of the call. Returns the number of events delivered.
+     */
+    public long dispatchPending() {
+        Set<String> blockedAggregates = new HashSet<>();
+        long afterId = 0;
+        long dispatched = 0;
+        while (true) {
+            long cursor = afterId;
+            List<OutboxEvent> events = transactionTemplate.execute(status ->
+                    outboxEventRepository.findPending(cursor, PageRequest.of(0, batchSize)));
+            if (events == null || events.isEmpty()) {
+                break;
+            }
+            dispatched += dispatchBatch(events, blockedAggregates);
+            if (events.size() < batchSize) {
+                break;
+            }
+            afterId = events.get(events.size() - 1).getId();
+            if (!schedulerLockService.tryLock(LOCK_NAME, leaseTime)) {
+                log.warn("Lost outbox relay lock after event with id:{}", afterId);
+                break;
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.execute(status ->
+                outboxEventRepository.deleteDispatchedBefore(now.minus(retention)));
+        LocalDateTime oldest = outboxEventRepository.findMinPendingCreated();
+        pendingAgeSeconds.set(oldest == null ? 0 : Duration.between(oldest, now).getSeconds());
+        if (dispatched > 0) {
+            log.info("Dispatched {} outbox events", dispatched);
+        }
+        return dispatched;
+    }
+
+    private int dispatchBatch(List<OutboxEvent> events, Set<String> blockedAggregates) {
+        List<DomainEventSubscriber> targets = subscribers.orderedStream().collect(Collectors.toList());
+        List<Long> dispatchedIds = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            String aggregate = event.getAggregateType() + ":" + event.getAggregateId();
+            if (blockedAggregates.contains(aggregate)) {
+                continue;
+            }
+            try {
+                DomainEvent domainEvent = toDomainEvent(event);
+                for (DomainEventSubscriber subscriber : targets) {
+                    if (subscriber.supports(domainEvent.getType())) {
+                        subscriber.onEvent(domainEvent);
+                    }
+                }
+                dispatchedIds.add(event.getId());
+                lagTimer.record(Duration.between(event.getCreated(), LocalDateTime.now()));
+            } catch (RuntimeException e) {
+                failedCounter.increment();
+                if (recordFailure(event, e)) {
+                    dispatchedIds.add(event.getId());
+                } else {
+                    blockedAggregates.add(aggregate);
+                }
+            }
+        }
+        try {
+            targets.forEach(DomainEventSubscriber::flush);
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            log.warn("Failed to flush outbox subscribers, {} events will be delivered again", dispatchedIds.size(), e);
+            events.forEach(event -> blockedAggregates.add(event.getAggregateType() + ":" + event.getAggregateId()));
+            return 0;
+        }
+        if (!dispatchedIds.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.execute(status ->
+                    outboxEventRepository.markDispatched(dispatchedIds, now));
+            dispatchedCounter.increment(dispatchedIds.size());
+        }
+        return dispatchedIds.size();
+    }
+
+    /**
+     * Stores the failure of {@code event}. Returns {@code true} if the event has run out of attempts and is given up.
+     */
+    private boolean recordFailure(OutboxEvent event, RuntimeException e) {
+        String error = String.valueOf(e.getMessage());
+        transactionTemplate.execute(status -> outboxEventRepository.recordFailure(event.getId(),
+                error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error));
+        if (event.getAttempts() + 1 >= maxAttempts) {
+            log.error("Giving up outbox event with id:{} after {} attempts", event.getId(), maxAttempts, e);
+            return true;
+        }
+        log.warn("Failed to dispatch outbox event with id:{}, holding back {} with id:{}", event.getId(),
+                event.getAggregateType(), event.getAggregateId(), e);
+        return false;
+    }
+
+    private DomainEvent toDomainEvent(OutboxEvent event) {
+        return DomainEvent.builder()
+                .id(event.getId())
+                .type(event.getType())
+                .aggregateId(event.getAggregateId())
+                .payload(event.getPayload())
+                .created(event.getCreated())
+                .build();
+    }
+}
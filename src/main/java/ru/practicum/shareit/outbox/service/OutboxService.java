@@ -0,0 +1,46 @@
+package ru.practicum.shareit.outbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes an event to the outbox. It must be called inside the transaction that makes the change, so the event
+     * is stored if and only if the change is committed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(DomainEventType type, Long aggregateId, Object payload) {
+        OutboxEvent event = outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType(type.getAggregateType())
+                .aggregateId(aggregateId)
+                .type(type)
+                .payload(toJson(payload))
+                .created(LocalDateTime.now())
+                .build());
+        log.debug("Appended {} event with id:{} for aggregate with id:{}", type, event.getId(), aggregateId);
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize outbox payload", e);
+        }
+    }
+}
@@ -12,6 +12,8 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -34,6 +36,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRepository itemRepository;
     private final ItemRequestMapper itemRequestMapper;
     private final ItemMapper itemMapper;
+    private final OutboxService outboxService;
     private static final String ITEM_REQUEST_REQUESTOR_USER_FIELD_NAME = "requestor";
     private static final String ITEM_REQUEST_CREATED_DATE_FIELD_NAME = "created";
 
@@ -47,7 +50,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         itemRequest.setRequestor(user);
         itemRequest = itemRequestRepository.save(itemRequest);
         log.info("Created request with id:{}", itemRequest.getId());
-        return itemRequestMapper.toItemRequestDto(itemRequest);
+        ItemRequestDto created = itemRequestMapper.toItemRequestDto(itemRequest);
+        outboxService.append(DomainEventType.REQUEST_CREATED, itemRequest.getId(), created);
+        return created;
     }
 
     @Override
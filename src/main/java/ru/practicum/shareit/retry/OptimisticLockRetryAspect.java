@@ -0,0 +1,62 @@
+package ru.practicum.shareit.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class OptimisticLockRetryAspect {
+    /**
+     * Runs outside the transaction advisor so that every attempt gets a fresh transaction. The annotation is read
+     * from the method rather than bound as an advice argument, since binding depends on the invocation being exposed
+     * by an interceptor ordered ahead of this aspect.
+     */
+    @Around("@annotation(ru.practicum.shareit.retry.RetryOnOptimisticLock)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        RetryOnOptimisticLock retryOnOptimisticLock = findAnnotation(joinPoint);
+        int attempt = 1;
+        while (true) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= retryOnOptimisticLock.maxAttempts()) {
+                    throw e;
+                }
+                long backoff = retryOnOptimisticLock.backoffMillis() << (attempt - 1);
+                long delay = backoff + ThreadLocalRandom.current().nextLong(backoff + 1);
+                log.warn("Optimistic lock conflict in {}, attempt {} of {}, retrying in {} ms",
+                        joinPoint.getSignature().toShortString(), attempt, retryOnOptimisticLock.maxAttempts(),
+                        delay);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                attempt++;
+            }
+        }
+    }
+
+    private static RetryOnOptimisticLock findAnnotation(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        if (joinPoint.getTarget() != null) {
+            method = AopUtils.getMostSpecificMethod(method, joinPoint.getTarget().getClass());
+        }
+        return AnnotationUtils.findAnnotation(method, RetryOnOptimisticLock.class);
+    }
+}
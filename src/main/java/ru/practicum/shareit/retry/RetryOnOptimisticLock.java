@@ -0,0 +1,18 @@
+package ru.practicum.shareit.retry;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs the annotated method in a new transaction when it fails on a stale {@code @Version}.
+ * The delay doubles after each failed attempt and gets a random jitter of up to the same amount.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnOptimisticLock {
+    int maxAttempts() default 3;
+
+    long backoffMillis() default 50;
+}
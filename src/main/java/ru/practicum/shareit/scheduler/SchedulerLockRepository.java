@@ -0,0 +1,27 @@
+package ru.practicum.shareit.scheduler;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :lockedUntil, l.lockedBy = :lockedBy " +
+            "WHERE l.name = :name " +
+            "AND (l.lockedUntil <= :now OR l.lockedBy = :lockedBy)")
+    int acquire(@Param("name") String name,
+                @Param("lockedBy") String lockedBy,
+                @Param("now") LocalDateTime now,
+                @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :now " +
+            "WHERE l.name = :name " +
+            "AND l.lockedBy = :lockedBy")
+    int release(@Param("name") String name,
+                @Param("lockedBy") String lockedBy,
+                @Param("now") LocalDateTime now);
+}
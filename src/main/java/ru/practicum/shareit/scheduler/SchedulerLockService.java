@@ -0,0 +1,55 @@
+package ru.practicum.shareit.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Lease-based lock on a row of {@code scheduler_locks} that lets only one node run a background job at a time.
+ * <p>
+ * Each call runs in its own short transaction. A lease that its holder did not release, e.g. because the node
+ * died, can be taken over once {@code lockedUntil} has passed; the holder extends it by locking again.
+ */
+@Slf4j
+@Service
+public class SchedulerLockService {
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public SchedulerLockService(SchedulerLockRepository schedulerLockRepository,
+                                TransactionTemplate transactionTemplate) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public boolean tryLock(String name, Duration leaseTime) {
+        LocalDateTime now = LocalDateTime.now();
+        Boolean acquired = transactionTemplate.execute(status ->
+                schedulerLockRepository.acquire(name, nodeId, now, now.plus(leaseTime)) == 1);
+        if (Boolean.TRUE.equals(acquired)) {
+            return true;
+        }
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (schedulerLockRepository.existsById(name)) {
+                    return false;
+                }
+                schedulerLockRepository.saveAndFlush(new SchedulerLock(name, now.plus(leaseTime), nodeId));
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Lock {} was created concurrently by another node", name);
+            return false;
+        }
+    }
+
+    public void unlock(String name) {
+        transactionTemplate.execute(status -> schedulerLockRepository.release(name, nodeId, LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel.
+ * <p>
+ * Each level has {@code wheelSize} buckets of {@code tickMillis}. Timers that do not fit into the span of a level
+ * go to an overflow level whose tick is the whole span of the level below, and are cascaded down when the clock
+ * reaches their bucket. Adding a timer and expiring it are O(1) regardless of how many timers are scheduled.
+ * <p>
+ * A timer fires on the first {@link #advance(long)} whose time is past the end of its bucket, so it never fires
+ * early and at most one tick late. The class is not thread-safe.
+ */
+public class TimingWheel<T> {
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long intervalMillis;
+    private final List<List<Timer<T>>> buckets;
+    private long currentTime;
+    private TimingWheel<T> overflowWheel;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.intervalMillis = tickMillis * wheelSize;
+        this.currentTime = startMillis - startMillis % tickMillis;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedules {@code payload} to expire at {@code expirationMillis}. Timers that are already due fire on the
+     * next advance.
+     */
+    public void add(T payload, long expirationMillis) {
+        add(new Timer<>(payload, Math.max(expirationMillis, currentTime)));
+    }
+
+    /**
+     * Moves the clock to {@code nowMillis}.
+     *
+     * @return payloads of all timers that expired on the way, in expiration order of their buckets
+     */
+    public List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        while (currentTime + tickMillis <= nowMillis) {
+            if (overflowWheel != null) {
+                overflowWheel.cascade(currentTime).forEach(this::add);
+            }
+            List<Timer<T>> bucket = bucket(currentTime);
+            bucket.forEach(timer -> expired.add(timer.payload));
+            bucket.clear();
+            currentTime += tickMillis;
+        }
+        return expired;
+    }
+
+    private void add(Timer<T> timer) {
+        if (timer.expirationMillis < currentTime + intervalMillis) {
+            bucket(timer.expirationMillis).add(timer);
+            return;
+        }
+        if (overflowWheel == null) {
+            overflowWheel = new TimingWheel<>(intervalMillis, wheelSize, currentTime);
+        }
+        overflowWheel.add(timer);
+    }
+
+    /**
+     * Hands over the timers of the bucket starting at {@code time} to the level below, once the clock of that level
+     * reaches the bucket.
+     */
+    private List<Timer<T>> cascade(long time) {
+        if (time % tickMillis != 0) {
+            return List.of();
+        }
+        currentTime = time;
+        if (overflowWheel != null) {
+            overflowWheel.cascade(time).forEach(this::add);
+        }
+        List<Timer<T>> bucket = bucket(time);
+        List<Timer<T>> timers = new ArrayList<>(bucket);
+        bucket.clear();
+        return timers;
+    }
+
+    private List<Timer<T>> bucket(long time) {
+        return buckets.get((int) (time / tickMillis % wheelSize));
+    }
+
+    private static class Timer<T> {
+        private final T payload;
+        private final long expirationMillis;
+
+        Timer(T payload, long expirationMillis) {
+            this.payload = payload;
+            this.expirationMillis = expirationMillis;
+        }
+    }
+}
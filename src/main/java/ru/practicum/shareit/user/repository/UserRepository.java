@@ -1,7 +1,30 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
+
+/**
+ * The booking history version of a user counts the writes that change the user's booking history as an owner. It is
+ * kept in a column the entity does not map, so saving a loaded user never overwrites a concurrent increment.
+ */
 public interface UserRepository extends JpaRepository<User, Long> {
-}
\ No newline at end of file
+    @Query(value = "SELECT history_version FROM users WHERE user_id = :userId", nativeQuery = true)
+    Long findHistoryVersionById(@Param("userId") long userId);
+
+    @Modifying
+    @Query(value = "UPDATE users SET history_version = history_version + 1 WHERE user_id IN (:userIds)",
+            nativeQuery = true)
+    int incrementHistoryVersion(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query(value = "UPDATE users SET history_version = history_version + 1 WHERE user_id IN (" +
+            "SELECT b.owner_id FROM bookings b WHERE b.booker_id = :bookerId " +
+            "UNION SELECT a.owner_id FROM bookings_archive a WHERE a.booker_id = :bookerId)",
+            nativeQuery = true)
+    int incrementHistoryVersionOfOwnersBookedBy(@Param("bookerId") long bookerId);
+}
@@ -3,21 +3,30 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.service.OwnerItemViewService;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final OutboxService outboxService;
+    private final OwnerItemViewService ownerItemViewService;
 
     @Override
     public List<UserDto> getAllUsers() {
@@ -35,30 +44,48 @@ public class UserServiceImpl implements UserService {
         return userMapper.toUserDto(user);
     }
 
+    @Transactional
     @Override
     public UserDto createUser(UserDto userDto) {
         User newUser = userRepository.save(userMapper.toUser(userDto));
         log.info("Created user with id = {}", newUser.getId());
-        return userMapper.toUserDto(newUser);
+        UserDto created = userMapper.toUserDto(newUser);
+        outboxService.append(DomainEventType.USER_CREATED, newUser.getId(), created);
+        return created;
     }
 
+    @Transactional
     @Override
     public UserDto updateUser(UserDto userDto) {
         User updatedUser = userMapper.toUser(getUserById(userDto.getId()));
-        if (userDto.getName() != null) {
+        boolean renamed = userDto.getName() != null && !userDto.getName().equals(updatedUser.getName());
+        if (renamed) {
             updatedUser.setName(userDto.getName());
         }
         if (userDto.getEmail() != null && !userDto.getEmail().equals(updatedUser.getEmail())) {
             updatedUser.setEmail(userDto.getEmail());
         }
         updatedUser = userRepository.save(updatedUser);
+        if (renamed) {
+            userRepository.incrementHistoryVersionOfOwnersBookedBy(updatedUser.getId());
+            userRepository.flush();
+            ownerItemViewService.refresh(ownerItemViewService.findItemIdsShowingUser(updatedUser.getId()));
+        }
         log.info("Updated user with id = {}", updatedUser.getId());
-        return userMapper.toUserDto(updatedUser);
+        UserDto updated = userMapper.toUserDto(updatedUser);
+        outboxService.append(DomainEventType.USER_UPDATED, updatedUser.getId(), updated);
+        return updated;
     }
 
+    @Transactional
     @Override
     public void deleteUser(Long userId) {
+        Set<Long> itemIds = ownerItemViewService.findItemIdsShowingUser(userId);
+        userRepository.incrementHistoryVersionOfOwnersBookedBy(userId);
         userRepository.deleteById(userId);
+        userRepository.flush();
+        ownerItemViewService.refresh(itemIds);
+        outboxService.append(DomainEventType.USER_DELETED, userId, Map.of("id", userId));
         log.info("Deleted user with id = {}", userId);
     }
 }
\ No newline at end of file
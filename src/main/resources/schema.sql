@@ -1,10 +1,11 @@
-DROP TABLE IF EXISTS users, requests, items, comments, bookings;
+DROP TABLE IF EXISTS users, requests, items, comments, bookings, bookings_archive, booking_waitlist, owner_item_view, outbox_events, scheduler_locks;
 
 CREATE TABLE IF NOT EXISTS users
 (
-    user_id   BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-    user_name VARCHAR(255)                            NOT NULL,
-    email     VARCHAR(255)                            NOT NULL,
+    user_id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    user_name       VARCHAR(255)                            NOT NULL,
+    email           VARCHAR(255)                            NOT NULL,
+    history_version BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pk_user PRIMARY KEY (user_id),
     CONSTRAINT uq_user_email UNIQUE (email)
 );
@@ -27,6 +28,7 @@ CREATE TABLE IF NOT EXISTS items
     is_available BOOLEAN                                 NOT NULL,
     owner_id     BIGINT,
     request_id   BIGINT,
+    version      BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pk_item PRIMARY KEY (item_id),
     CONSTRAINT fk_item_owner FOREIGN KEY (owner_id) REFERENCES users (user_id) ON DELETE CASCADE,
     CONSTRAINT fk_item_request FOREIGN KEY (request_id) REFERENCES requests (request_id) ON DELETE CASCADE
@@ -34,17 +36,70 @@ CREATE TABLE IF NOT EXISTS items
 
 CREATE TABLE IF NOT EXISTS bookings
 (
-    booking_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-    start_date TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
-    end_date   TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
-    item_id    BIGINT                                  NOT NULL,
-    booker_id  BIGINT                                  NOT NULL,
-    status     VARCHAR(25)                             NOT NULL,
+    booking_id       BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    start_date       TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    end_date         TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    item_id          BIGINT                                  NOT NULL,
+    booker_id        BIGINT                                  NOT NULL,
+    owner_id         BIGINT                                  NOT NULL,
+    status           VARCHAR(25)                             NOT NULL,
+    phase            VARCHAR(10)                             NOT NULL,
+    recurrence       VARCHAR(10),
+    recurrence_until TIMESTAMP WITHOUT TIME ZONE,
+    series_end       TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    updated          TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    version          BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pk_booking PRIMARY KEY (booking_id),
     CONSTRAINT fk_booking_item FOREIGN KEY (item_id) REFERENCES items (item_id) ON DELETE CASCADE,
-    CONSTRAINT fk_booking_booker FOREIGN KEY (booker_id) REFERENCES users (user_id) ON DELETE CASCADE
+    CONSTRAINT fk_booking_booker FOREIGN KEY (booker_id) REFERENCES users (user_id) ON DELETE CASCADE,
+    CONSTRAINT fk_booking_owner FOREIGN KEY (owner_id) REFERENCES users (user_id) ON DELETE CASCADE
 );
 
+CREATE INDEX IF NOT EXISTS idx_booking_owner_start ON bookings (owner_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS idx_booking_owner_phase ON bookings (owner_id, phase, start_date DESC);
+CREATE INDEX IF NOT EXISTS idx_booking_booker_phase ON bookings (booker_id, phase, start_date DESC);
+CREATE INDEX IF NOT EXISTS idx_booking_phase_start ON bookings (phase, start_date);
+CREATE INDEX IF NOT EXISTS idx_booking_phase_end ON bookings (phase, end_date);
+CREATE INDEX IF NOT EXISTS idx_booking_phase_series_end ON bookings (phase, series_end);
+CREATE INDEX IF NOT EXISTS idx_booking_status_id ON bookings (status, booking_id);
+
+CREATE TABLE IF NOT EXISTS bookings_archive
+(
+    booking_id  BIGINT                      NOT NULL,
+    start_date  TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date    TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id     BIGINT                      NOT NULL,
+    booker_id   BIGINT                      NOT NULL,
+    owner_id    BIGINT                      NOT NULL,
+    status      VARCHAR(25)                 NOT NULL,
+    version     BIGINT                      NOT NULL,
+    archived_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_booking_archive PRIMARY KEY (booking_id),
+    CONSTRAINT fk_booking_archive_item FOREIGN KEY (item_id) REFERENCES items (item_id) ON DELETE CASCADE,
+    CONSTRAINT fk_booking_archive_booker FOREIGN KEY (booker_id) REFERENCES users (user_id) ON DELETE CASCADE,
+    CONSTRAINT fk_booking_archive_owner FOREIGN KEY (owner_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_archive_booker_start ON bookings_archive (booker_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS idx_booking_archive_owner_start ON bookings_archive (owner_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS idx_booking_archive_item_start ON bookings_archive (item_id, start_date DESC);
+
+CREATE TABLE IF NOT EXISTS booking_waitlist
+(
+    waitlist_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    item_id     BIGINT                                  NOT NULL,
+    user_id     BIGINT                                  NOT NULL,
+    start_date  TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    end_date    TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    created     TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    CONSTRAINT pk_booking_waitlist PRIMARY KEY (waitlist_id),
+    CONSTRAINT fk_booking_waitlist_item FOREIGN KEY (item_id) REFERENCES items (item_id) ON DELETE CASCADE,
+    CONSTRAINT fk_booking_waitlist_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE,
+    CONSTRAINT uq_booking_waitlist_entry UNIQUE (item_id, user_id, start_date, end_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_waitlist_item ON booking_waitlist (item_id, waitlist_id);
+
 CREATE TABLE IF NOT EXISTS comments
 (
     comment_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -55,4 +110,54 @@ CREATE TABLE IF NOT EXISTS comments
     CONSTRAINT pk_comment PRIMARY KEY (comment_id),
     CONSTRAINT fk_comment_item FOREIGN KEY (item_id) REFERENCES items (item_id) ON DELETE CASCADE,
     CONSTRAINT fk_comment_author FOREIGN KEY (author_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_comment_item_created ON comments (item_id, created DESC, comment_id DESC);
+
+CREATE TABLE IF NOT EXISTS owner_item_view
+(
+    item_id            BIGINT                      NOT NULL,
+    owner_id           BIGINT                      NOT NULL,
+    item_name          VARCHAR(255)                NOT NULL,
+    description        VARCHAR(512)                NOT NULL,
+    is_available       BOOLEAN                     NOT NULL,
+    request_id         BIGINT,
+    last_booking_id    BIGINT,
+    last_booker_id     BIGINT,
+    last_booking_start TIMESTAMP WITHOUT TIME ZONE,
+    last_booking_end   TIMESTAMP WITHOUT TIME ZONE,
+    next_booking_id    BIGINT,
+    next_booker_id     BIGINT,
+    next_booking_start TIMESTAMP WITHOUT TIME ZONE,
+    next_booking_end   TIMESTAMP WITHOUT TIME ZONE,
+    comment_count      INT DEFAULT 0               NOT NULL,
+    latest_comments    TEXT                        NOT NULL,
+    CONSTRAINT pk_owner_item_view PRIMARY KEY (item_id),
+    CONSTRAINT fk_owner_item_view_item FOREIGN KEY (item_id) REFERENCES items (item_id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_owner_item_view_owner ON owner_item_view (owner_id, item_id);
+
+CREATE TABLE IF NOT EXISTS outbox_events
+(
+    event_id       BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    aggregate_type VARCHAR(20)                             NOT NULL,
+    aggregate_id   BIGINT                                  NOT NULL,
+    event_type     VARCHAR(40)                             NOT NULL,
+    payload        VARCHAR(8192)                           NOT NULL,
+    created        TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    dispatched     TIMESTAMP WITHOUT TIME ZONE,
+    attempts       INT DEFAULT 0                           NOT NULL,
+    last_error     VARCHAR(512),
+    CONSTRAINT pk_outbox_event PRIMARY KEY (event_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_event_dispatched ON outbox_events (dispatched, event_id);
+
+CREATE TABLE IF NOT EXISTS scheduler_locks
+(
+    lock_name    VARCHAR(64)                 NOT NULL,
+    locked_until TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    locked_by    VARCHAR(64)                 NOT NULL,
+    CONSTRAINT pk_scheduler_lock PRIMARY KEY (lock_name)
 )
\ No newline at end of file
@@ -0,0 +1,178 @@
+package ru.practicum.shareit;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {"db.name=testOpenInView"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OpenInViewIntegrationTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Value("${spring.jpa.open-in-view}")
+    private boolean openInView;
+
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private long requestId;
+    private long bookingId;
+
+    @BeforeAll
+    void setup() {
+        ownerId = createUser("owner");
+        bookerId = createUser("booker");
+        requestId = itemRequestService.createRequest(ItemRequestDto.builder()
+                .requestorId(bookerId)
+                .description("Need a drill")
+                .build()).getId();
+        itemId = itemService.createItem(ItemDto.builder()
+                .ownerId(ownerId)
+                .available(true)
+                .name("Drill")
+                .description("Cordless drill")
+                .requestId(requestId)
+                .build()).getId();
+        bookingId = bookingService.createBooking(BookingDto.builder()
+                .bookerId(bookerId)
+                .itemId(itemId)
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .build()).getId();
+        bookingService.updateBooking(BookingDto.builder()
+                .id(bookingId)
+                .bookerId(ownerId)
+                .approved(true)
+                .build());
+        itemService.createComment(itemId, bookerId, CommentDto.builder()
+                .text("Works well")
+                .build());
+    }
+
+    @Test
+    void openInView_isDisabled() {
+        assertFalse(openInView);
+    }
+
+    @Test
+    @SneakyThrows
+    void getItemById_mapsCommentsAndBookings() {
+        mockMvc.perform(get("/items/{itemId}", itemId)
+                        .header(USER_ID_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].authorName", is("booker")))
+                .andExpect(jsonPath("$.lastBooking.bookerId", is((int) bookerId)));
+    }
+
+    @Test
+    @SneakyThrows
+    void getItemComments_mapsAuthors() {
+        mockMvc.perform(get("/items/{itemId}/comments", itemId)
+                        .header(USER_ID_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].authorName", is("booker")));
+    }
+
+    @Test
+    @SneakyThrows
+    void getAllItemsByUserId_mapsOwnerItems() {
+        mockMvc.perform(get("/items")
+                        .header(USER_ID_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].requestId", is((int) requestId)))
+                .andExpect(jsonPath("$[0].comments[0].authorName", is("booker")));
+    }
+
+    @Test
+    @SneakyThrows
+    void searchItemsByText_mapsItems() {
+        mockMvc.perform(get("/items/search")
+                        .param("text", "drill"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("Drill")))
+                .andExpect(jsonPath("$[0].requestId", is((int) requestId)));
+    }
+
+    @Test
+    @SneakyThrows
+    void getBookings_mapItemsAndBookers() {
+        mockMvc.perform(get("/bookings/{bookingId}", bookingId)
+                        .header(USER_ID_HEADER, bookerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.item.name", is("Drill")))
+                .andExpect(jsonPath("$.booker.name", is("booker")));
+        mockMvc.perform(get("/bookings")
+                        .header(USER_ID_HEADER, bookerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].item.requestId", is((int) requestId)));
+        mockMvc.perform(get("/bookings/owner")
+                        .header(USER_ID_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booker.id", is((int) bookerId)));
+    }
+
+    @Test
+    @SneakyThrows
+    void getRequests_mapRequestorsAndItems() {
+        mockMvc.perform(get("/requests/{requestId}", requestId)
+                        .header(USER_ID_HEADER, bookerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name", is("Drill")));
+        mockMvc.perform(get("/requests")
+                        .header(USER_ID_HEADER, bookerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].items[0].name", is("Drill")));
+        mockMvc.perform(get("/requests/all")
+                        .header(USER_ID_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].items[0].requestId", is((int) requestId)));
+    }
+
+    private long createUser(String name) {
+        return userService.createUser(UserDto.builder()
+                .name(name)
+                .email(name + "@mail.net")
+                .build()).getId();
+    }
+}
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingArchiveJob;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.scheduler.SchedulerLockService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+@TestPropertySource(properties = {"db.name=testBookingArchive"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingArchiveIntegrationTest {
+    private final Pageable firstPage = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start"));
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SchedulerLockService schedulerLockService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private List<Long> bookingIds;
+
+    @BeforeAll
+    void setup() {
+        ownerId = userService.createUser(UserDto.builder()
+                .name("Owner")
+                .email("owner@mail.net")
+                .build()).getId();
+        bookerId = userService.createUser(UserDto.builder()
+                .name("Booker")
+                .email("booker@mail.net")
+                .build()).getId();
+        itemId = itemService.createItem(ItemDto.builder()
+                .ownerId(ownerId)
+                .available(true)
+                .name("Item")
+                .description("Item description")
+                .build()).getId();
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        bookingIds = List.of(
+                createApprovedBooking(now.minusDays(30), now.minusDays(29)),
+                createApprovedBooking(now.minusDays(20), now.minusDays(19)),
+                createApprovedBooking(now.minusDays(10), now.minusHours(1)),
+                createApprovedBooking(now.plusDays(1), now.plusDays(2)));
+
+        new BookingArchiveJob(bookingRepository, archivedBookingRepository, userRepository, schedulerLockService,
+                transactionTemplate, new SimpleMeterRegistry(), Duration.ofDays(1), 1, Duration.ofMinutes(5))
+                .archiveBookings();
+    }
+
+    @Test
+    void archiveBookings_movesOnlyBookingsOlderThanRetention() {
+        assertEquals(2, archivedBookingRepository.count());
+        assertEquals(2, bookingRepository.count());
+    }
+
+    @Test
+    void getAllBookingByUserId_mergesBothTiersInStartOrder() {
+        List<Long> past = bookingService.getAllBookingByUserId(bookerId, BookingState.PAST.name(),
+                        PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start"))).stream()
+                .map(BookingDto::getId)
+                .collect(Collectors.toList());
+        List<Long> secondPage = bookingService.getAllBookingByOwnerId(ownerId, BookingState.ALL.name(),
+                        PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "start"))).stream()
+                .map(BookingDto::getId)
+                .collect(Collectors.toList());
+        List<Long> future = bookingService.getAllBookingByUserId(bookerId, BookingState.FUTURE.name(), firstPage)
+                .stream()
+                .map(BookingDto::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(bookingIds.get(2), bookingIds.get(1), bookingIds.get(0)), past);
+        assertEquals(List.of(bookingIds.get(1), bookingIds.get(0)), secondPage);
+        assertEquals(List.of(bookingIds.get(3)), future);
+    }
+
+    @Test
+    void getBookingById_findsArchivedBooking() {
+        BookingDto booking = bookingService.getBookingById(bookerId, bookingIds.get(0));
+
+        assertEquals(BookingStatus.APPROVED, booking.getStatus());
+        assertEquals(itemId, booking.getItem().getId());
+    }
+
+    @Test
+    void getBookingSummaryByUserId_countsArchivedBookings() {
+        BookingSummaryDto summary = bookingService.getBookingSummaryByUserId(bookerId);
+
+        assertEquals(4, summary.getAll());
+        assertEquals(3, summary.getPast());
+        assertEquals(1, summary.getFuture());
+    }
+
+    @Test
+    void createComment_acceptsArchivedBooking() {
+        CommentDto comment = itemService.createComment(itemId, bookerId, CommentDto.builder()
+                .text("Comment")
+                .build());
+
+        assertNotNull(comment.getId());
+    }
+
+    private long createApprovedBooking(LocalDateTime start, LocalDateTime end) {
+        long bookingId = bookingService.createBooking(BookingDto.builder()
+                .bookerId(bookerId)
+                .itemId(itemId)
+                .start(start)
+                .end(end)
+                .build()).getId();
+        bookingService.updateBooking(BookingDto.builder()
+                .id(bookingId)
+                .bookerId(ownerId)
+                .approved(true)
+                .build());
+        return bookingId;
+    }
+}
@@ -14,26 +14,54 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
+import ru.practicum.shareit.booking.dto.BookingBulkUpdateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingHoldDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingExportFormat;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingAwaitService;
+import ru.practicum.shareit.booking.service.BookingExportService;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingStreamService;
+import ru.practicum.shareit.exception.controller.ErrorHandler;
+import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,6 +74,18 @@ class BookingControllerTest {
     @Mock
     private BookingService bookingService;
 
+    @Mock
+    private BookingAwaitService bookingAwaitService;
+
+    @Mock
+    private BookingStreamService bookingStreamService;
+
+    @Mock
+    private BookingExportService bookingExportService;
+
+    @Mock
+    private UserRepository userRepository;
+
     @InjectMocks
     private BookingController bookingController;
 
@@ -85,6 +125,68 @@ class BookingControllerTest {
         verifyNoInteractions(bookingService);
     }
 
+    @Test
+    void createBookings_shouldRespondWithOk_ifBookingsAreValid() throws Exception {
+        long userId = 1L;
+        when(bookingService.createBookings(eq(userId), anyList(), eq(false))).thenReturn(new ArrayList<>());
+
+        String json = objectMapper.writeValueAsString(new BookingBatchDto(List.of(bookingDto(), bookingDto())));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header(BookingController.USER_ID_HEADER, userId)
+                        .param("atomic", "false")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk());
+
+        verify(bookingService, times(1)).createBookings(eq(userId), anyList(), eq(false));
+    }
+
+    @Test
+    void createBookings_shouldRespondWithBadRequest_ifAnyBookingIsInvalid() throws Exception {
+        String json = objectMapper.writeValueAsString(new BookingBatchDto(List.of(bookingDto(),
+                bookingDto(b -> b.setItemId(null)))));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header(BookingController.USER_ID_HEADER, 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void createHold_shouldRespondWithOk_ifHoldIsValid() throws Exception {
+        when(bookingService.createHold(eq(1L), any(BookingHoldDto.class), eq(Duration.ofMinutes(5))))
+                .thenReturn(BookingHoldDto.builder().id("hold").build());
+        BookingDto booking = bookingDto();
+        String json = objectMapper.writeValueAsString(BookingHoldDto.builder()
+                .itemId(booking.getItemId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build());
+
+        mockMvc.perform(post("/bookings/hold")
+                        .header(BookingController.USER_ID_HEADER, 1)
+                        .param("ttl", "5")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("hold"));
+    }
+
+    @Test
+    void confirmHold_shouldRespondWithOk() throws Exception {
+        when(bookingService.confirmHold(1L, "hold")).thenReturn(new BookingDto());
+
+        mockMvc.perform(post("/bookings/hold/hold/confirm")
+                        .header(BookingController.USER_ID_HEADER, 1))
+                .andExpect(status().isOk());
+
+        verify(bookingService, times(1)).confirmHold(1L, "hold");
+    }
+
     @Test
     void updateBooking_shouldRespondWithOk() throws Exception {
         long bookingId = 2L;
@@ -101,6 +203,40 @@ class BookingControllerTest {
         verify(bookingService, times(1)).updateBooking(any(BookingDto.class));
     }
 
+    @Test
+    void updateBookings_shouldRespondWithOk() throws Exception {
+        long userId = 2L;
+        BookingBulkUpdateDto bulkUpdateDto = BookingBulkUpdateDto.builder()
+                .bookingIds(List.of(1L, 2L))
+                .approved(true)
+                .build();
+        when(bookingService.updateBookings(eq(userId), any(BookingBulkUpdateDto.class))).thenReturn(new ArrayList<>());
+
+        mockMvc.perform(patch("/bookings/bulk")
+                        .header(BookingController.USER_ID_HEADER, userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bulkUpdateDto)))
+                .andExpect(status().isOk());
+
+        verify(bookingService, times(1)).updateBookings(eq(userId), any(BookingBulkUpdateDto.class));
+    }
+
+    @Test
+    void updateBookings_shouldRespondWithBadRequest_whenBookingIdsEmpty() throws Exception {
+        BookingBulkUpdateDto bulkUpdateDto = BookingBulkUpdateDto.builder()
+                .bookingIds(List.of())
+                .approved(true)
+                .build();
+
+        mockMvc.perform(patch("/bookings/bulk")
+                        .header(BookingController.USER_ID_HEADER, 2L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bulkUpdateDto)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService);
+    }
+
     @Test
     void getBookingById_shouldRespondWithOk() throws Exception {
         long bookingId = 3L;
@@ -187,6 +323,120 @@ class BookingControllerTest {
                 any(Pageable.class));
     }
 
+    @Test
+    void getBookingSummaryByOwnerId_shouldRespondWithOk() throws Exception {
+        when(bookingService.getBookingSummaryByOwnerId(1L)).thenReturn(BookingSummaryDto.builder().all(1).build());
+
+        mockMvc.perform(get("/bookings/owner/summary")
+                        .header(BookingController.USER_ID_HEADER, 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all").value(1));
+
+        verify(bookingService, times(1)).getBookingSummaryByOwnerId(1L);
+    }
+
+    @Test
+    void streamOwnerBookings_shouldSendEventsOfOwnerOnly() throws Exception {
+        BookingStreamService streamService = new BookingStreamService(userRepository, Duration.ofMinutes(1), 2, 1);
+        try {
+            when(userRepository.existsById(1L)).thenReturn(true);
+            MockMvc streamMockMvc = MockMvcBuilders
+                    .standaloneSetup(new BookingController(bookingService, streamService, bookingAwaitService,
+                            bookingExportService))
+                    .build();
+
+            MvcResult result = streamMockMvc.perform(get("/bookings/owner/stream")
+                            .header(BookingController.USER_ID_HEADER, 1))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            streamService.onBookingEvent(createdEvent(2L, 10L));
+            streamService.onBookingEvent(createdEvent(1L, 11L));
+
+            String content = awaitContent(result, "\"id\":11");
+            assertTrue(content.contains("event:CREATED"));
+            assertFalse(content.contains("\"id\":10"));
+        } finally {
+            streamService.shutdown();
+        }
+    }
+
+    @Test
+    void getBookingSummaryByUserId_shouldRespondWithOk() throws Exception {
+        when(bookingService.getBookingSummaryByUserId(1L)).thenReturn(new BookingSummaryDto());
+
+        mockMvc.perform(get("/bookings/summary")
+                        .header(BookingController.USER_ID_HEADER, 1))
+                .andExpect(status().isOk());
+
+        verify(bookingService, times(1)).getBookingSummaryByUserId(1L);
+    }
+
+    @Test
+    void exportOwnerBookings_shouldStreamCsv() throws Exception {
+        when(bookingExportService.getTimeout()).thenReturn(Duration.ofHours(1));
+        when(bookingExportService.exportByOwnerId(1L, BookingExportFormat.CSV))
+                .thenReturn(out -> out.write("id\n1\n".getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header(BookingController.USER_ID_HEADER, 1)
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(Duration.ofHours(1).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"bookings.csv\""))
+                .andExpect(content().string("id\n1\n"));
+    }
+
+    @Test
+    void exportOwnerBookings_shouldRespondWithBadRequest_whenFormatIsIcs() throws Exception {
+        MockMvc adviceMockMvc = MockMvcBuilders.standaloneSetup(bookingController)
+                .setControllerAdvice(new ErrorHandler())
+                .build();
+
+        adviceMockMvc.perform(get("/bookings/owner/export")
+                        .header(BookingController.USER_ID_HEADER, 1)
+                        .param("format", "ics"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingExportService);
+    }
+
+    @Test
+    void getOwnerCalendar_shouldRespondWithNotModified_whenTagMatches() throws Exception {
+        when(bookingExportService.getHistoryTag(1L)).thenReturn("\"1-100\"");
+
+        mockMvc.perform(get("/bookings/owner/calendar.ics")
+                        .header(BookingController.USER_ID_HEADER, 1)
+                        .header("If-None-Match", "\"1-99\", \"1-100\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-100\""));
+
+        verify(bookingExportService, never()).exportByOwnerId(anyLong(), any());
+    }
+
+    @Test
+    void getOwnerCalendar_shouldStreamCalendar_whenTagChanged() throws Exception {
+        when(bookingExportService.getTimeout()).thenReturn(Duration.ofHours(1));
+        when(bookingExportService.getHistoryTag(1L)).thenReturn("\"1-100\"");
+        when(bookingExportService.exportByOwnerId(1L, BookingExportFormat.ICS))
+                .thenReturn(out -> out.write("BEGIN:VCALENDAR\r\n".getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/calendar.ics")
+                        .header(BookingController.USER_ID_HEADER, 1)
+                        .header("If-None-Match", "\"1-99\""))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-100\""))
+                .andExpect(header().string("Content-Type", "text/calendar"))
+                .andExpect(content().string("BEGIN:VCALENDAR\r\n"));
+    }
 
     private static Stream<Arguments> provideInvalidBooking() {
         return Stream.of(
@@ -213,4 +463,21 @@ class BookingControllerTest {
         consumer.accept(bookingDto);
         return bookingDto;
     }
-}
\ No newline at end of file
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    private static BookingEvent createdEvent(long ownerId, long bookingId) {
+        return new BookingEvent(BookingEventType.CREATED, ownerId, BookingDto.builder()
+                .id(bookingId)
+                .status(BookingStatus.WAITING)
+                .build());
+    }
+}
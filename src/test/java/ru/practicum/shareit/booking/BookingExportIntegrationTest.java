@@ -0,0 +1,225 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingExportFormat;
+import ru.practicum.shareit.booking.model.BookingRecurrence;
+import ru.practicum.shareit.booking.service.BookingExportService;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource(properties = {"db.name=testBookingExport", "shareit.booking-export.chunk-size=2"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingExportIntegrationTest {
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long ownerId;
+    private long bookerId;
+    private final List<Long> bookingIds = new ArrayList<>();
+
+    @BeforeAll
+    void setup() {
+        ownerId = userService.createUser(UserDto.builder()
+                .name("Owner")
+                .email("owner@mail.net")
+                .build()).getId();
+        bookerId = userService.createUser(UserDto.builder()
+                .name("Booker")
+                .email("booker@mail.net")
+                .build()).getId();
+        long itemId = itemService.createItem(ItemDto.builder()
+                .ownerId(ownerId)
+                .available(true)
+                .name("Drill, \"cordless\"")
+                .description("Item description")
+                .build()).getId();
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        for (int i = 1; i <= 5; i++) {
+            bookingIds.add(bookingService.createBooking(BookingDto.builder()
+                    .bookerId(bookerId)
+                    .itemId(itemId)
+                    .start(now.plusDays(i))
+                    .end(now.plusDays(i).plusHours(1))
+                    .build()).getId());
+        }
+    }
+
+    @Test
+    void exportByOwnerId_writesNdjsonNewestFirst() throws IOException {
+        String[] lines = export(ownerId, BookingExportFormat.NDJSON).split("\n");
+
+        assertEquals(5, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode booking = objectMapper.readTree(lines[i]);
+            assertEquals(bookingIds.get(4 - i), booking.get("id").asLong());
+            assertEquals(bookerId, booking.get("booker").get("id").asLong());
+        }
+    }
+
+    @Test
+    void exportByOwnerId_writesCsvWithEscapedFields() throws IOException {
+        String[] lines = export(ownerId, BookingExportFormat.CSV).split("\n");
+
+        assertEquals(6, lines.length);
+        assertEquals("id,start,end,status,itemId,itemName,bookerId,bookerName,recurrence,recurrenceUntil", lines[0]);
+        assertEquals(bookingIds.get(4) + ",", lines[1].substring(0, lines[1].indexOf(',') + 1));
+        assertEquals(",\"Drill, \"\"cordless\"\"\"," + bookerId + ",Booker,,",
+                lines[1].substring(lines[1].indexOf(",\"")));
+    }
+
+    @Test
+    void exportByOwnerId_writesRecurrenceToCsv() throws IOException {
+        long seriesOwnerId = userService.createUser(UserDto.builder()
+                .name("Series owner")
+                .email("series-owner@mail.net")
+                .build()).getId();
+        long itemId = itemService.createItem(ItemDto.builder()
+                .ownerId(seriesOwnerId)
+                .available(true)
+                .name("Ladder")
+                .description("Item description")
+                .build()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        bookingService.createBooking(BookingDto.builder()
+                .bookerId(bookerId)
+                .itemId(itemId)
+                .start(start)
+                .end(start.plusHours(1))
+                .recurrence(BookingRecurrence.WEEKLY)
+                .recurrenceUntil(start.plusWeeks(4))
+                .build());
+
+        String[] lines = export(seriesOwnerId, BookingExportFormat.CSV).split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].endsWith(",WEEKLY," + start.plusWeeks(4)));
+    }
+
+    @Test
+    void exportByOwnerId_writesIcsCalendar() throws IOException {
+        String calendar = export(ownerId, BookingExportFormat.ICS);
+
+        assertTrue(calendar.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"));
+        assertTrue(calendar.endsWith("END:VCALENDAR\r\n"));
+        assertEquals(5, calendar.split("BEGIN:VEVENT\r\n", -1).length - 1);
+        assertTrue(calendar.contains("UID:booking-" + bookingIds.get(4) + "@shareit\r\n"));
+        assertTrue(calendar.contains("SUMMARY:Drill\\, \"cordless\"\r\n"));
+        assertTrue(calendar.contains("STATUS:TENTATIVE\r\n"));
+    }
+
+    @Test
+    void getHistoryTag_changesWhenBookingChanges() {
+        String tag = bookingExportService.getHistoryTag(ownerId);
+
+        bookingService.updateBooking(BookingDto.builder()
+                .id(bookingIds.get(0))
+                .bookerId(ownerId)
+                .approved(true)
+                .build());
+
+        assertNotNull(tag);
+        assertNotEquals(tag, bookingExportService.getHistoryTag(ownerId));
+        assertNotNull(bookingExportService.getHistoryTag(bookerId));
+        assertThrows(NotFoundException.class, () -> bookingExportService.getHistoryTag(100L));
+    }
+
+    @Test
+    void getHistoryTag_changesWhenItemOrBookerChanges() {
+        long tagOwnerId = userService.createUser(UserDto.builder()
+                .name("Tag owner")
+                .email("tag-owner@mail.net")
+                .build()).getId();
+        long tagBookerId = userService.createUser(UserDto.builder()
+                .name("Tag booker")
+                .email("tag-booker@mail.net")
+                .build()).getId();
+        long itemId = itemService.createItem(ItemDto.builder()
+                .ownerId(tagOwnerId)
+                .available(true)
+                .name("Saw")
+                .description("Item description")
+                .build()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingService.createBooking(BookingDto.builder()
+                .bookerId(tagBookerId)
+                .itemId(itemId)
+                .start(start)
+                .end(start.plusHours(1))
+                .build());
+        String created = bookingExportService.getHistoryTag(tagOwnerId);
+
+        itemService.updateItem(ItemDto.builder()
+                .id(itemId)
+                .ownerId(tagOwnerId)
+                .name("Hand saw")
+                .build());
+        String itemRenamed = bookingExportService.getHistoryTag(tagOwnerId);
+        userService.updateUser(UserDto.builder()
+                .id(tagBookerId)
+                .name("Renamed booker")
+                .build());
+        String bookerRenamed = bookingExportService.getHistoryTag(tagOwnerId);
+        userService.deleteUser(tagBookerId);
+        String bookerDeleted = bookingExportService.getHistoryTag(tagOwnerId);
+
+        assertNotEquals(created, itemRenamed);
+        assertNotEquals(itemRenamed, bookerRenamed);
+        assertNotEquals(bookerRenamed, bookerDeleted);
+        assertEquals(bookerDeleted, bookingExportService.getHistoryTag(tagOwnerId));
+    }
+
+    @Test
+    void exportByOwnerId_writesNothing_whenOwnerHasNoBookings() throws IOException {
+        assertEquals("", export(bookerId, BookingExportFormat.NDJSON));
+    }
+
+    @Test
+    void exportByOwnerId_throwsNotFound_whenOwnerIsNotExist() {
+        assertThrows(NotFoundException.class,
+                () -> bookingExportService.exportByOwnerId(100L, BookingExportFormat.CSV));
+    }
+
+    private String export(long ownerId, BookingExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookingExportService.exportByOwnerId(ownerId, format).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
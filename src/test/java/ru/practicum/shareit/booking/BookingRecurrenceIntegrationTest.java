@@ -0,0 +1,99 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingRecurrence;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.validation.ValidationException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@TestPropertySource(properties = {"db.name=testBookingRecurrence"})
+class BookingRecurrenceIntegrationTest {
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void createBooking_storesRuleOnceAndExpandsOccurrences() {
+        long ownerId = createUser("owner");
+        long bookerId = createUser("booker");
+        long otherId = createUser("other");
+        long itemId = itemService.createItem(ItemDto.builder()
+                .ownerId(ownerId)
+                .available(true)
+                .name("Item")
+                .description("Item description")
+                .build()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        long bookingId = bookingService.createBooking(BookingDto.builder()
+                .bookerId(bookerId)
+                .itemId(itemId)
+                .start(start)
+                .end(start.plusHours(2))
+                .recurrence(BookingRecurrence.WEEKLY)
+                .recurrenceUntil(start.plusWeeks(9))
+                .build()).getId();
+        bookingService.updateBooking(BookingDto.builder()
+                .id(bookingId)
+                .bookerId(ownerId)
+                .approved(true)
+                .build());
+
+        assertEquals(1, bookingRepository.count());
+        assertEquals(start.plusWeeks(9).plusHours(2), bookingRepository.findById(bookingId)
+                .orElseThrow().getSeriesEnd());
+        List<BookingDto> future = bookingService.getAllBookingByOwnerId(ownerId, BookingState.FUTURE.name(),
+                PageRequest.of(1, 3, Sort.by(Sort.Direction.DESC, "start")));
+        assertEquals(3, future.size());
+        assertEquals(bookingId, future.get(0).getId());
+        assertEquals(start.plusWeeks(6), future.get(0).getStart());
+        assertEquals(start.plusWeeks(4), future.get(2).getStart());
+        assertEquals(10, bookingService.getAllBookingByUserId(bookerId, BookingState.ALL.name(),
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "start"))).size());
+
+        List<BookingDto> overlapping = List.of(BookingDto.builder()
+                .itemId(itemId)
+                .start(start.plusWeeks(4).plusHours(1))
+                .end(start.plusWeeks(4).plusHours(3))
+                .build());
+        assertThrows(ValidationException.class, () -> bookingService.createBookings(otherId, overlapping, true));
+        assertNotNull(bookingService.createBookings(otherId, List.of(BookingDto.builder()
+                .itemId(itemId)
+                .start(start.plusWeeks(4).plusDays(1))
+                .end(start.plusWeeks(4).plusDays(2))
+                .build()), true).get(0).getBooking());
+    }
+
+    private long createUser(String name) {
+        return userService.createUser(UserDto.builder()
+                .name(name)
+                .email(name + "@mail.net")
+                .build()).getId();
+    }
+}
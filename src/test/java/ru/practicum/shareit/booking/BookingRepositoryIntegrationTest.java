@@ -5,11 +5,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingPeriodView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSummaryView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -18,6 +24,9 @@ class BookingRepositoryIntegrationTest {
     @Autowired
     private TestEntityManager entityManager;
 
+    @Autowired
+    private BookingRepository bookingRepository;
+
     @Test
     void saveBooking() {
         User owner = User.builder()
@@ -45,6 +54,7 @@ class BookingRepositoryIntegrationTest {
                 .end(LocalDateTime.now().plusHours(1))
                 .item(item)
                 .booker(booker)
+                .ownerId(owner.getId())
                 .status(BookingStatus.WAITING)
                 .build();
         entityManager.persist(booking);
@@ -54,6 +64,99 @@ class BookingRepositoryIntegrationTest {
         assertThat(booking.getEnd()).isNotNull();
         assertThat(booking.getItem().getId()).isEqualTo(item.getId());
         assertThat(booking.getBooker().getId()).isEqualTo(booker.getId());
+        assertThat(booking.getOwnerId()).isEqualTo(owner.getId());
         assertThat(booking.getStatus()).isEqualTo(BookingStatus.WAITING);
+        assertThat(booking.getPhase()).isEqualTo(BookingPhase.CURRENT);
+    }
+
+    @Test
+    void summarizeByOwnerIdAndBookerId() {
+        User owner = entityManager.persist(User.builder()
+                .name("owner")
+                .email("owner@example.com")
+                .build());
+        User booker = entityManager.persist(User.builder()
+                .name("booker")
+                .email("booker@example.com")
+                .build());
+        Item item = entityManager.persist(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        persistBooking(item, booker, now.minusDays(2), now.minusDays(1), BookingStatus.APPROVED);
+        persistBooking(item, booker, now.minusHours(1), now.plusHours(1), BookingStatus.APPROVED);
+        persistBooking(item, booker, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+        persistBooking(item, booker, now.plusDays(3), now.plusDays(4), BookingStatus.REJECTED);
+
+        BookingSummaryView ownerSummary = bookingRepository.summarizeByOwnerId(owner.getId(), BookingPhase.CURRENT,
+                BookingPhase.PAST, BookingPhase.FUTURE, BookingStatus.WAITING, BookingStatus.REJECTED);
+        BookingSummaryView bookerSummary = bookingRepository.summarizeByBookerId(booker.getId(), BookingPhase.CURRENT,
+                BookingPhase.PAST, BookingPhase.FUTURE, BookingStatus.WAITING, BookingStatus.REJECTED);
+        BookingSummaryView emptySummary = bookingRepository.summarizeByBookerId(owner.getId(), BookingPhase.CURRENT,
+                BookingPhase.PAST, BookingPhase.FUTURE, BookingStatus.WAITING, BookingStatus.REJECTED);
+
+        for (BookingSummaryView summary : new BookingSummaryView[]{ownerSummary, bookerSummary}) {
+            assertThat(summary.getAllCount()).isEqualTo(4L);
+            assertThat(summary.getPastCount()).isEqualTo(1L);
+            assertThat(summary.getCurrentCount()).isEqualTo(1L);
+            assertThat(summary.getFutureCount()).isEqualTo(2L);
+            assertThat(summary.getWaitingCount()).isEqualTo(1L);
+            assertThat(summary.getRejectedCount()).isEqualTo(1L);
+        }
+        assertThat(emptySummary.getAllCount()).isZero();
+    }
+
+    @Test
+    void updatePhases() {
+        User owner = entityManager.persist(User.builder()
+                .name("owner")
+                .email("owner@example.com")
+                .build());
+        User booker = entityManager.persist(User.builder()
+                .name("booker")
+                .email("booker@example.com")
+                .build());
+        Item item = entityManager.persist(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        Booking started = persistBooking(item, booker, now.plusHours(1), now.plusHours(3), BookingStatus.APPROVED);
+        Booking ended = persistBooking(item, booker, now.plusHours(1), now.plusHours(2), BookingStatus.APPROVED);
+        Booking future = persistBooking(item, booker, now.plusHours(5), now.plusHours(6), BookingStatus.WAITING);
+        entityManager.flush();
+
+        assertThat(bookingRepository.findPeriodsWithTransitionBetween(now.plusMinutes(90), now.plusHours(4)))
+                .extracting(BookingPeriodView::getId)
+                .containsExactlyInAnyOrder(started.getId(), ended.getId());
+        LocalDateTime later = now.plusMinutes(150);
+        assertThat(bookingRepository.updatePhaseStartedBefore(Set.of(BookingPhase.FUTURE), BookingPhase.CURRENT,
+                later)).isEqualTo(2);
+        assertThat(bookingRepository.updatePhaseEndedBefore(Set.of(BookingPhase.FUTURE, BookingPhase.CURRENT),
+                BookingPhase.PAST, later)).isEqualTo(1);
+        assertThat(bookingRepository.updatePhaseIn(List.of(future.getId()), Set.of(BookingPhase.CURRENT),
+                BookingPhase.PAST)).isZero();
+        entityManager.clear();
+
+        assertThat(entityManager.find(Booking.class, started.getId()).getPhase()).isEqualTo(BookingPhase.CURRENT);
+        assertThat(entityManager.find(Booking.class, ended.getId()).getPhase()).isEqualTo(BookingPhase.PAST);
+        assertThat(entityManager.find(Booking.class, future.getId()).getPhase()).isEqualTo(BookingPhase.FUTURE);
+    }
+
+    private Booking persistBooking(Item item, User booker, LocalDateTime start, LocalDateTime end,
+                                   BookingStatus status) {
+        return entityManager.persist(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .ownerId(item.getOwner().getId())
+                .status(status)
+                .build());
     }
 }
\ No newline at end of file
@@ -9,6 +9,9 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.dto.BookingBulkOutcome;
+import ru.practicum.shareit.booking.dto.BookingBulkResultDto;
+import ru.practicum.shareit.booking.dto.BookingBulkUpdateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
@@ -137,18 +140,48 @@ class BookingServiceIntegrationTest {
                 "Expected ValidationException when trying to change a booking not in WAITING status");
     }
 
+    @Test
+    void updateBookings() {
+        BookingDto waiting = bookingService.createBooking(BookingDto.builder()
+                .bookerId(2L)
+                .itemId(4L)
+                .start(LocalDateTime.now().plusDays(1).withNano(0))
+                .end(LocalDateTime.now().plusDays(2).withNano(0))
+                .build());
+        BookingDto rejected = bookingService.createBooking(BookingDto.builder()
+                .bookerId(3L)
+                .itemId(4L)
+                .start(LocalDateTime.now().plusDays(3).withNano(0))
+                .end(LocalDateTime.now().plusDays(4).withNano(0))
+                .build());
+        bookingService.updateBooking(BookingDto.builder().id(rejected.getId()).bookerId(4L).approved(false).build());
+
+        List<BookingBulkResultDto> result = bookingService.updateBookings(4L, BookingBulkUpdateDto.builder()
+                .bookingIds(List.of(waiting.getId(), rejected.getId()))
+                .approved(true)
+                .build());
+
+        assertEquals(List.of(
+                new BookingBulkResultDto(waiting.getId(), BookingBulkOutcome.UPDATED),
+                new BookingBulkResultDto(rejected.getId(), BookingBulkOutcome.NOT_WAITING)), result);
+        assertEquals(BookingStatus.APPROVED, bookingService.getBookingById(4L, waiting.getId()).getStatus(),
+                "Expected waiting booking to be approved by bulk update");
+        assertEquals(BookingStatus.REJECTED, bookingService.getBookingById(4L, rejected.getId()).getStatus(),
+                "Expected rejected booking to keep its status");
+    }
+
     @Test
     void getBookingById() {
         BookingDto bookingDto1 = BookingDto.builder()
                 .bookerId(2L)
-                .itemId(1L)
+                .itemId(3L)
                 .start(LocalDateTime.now().plusMinutes(20).withNano(0))
                 .end(LocalDateTime.now().plusMinutes(40).withNano(0))
                 .build();
 
         BookingDto actual = bookingService.createBooking(bookingDto1);
         long bookingId = actual.getId();
-        long ownerId = 1L;
+        long ownerId = 3L;
         long bookerId = actual.getBooker().getId();
 
         BookingDto byOwner = bookingService.getBookingById(ownerId, bookingId);
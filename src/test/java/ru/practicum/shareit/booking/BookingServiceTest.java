@@ -2,20 +2,43 @@ package ru.practicum.shareit.booking;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.AdditionalAnswers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingBulkOutcome;
+import ru.practicum.shareit.booking.dto.BookingBulkResultDto;
+import ru.practicum.shareit.booking.dto.BookingBulkUpdateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingHoldDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingHold;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.model.BookingRecurrence;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.RecurrenceRule;
+import ru.practicum.shareit.booking.repository.ArchivedBookingSummaryView;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingIntervalView;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSeriesView;
+import ru.practicum.shareit.booking.repository.BookingStatusView;
+import ru.practicum.shareit.booking.repository.BookingSummaryView;
+import ru.practicum.shareit.booking.service.BookingHoldRegistry;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -28,14 +51,23 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import javax.validation.ValidationException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -56,6 +88,15 @@ class BookingServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Mock
+    private BookingHoldRegistry bookingHoldRegistry;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @Spy
     private BookingMapper bookingMapper = new BookingMapper(new ItemMapper(), new UserMapper());
 
@@ -75,7 +116,251 @@ class BookingServiceTest {
 
         bookingService.createBooking(bookingDto);
 
-        verify(bookingRepository, times(1)).save(booking);
+        verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(eventPublisher, times(1)).publishEvent(any(BookingEvent.class));
+    }
+
+    @Test
+    void createBooking_throwsException_whenSlotIsHeldByOtherBooker() {
+        LocalDateTime currentTime = LocalDateTime.now();
+        BookingDto bookingDto = bookingDto(1, currentTime);
+
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item()));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user(1)));
+        when(bookingHoldRegistry.isHeldByOthers(1L, 1L,
+                RecurrenceRule.once(bookingDto.getStart(), bookingDto.getEnd()))).thenReturn(true);
+
+        assertThrows(ValidationException.class, () -> bookingService.createBooking(bookingDto));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void createBooking_throwsException_whenOccurrenceAlreadyBooked() {
+        LocalDateTime currentTime = LocalDateTime.now();
+        BookingDto bookingDto = bookingDto(1, currentTime).toBuilder()
+                .start(currentTime.plusWeeks(3).plusHours(1))
+                .end(currentTime.plusWeeks(3).plusHours(3))
+                .build();
+        BookingIntervalView weekly = interval(currentTime, currentTime.plusHours(2), BookingRecurrence.WEEKLY,
+                currentTime.plusWeeks(10));
+
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item()));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user(1)));
+        when(bookingRepository.findIntervals(anyCollection(), any(BookingStatus.class), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(List.of(weekly));
+
+        assertThrows(ValidationException.class, () -> bookingService.createBooking(bookingDto));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void createHold_addsHold_whenSlotIsFree() {
+        LocalDateTime currentTime = LocalDateTime.now();
+        BookingHoldDto holdDto = BookingHoldDto.builder()
+                .itemId(1L)
+                .start(currentTime.plusHours(1))
+                .end(currentTime.plusHours(2))
+                .build();
+
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item()));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1)));
+        when(bookingRepository.findIntervals(anyCollection(), any(BookingStatus.class), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(List.of());
+
+        BookingHoldDto result = bookingService.createHold(1L, holdDto, Duration.ofMinutes(15));
+
+        assertNotNull(result.getId());
+        assertEquals(holdDto.getStart(), result.getStart());
+        assertTrue(result.getExpiresAt().isAfter(currentTime.plusMinutes(14)));
+        verify(bookingHoldRegistry, times(1)).add(any(BookingHold.class));
+    }
+
+    @Test
+    void confirmHold_createsBookingAndReleasesHold() {
+        LocalDateTime currentTime = LocalDateTime.now();
+        BookingHold hold = hold(1L, currentTime);
+
+        when(bookingHoldRegistry.claim("hold", 1L)).thenReturn(Optional.of(hold));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item()));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1)));
+        when(bookingRepository.save(any(Booking.class))).then(AdditionalAnswers.returnsFirstArg());
+
+        BookingDto result = bookingService.confirmHold(1L, "hold");
+
+        assertEquals(hold.getStart(), result.getStart());
+        assertEquals(BookingStatus.WAITING, result.getStatus());
+        verify(bookingHoldRegistry, times(1)).release("hold");
+    }
+
+    @Test
+    void confirmHold_throwsException_whenHoldIsNotClaimed() {
+        when(bookingHoldRegistry.claim("hold", 1L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> bookingService.confirmHold(1L, "hold"));
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingHoldRegistry, never()).release(any());
+    }
+
+    @Test
+    void confirmHold_restoresHold_whenBookingFails() {
+        BookingHold hold = hold(1L, LocalDateTime.now());
+
+        when(bookingHoldRegistry.claim("hold", 1L)).thenReturn(Optional.of(hold));
+        when(itemRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> bookingService.confirmHold(1L, "hold"));
+        verify(bookingHoldRegistry, times(1)).restore(hold);
+        verify(bookingHoldRegistry, never()).release(any());
+    }
+
+    @Test
+    void createBookings_savesValidBookings_whenNotAtomic() {
+        LocalDateTime currentTime = LocalDateTime.now();
+        BookingDto valid = bookingDto(1, currentTime);
+        BookingDto unknownItem = bookingDto(1, currentTime);
+        unknownItem.setItemId(5L);
+        BookingDto overlapping = bookingDto(1, currentTime);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1)));
+        when(itemRepository.findAllByIdInForUpdate(List.of(1L, 5L))).thenReturn(List.of(item()));
+        when(bookingRepository.findIntervals(anyCollection(), any(BookingStatus.class), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(List.of());
+        when(bookingRepository.saveAll(anyCollection())).then(AdditionalAnswers.returnsFirstArg());
+
+        List<BookingBatchResultDto> result = bookingService.createBookings(1L,
+                List.of(valid, unknownItem, overlapping), false);
+
+        assertEquals(3, result.size());
+        assertNotNull(result.get(0).getBooking());
+        assertEquals(BookingStatus.WAITING, result.get(0).getBooking().getStatus());
+        assertNotNull(result.get(1).getError());
+        assertNotNull(result.get(2).getError());
+        verify(bookingRepository, times(1)).saveAll(anyCollection());
+    }
+
+    @Test
+    void createBookings_throwsException_whenAtomicAndItemAlreadyBooked() {
+        LocalDateTime currentTime = LocalDateTime.now();
+        BookingDto bookingDto = bookingDto(1, currentTime);
+        BookingIntervalView approved = new BookingIntervalView() {
+            @Override
+            public Long getItemId() {
+                return 1L;
+            }
+
+            @Override
+            public LocalDateTime getStartDate() {
+                return currentTime;
+            }
+
+            @Override
+            public LocalDateTime getEndDate() {
+                return currentTime.plusDays(1);
+            }
+
+            @Override
+            public BookingRecurrence getRecurrence() {
+                return null;
+            }
+
+            @Override
+            public LocalDateTime getRecurrenceUntil() {
+                return null;
+            }
+        };
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1)));
+        when(itemRepository.findAllByIdInForUpdate(List.of(1L))).thenReturn(List.of(item()));
+        when(bookingRepository.findIntervals(anyCollection(), any(BookingStatus.class), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(List.of(approved));
+
+        assertThrows(ValidationException.class, () -> bookingService.createBookings(1L, List.of(bookingDto), true));
+        verify(bookingRepository, never()).saveAll(anyCollection());
+    }
+
+    @Test
+    void createBookings_throwsException_whenAtomicAndOccurrenceAlreadyBooked() {
+        LocalDateTime currentTime = LocalDateTime.now();
+        BookingDto bookingDto = bookingDto(1, currentTime).toBuilder()
+                .start(currentTime.plusWeeks(3).plusHours(1))
+                .end(currentTime.plusWeeks(3).plusHours(3))
+                .build();
+        BookingIntervalView weekly = interval(currentTime, currentTime.plusHours(2), BookingRecurrence.WEEKLY,
+                currentTime.plusWeeks(10));
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1)));
+        when(itemRepository.findAllByIdInForUpdate(List.of(1L))).thenReturn(List.of(item()));
+        when(bookingRepository.findIntervals(anyCollection(), any(BookingStatus.class), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(List.of(weekly));
+
+        assertThrows(ValidationException.class, () -> bookingService.createBookings(1L, List.of(bookingDto), true));
+        verify(bookingRepository, never()).saveAll(anyCollection());
+    }
+
+    @Test
+    void createBookings_savesBooking_whenBetweenOccurrences() {
+        LocalDateTime currentTime = LocalDateTime.now();
+        BookingDto bookingDto = bookingDto(1, currentTime).toBuilder()
+                .start(currentTime.plusWeeks(3).plusDays(1))
+                .end(currentTime.plusWeeks(3).plusDays(2))
+                .build();
+        BookingIntervalView weekly = interval(currentTime, currentTime.plusHours(2), BookingRecurrence.WEEKLY,
+                currentTime.plusWeeks(10));
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1)));
+        when(itemRepository.findAllByIdInForUpdate(List.of(1L))).thenReturn(List.of(item()));
+        when(bookingRepository.findIntervals(anyCollection(), any(BookingStatus.class), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(List.of(weekly));
+        when(bookingRepository.saveAll(anyCollection())).then(AdditionalAnswers.returnsFirstArg());
+
+        List<BookingBatchResultDto> result = bookingService.createBookings(1L, List.of(bookingDto), true);
+
+        assertNotNull(result.get(0).getBooking());
+    }
+
+    @Test
+    void createBooking_throwsException_whenRecurringBookingHasNoEndDate() {
+        LocalDateTime currentTime = LocalDateTime.now();
+        BookingDto bookingDto = bookingDto(1, currentTime).toBuilder()
+                .recurrence(BookingRecurrence.WEEKLY)
+                .build();
+
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item()));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user(1)));
+
+        assertThrows(ValidationException.class, () -> bookingService.createBooking(bookingDto));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void createBooking_throwsException_whenRecurringBookingIsLongerThanPeriod() {
+        LocalDateTime currentTime = LocalDateTime.now();
+        BookingDto bookingDto = bookingDto(1, currentTime).toBuilder()
+                .end(currentTime.plusDays(8))
+                .recurrence(BookingRecurrence.WEEKLY)
+                .recurrenceUntil(currentTime.plusWeeks(4))
+                .build();
+
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item()));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user(1)));
+
+        assertThrows(ValidationException.class, () -> bookingService.createBooking(bookingDto));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void createBooking_throwsException_whenRecurringBookingHasTooManyOccurrences() {
+        LocalDateTime currentTime = LocalDateTime.now();
+        BookingDto bookingDto = bookingDto(1, currentTime).toBuilder()
+                .recurrence(BookingRecurrence.WEEKLY)
+                .recurrenceUntil(currentTime.plusYears(20))
+                .build();
+
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item()));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user(1)));
+
+        assertThrows(ValidationException.class, () -> bookingService.createBooking(bookingDto));
+        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
@@ -209,12 +494,30 @@ class BookingServiceTest {
         bookingDto.setStatus(BookingStatus.APPROVED);
         Booking booking = booking(currentTime);
 
+        when(bookingRepository.updateStatus(eq(booking.getId()), eq(bookingDto.getBookerId()),
+                eq(BookingStatus.WAITING), eq(BookingStatus.APPROVED), any(LocalDateTime.class))).thenReturn(1);
         when(bookingRepository.findById(booking(currentTime).getId())).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
         bookingService.updateBooking(bookingDto);
 
-        verify(bookingRepository, times(1)).save(booking);
+        verify(bookingRepository, times(1)).updateStatus(eq(booking.getId()), eq(bookingDto.getBookerId()),
+                eq(BookingStatus.WAITING), eq(BookingStatus.APPROVED), any(LocalDateTime.class));
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(eventPublisher, times(1)).publishEvent(any(BookingEvent.class));
+    }
+
+    @Test
+    void updateBooking_throwsException_whenStatusChangedConcurrently() {
+        LocalDateTime currentTime = LocalDateTime.now();
+        BookingDto bookingDto = bookingDto(2, currentTime);
+
+        when(bookingRepository.updateStatus(anyLong(), anyLong(), any(BookingStatus.class),
+                any(BookingStatus.class), any(LocalDateTime.class))).thenReturn(0);
+        when(bookingRepository.findById(booking(currentTime).getId())).thenReturn(Optional.of(booking(currentTime)));
+
+        assertThrows(ValidationException.class, () -> bookingService.updateBooking(bookingDto));
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(eventPublisher, never()).publishEvent(any(BookingEvent.class));
     }
 
     @Test
@@ -265,12 +568,129 @@ class BookingServiceTest {
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
+    @Test
+    void updateBookings_reportsOutcomePerBooking() {
+        long ownerId = 2L;
+        BookingBulkUpdateDto bulkUpdateDto = BookingBulkUpdateDto.builder()
+                .bookingIds(List.of(1L, 2L, 3L, 4L, 1L))
+                .approved(true)
+                .build();
+
+        when(bookingRepository.findStatusViewsByIdInForUpdate(List.of(1L, 2L, 3L, 4L))).thenReturn(List.of(
+                statusView(1L, ownerId, BookingStatus.WAITING),
+                statusView(2L, ownerId, BookingStatus.REJECTED),
+                statusView(3L, ownerId + 1, BookingStatus.WAITING)));
+        when(bookingRepository.updateStatusIn(eq(List.of(1L)), eq(ownerId), eq(BookingStatus.WAITING),
+                eq(BookingStatus.APPROVED), any(LocalDateTime.class))).thenReturn(1);
+
+        List<BookingBulkResultDto> result = bookingService.updateBookings(ownerId, bulkUpdateDto);
+
+        assertEquals(List.of(
+                new BookingBulkResultDto(1L, BookingBulkOutcome.UPDATED),
+                new BookingBulkResultDto(2L, BookingBulkOutcome.NOT_WAITING),
+                new BookingBulkResultDto(3L, BookingBulkOutcome.NOT_OWNER),
+                new BookingBulkResultDto(4L, BookingBulkOutcome.NOT_FOUND)), result);
+        verify(bookingRepository, times(1)).findStatusViewsByIdInForUpdate(anyCollection());
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void updateBookings_publishesEventsForUpdatedBookingsOnly() {
+        long ownerId = 2L;
+        BookingBulkUpdateDto bulkUpdateDto = BookingBulkUpdateDto.builder()
+                .bookingIds(List.of(1L, 2L))
+                .approved(false)
+                .build();
+
+        when(bookingRepository.findStatusViewsByIdInForUpdate(List.of(1L, 2L))).thenReturn(List.of(
+                statusView(1L, ownerId, BookingStatus.WAITING),
+                statusView(2L, ownerId, BookingStatus.APPROVED)));
+        when(bookingRepository.updateStatusIn(eq(List.of(1L)), eq(ownerId), eq(BookingStatus.WAITING),
+                eq(BookingStatus.REJECTED), any(LocalDateTime.class))).thenReturn(1);
+        when(bookingRepository.findAllById(List.of(1L))).thenReturn(List.of(booking(LocalDateTime.now())));
+
+        List<BookingBulkResultDto> result = bookingService.updateBookings(ownerId, bulkUpdateDto);
+
+        assertEquals(List.of(
+                new BookingBulkResultDto(1L, BookingBulkOutcome.UPDATED),
+                new BookingBulkResultDto(2L, BookingBulkOutcome.NOT_WAITING)), result);
+        verify(eventPublisher, times(1)).publishEvent(any(BookingEvent.class));
+    }
+
+    @Test
+    void getBookingSummaryByOwnerId_whenOwnerIsExist() {
+        BookingSummaryView view = mock(BookingSummaryView.class);
+        when(view.getAllCount()).thenReturn(3L);
+        when(view.getWaitingCount()).thenReturn(2L);
+        ArchivedBookingSummaryView archived = mock(ArchivedBookingSummaryView.class);
+        when(archived.getAllCount()).thenReturn(2L);
+        when(archived.getRejectedCount()).thenReturn(1L);
+        when(userRepository.findById(2L)).thenReturn(Optional.of(user(2L)));
+        when(bookingRepository.summarizeByOwnerId(2L, BookingPhase.CURRENT, BookingPhase.PAST, BookingPhase.FUTURE,
+                BookingStatus.WAITING, BookingStatus.REJECTED)).thenReturn(view);
+        when(archivedBookingRepository.summarizeByOwnerId(2L, BookingStatus.REJECTED)).thenReturn(archived);
+
+        BookingSummaryDto result = bookingService.getBookingSummaryByOwnerId(2L);
+
+        assertEquals(BookingSummaryDto.builder().all(5).past(2).waiting(2).rejected(1).build(), result);
+    }
+
+    @Test
+    void getBookingSummaryByOwnerId_countsOccurrencesOfRecurringBookings() {
+        LocalDateTime seriesStart = LocalDateTime.now().minusWeeks(2).minusHours(1);
+        BookingSeriesView series = new BookingSeriesView() {
+            @Override
+            public LocalDateTime getStartDate() {
+                return seriesStart;
+            }
+
+            @Override
+            public LocalDateTime getEndDate() {
+                return seriesStart.plusHours(2);
+            }
+
+            @Override
+            public BookingRecurrence getRecurrence() {
+                return BookingRecurrence.WEEKLY;
+            }
+
+            @Override
+            public LocalDateTime getRecurrenceUntil() {
+                return seriesStart.plusWeeks(4);
+            }
+
+            @Override
+            public BookingStatus getStatus() {
+                return BookingStatus.WAITING;
+            }
+        };
+        when(userRepository.findById(2L)).thenReturn(Optional.of(user(2L)));
+        when(bookingRepository.summarizeByOwnerId(2L, BookingPhase.CURRENT, BookingPhase.PAST, BookingPhase.FUTURE,
+                BookingStatus.WAITING, BookingStatus.REJECTED)).thenReturn(mock(BookingSummaryView.class));
+        when(archivedBookingRepository.summarizeByOwnerId(2L, BookingStatus.REJECTED))
+                .thenReturn(mock(ArchivedBookingSummaryView.class));
+        when(bookingRepository.findSeriesByOwnerId(2L)).thenReturn(List.of(series));
+
+        BookingSummaryDto result = bookingService.getBookingSummaryByOwnerId(2L);
+
+        assertEquals(BookingSummaryDto.builder().all(5).past(2).current(1).future(2).waiting(5).build(), result);
+    }
+
+    @Test
+    void getBookingSummaryByUserId_whenUserIsNotExist() {
+        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> bookingService.getBookingSummaryByUserId(1L));
+        verify(bookingRepository, never()).summarizeByBookerId(anyLong(), any(), any(), any(), any(), any());
+    }
+
     @Test
     void getAllBookingByUserId_whenOwnerIsExist() {
         List<Booking> bookings = new ArrayList<>();
         for (int i = 1; i < 4; i++) {
             Booking booking = Booking.builder()
                     .id((long) i)
+                    .start(LocalDateTime.now().minusDays(i))
                     .item(item())
                     .booker(user(1))
                     .status(BookingStatus.WAITING)
@@ -280,9 +700,14 @@ class BookingServiceTest {
         Page<Booking> page = new PageImpl<>(bookings);
 
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user(1)));
+        when(bookingRepository.findLimited(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(List.of());
         when(bookingRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
+        when(archivedBookingRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(Page.empty());
 
-        bookingService.getAllBookingByUserId(1, BookingState.ALL.toString(), pageable);
+        bookingService.getAllBookingByUserId(1, BookingState.ALL.toString(),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start")));
 
         verify(bookingRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
     }
@@ -293,6 +718,7 @@ class BookingServiceTest {
         for (int i = 0; i < 3; i++) {
             Booking booking = Booking.builder()
                     .id((long) i)
+                    .start(LocalDateTime.now().minusDays(i))
                     .item(item())
                     .booker(user(1))
                     .status(BookingStatus.WAITING)
@@ -302,13 +728,83 @@ class BookingServiceTest {
         Page<Booking> page = new PageImpl<>(bookings);
 
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user(1)));
+        when(bookingRepository.findLimited(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(List.of());
         when(bookingRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
+        when(archivedBookingRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(Page.empty());
 
-        bookingService.getAllBookingByOwnerId(1, BookingState.ALL.toString(), pageable);
+        bookingService.getAllBookingByOwnerId(1, BookingState.ALL.toString(),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start")));
 
         verify(bookingRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
     }
 
+    @Test
+    void getAllBookingByUserId_mergesArchivedBookings_whenStatePast() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking hot = booking(now.minusDays(3));
+        hot.setId(3L);
+        ArchivedBooking older = ArchivedBooking.builder()
+                .id(1L)
+                .start(now.minusDays(10))
+                .end(now.minusDays(9))
+                .item(item())
+                .booker(user(1))
+                .status(BookingStatus.APPROVED)
+                .build();
+        ArchivedBooking newer = ArchivedBooking.builder()
+                .id(2L)
+                .start(now.minusDays(5))
+                .end(now.minusDays(4))
+                .item(item())
+                .booker(user(1))
+                .status(BookingStatus.APPROVED)
+                .build();
+
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user(1)));
+        when(bookingRepository.findLimited(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(List.of());
+        when(bookingRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(hot)));
+        when(archivedBookingRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(newer, older)));
+
+        List<BookingDto> result = bookingService.getAllBookingByUserId(1, BookingState.PAST.toString(),
+                PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "start")));
+
+        assertEquals(List.of(1L), result.stream().map(BookingDto::getId).collect(Collectors.toList()));
+        verify(archivedBookingRepository, times(1)).findAll(any(Specification.class),
+                eq(PageRequest.of(0, 4, Sort.by(Sort.Direction.DESC, "start"))));
+    }
+
+    @Test
+    void getAllBookingByOwnerId_expandsRecurringBookings_whenStateFuture() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking weekly = booking(now.plusDays(1));
+        weekly.setEnd(weekly.getStart().plusHours(2));
+        weekly.setRecurrence(BookingRecurrence.WEEKLY);
+        weekly.setRecurrenceUntil(weekly.getStart().plusWeeks(10));
+        Booking single = booking(now.plusDays(60));
+        single.setId(2L);
+
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user(2)));
+        when(bookingRepository.findLimited(any(Specification.class), eq(Sort.by(Sort.Direction.DESC, "seriesEnd")),
+                eq(100))).thenReturn(List.of(weekly));
+        when(bookingRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(single)));
+
+        List<BookingDto> result = bookingService.getAllBookingByOwnerId(2, BookingState.FUTURE.toString(),
+                PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "start")));
+
+        assertEquals(List.of(1L, 1L, 2L), result.stream().map(BookingDto::getId).collect(Collectors.toList()));
+        assertEquals(weekly.getStart().plusWeeks(10), result.get(0).getStart());
+        assertEquals(weekly.getStart().plusWeeks(9), result.get(1).getStart());
+        assertEquals(weekly.getStart().plusWeeks(9).plusHours(2), result.get(1).getEnd());
+        assertEquals(BookingRecurrence.WEEKLY, result.get(1).getRecurrence());
+        verify(archivedBookingRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
     @Test
     void getAllBookingByOwnerId_whenOwnerIsNotExist() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
@@ -366,12 +862,73 @@ class BookingServiceTest {
                 .build();
     }
 
+    private BookingIntervalView interval(LocalDateTime start, LocalDateTime end, BookingRecurrence recurrence,
+                                         LocalDateTime until) {
+        return new BookingIntervalView() {
+            @Override
+            public Long getItemId() {
+                return 1L;
+            }
+
+            @Override
+            public LocalDateTime getStartDate() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEndDate() {
+                return end;
+            }
+
+            @Override
+            public BookingRecurrence getRecurrence() {
+                return recurrence;
+            }
+
+            @Override
+            public LocalDateTime getRecurrenceUntil() {
+                return until;
+            }
+        };
+    }
+
+    private BookingStatusView statusView(long id, long ownerId, BookingStatus status) {
+        return new BookingStatusView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+
+            @Override
+            public BookingStatus getStatus() {
+                return status;
+            }
+        };
+    }
+
     private User user(long id) {
         return User.builder()
                 .id(id)
                 .build();
     }
 
+    private BookingHold hold(long bookerId, LocalDateTime time) {
+        return BookingHold.builder()
+                .id("hold")
+                .itemId(1L)
+                .bookerId(bookerId)
+                .ownerId(2L)
+                .start(time.plusHours(1))
+                .end(time.plusHours(2))
+                .expiresAtMillis(System.currentTimeMillis() + 60_000)
+                .build();
+    }
+
     private Item item() {
         return Item.builder()
                 .id(1L)
@@ -3,8 +3,13 @@ package ru.practicum.shareit.booking;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.jpa.domain.Specification;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRecurrence;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.RecurrenceRule;
 
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 class BookingStateTest {
@@ -57,4 +62,27 @@ class BookingStateTest {
 
         assertNotNull(specification);
     }
-}
+
+    @Test
+    void occurrenceIndexes_whenStateFuture() {
+        LocalDateTime now = LocalDateTime.now();
+        RecurrenceRule rule = RecurrenceRule.of(now.minusWeeks(2), now.minusWeeks(2).plusHours(1),
+                BookingRecurrence.WEEKLY, now.plusWeeks(2));
+
+        assertArrayEquals(new long[]{4, 3}, BookingState.FUTURE.occurrenceIndexes(rule, now, true).toArray());
+        assertArrayEquals(new long[]{0, 1}, BookingState.PAST.occurrenceIndexes(rule, now, false).toArray());
+        assertArrayEquals(new long[]{4, 3, 2, 1, 0}, BookingState.ALL.occurrenceIndexes(rule, now, true).toArray());
+    }
+
+    @Test
+    void occurrenceIndexes_whenStateCurrent() {
+        LocalDateTime now = LocalDateTime.now();
+        RecurrenceRule rule = RecurrenceRule.of(now.minusWeeks(2).minusMinutes(30),
+                now.minusWeeks(2).plusMinutes(30), BookingRecurrence.WEEKLY, now.plusWeeks(2));
+
+        assertArrayEquals(new long[]{2}, BookingState.CURRENT.occurrenceIndexes(rule, now, true).toArray());
+        assertArrayEquals(new long[]{1, 0}, BookingState.PAST.occurrenceIndexes(rule, now, true).toArray());
+        assertArrayEquals(new long[0], BookingState.CURRENT.occurrenceIndexes(rule, now.plusHours(1), true)
+                .toArray());
+    }
+}
\ No newline at end of file
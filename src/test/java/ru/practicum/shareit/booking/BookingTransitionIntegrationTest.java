@@ -0,0 +1,108 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.validation.ValidationException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource(properties = {"db.name=testBookingTransition"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingTransitionIntegrationTest {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+
+    @BeforeAll
+    void setup() {
+        ownerId = userService.createUser(UserDto.builder()
+                .name("Owner")
+                .email("owner@mail.net")
+                .build()).getId();
+        bookerId = userService.createUser(UserDto.builder()
+                .name("Booker")
+                .email("booker@mail.net")
+                .build()).getId();
+        itemId = itemService.createItem(ItemDto.builder()
+                .ownerId(ownerId)
+                .available(true)
+                .name("Item")
+                .description("Item description")
+                .build()).getId();
+    }
+
+    @Test
+    void updateBooking_appliesOnlyOneOfConcurrentDecisions() throws Exception {
+        long bookingId = bookingService.createBooking(BookingDto.builder()
+                .bookerId(bookerId)
+                .itemId(itemId)
+                .start(LocalDateTime.now().plusDays(1).withNano(0))
+                .end(LocalDateTime.now().plusDays(2).withNano(0))
+                .build()).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<BookingDto>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean approved = i % 2 == 0;
+            futures.add(executor.submit(() -> {
+                startGate.await();
+                return bookingService.updateBooking(BookingDto.builder()
+                        .id(bookingId)
+                        .bookerId(ownerId)
+                        .approved(approved)
+                        .build());
+            }));
+        }
+        startGate.countDown();
+
+        List<BookingStatus> applied = new ArrayList<>();
+        for (Future<BookingDto> future : futures) {
+            try {
+                applied.add(future.get(30, TimeUnit.SECONDS).getStatus());
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof ValidationException,
+                        "Losing decisions should be rejected as not waiting for approval");
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, applied.size(), "Expected exactly one concurrent decision to be applied");
+        assertEquals(applied.get(0), bookingService.getBookingById(ownerId, bookingId).getStatus(),
+                "Expected stored status to match the applied decision");
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.WaitlistEntryDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.WaitlistEntryRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingWaitlistService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest
+@TestPropertySource(properties = {"db.name=testBookingWaitlist"})
+class BookingWaitlistIntegrationTest {
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingWaitlistService bookingWaitlistService;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @SpyBean
+    private UserRepository userRepository;
+
+    @Test
+    void updateBooking_promotesWaiter_whenBookingRejected() {
+        long ownerId = createUser("owner");
+        long bookerId = createUser("booker");
+        long waiterId = createUser("waiter");
+        long itemId = itemService.createItem(ItemDto.builder()
+                .ownerId(ownerId)
+                .available(true)
+                .name("Item")
+                .description("Item description")
+                .build()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        long bookingId = bookingService.createBooking(BookingDto.builder()
+                .bookerId(bookerId)
+                .itemId(itemId)
+                .start(start)
+                .end(start.plusHours(2))
+                .build()).getId();
+        bookingWaitlistService.join(waiterId, itemId, WaitlistEntryDto.builder()
+                .start(start.plusHours(1))
+                .end(start.plusHours(3))
+                .build());
+
+        bookingService.updateBooking(BookingDto.builder()
+                .id(bookingId)
+                .bookerId(ownerId)
+                .approved(false)
+                .build());
+
+        List<BookingDto> promoted = bookingService.getAllBookingByUserId(waiterId, BookingState.WAITING.name(),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start")));
+        assertEquals(1, promoted.size());
+        assertEquals(BookingStatus.WAITING, promoted.get(0).getStatus());
+        assertEquals(start.plusHours(1), promoted.get(0).getStart());
+        assertTrue(waitlistEntryRepository.findAllByItemIdOrderById(itemId).isEmpty());
+    }
+
+    @Test
+    void updateBooking_keepsRejectAndEntry_whenPromotionFails() {
+        long ownerId = createUser("failOwner");
+        long bookerId = createUser("failBooker");
+        long waiterId = createUser("failWaiter");
+        long itemId = itemService.createItem(ItemDto.builder()
+                .ownerId(ownerId)
+                .available(true)
+                .name("Item")
+                .description("Item description")
+                .build()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        long bookingId = bookingService.createBooking(BookingDto.builder()
+                .bookerId(bookerId)
+                .itemId(itemId)
+                .start(start)
+                .end(start.plusHours(2))
+                .build()).getId();
+        bookingWaitlistService.join(waiterId, itemId, WaitlistEntryDto.builder()
+                .start(start)
+                .end(start.plusHours(2))
+                .build());
+        doThrow(new IllegalStateException("Promotion failed")).when(userRepository).findById(waiterId);
+
+        BookingDto rejected = bookingService.updateBooking(BookingDto.builder()
+                .id(bookingId)
+                .bookerId(ownerId)
+                .approved(false)
+                .build());
+
+        assertEquals(BookingStatus.REJECTED, rejected.getStatus());
+        assertEquals(BookingStatus.REJECTED, bookingService.getBookingById(ownerId, bookingId).getStatus());
+        assertEquals(List.of(bookingId), bookingService.getAllBookingByOwnerId(ownerId, BookingState.ALL.name(),
+                        PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start"))).stream()
+                .map(BookingDto::getId)
+                .collect(Collectors.toList()));
+        assertEquals(1, waitlistEntryRepository.findAllByItemIdOrderById(itemId).size());
+    }
+
+    private long createUser(String name) {
+        return userService.createUser(UserDto.builder()
+                .name(name)
+                .email(name + "@mail.net")
+                .build()).getId();
+    }
+}
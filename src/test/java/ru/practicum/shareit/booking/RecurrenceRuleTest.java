@@ -0,0 +1,71 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.BookingRecurrence;
+import ru.practicum.shareit.booking.model.RecurrenceRule;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecurrenceRuleTest {
+    private final LocalDateTime start = LocalDateTime.of(2030, 1, 5, 10, 0);
+
+    @Test
+    void of_countsOccurrencesUntilEndDate() {
+        RecurrenceRule rule = RecurrenceRule.of(start, start.plusHours(4), BookingRecurrence.WEEKLY,
+                start.plusWeeks(51));
+
+        assertEquals(52, rule.getCount());
+        assertEquals(start.plusWeeks(51).plusHours(4), rule.getSeriesEnd());
+    }
+
+    @Test
+    void once_hasSingleOccurrence() {
+        RecurrenceRule rule = RecurrenceRule.once(start, start.plusHours(1));
+
+        assertEquals(1, rule.getCount());
+        assertEquals(start.plusHours(1), rule.getSeriesEnd());
+    }
+
+    @Test
+    void getStart_keepsDayOfMonth_whenMonthIsShorter() {
+        LocalDateTime endOfMonth = LocalDateTime.of(2030, 1, 31, 10, 0);
+        RecurrenceRule rule = RecurrenceRule.of(endOfMonth, endOfMonth.plusHours(2), BookingRecurrence.MONTHLY,
+                LocalDateTime.of(2030, 12, 31, 10, 0));
+
+        assertEquals(12, rule.getCount());
+        assertEquals(LocalDateTime.of(2030, 2, 28, 10, 0), rule.getStart(1));
+        assertEquals(LocalDateTime.of(2030, 3, 31, 10, 0), rule.getStart(2));
+        assertEquals(0, rule.lastIndexStartingBefore(LocalDateTime.of(2030, 2, 28, 10, 0)));
+        assertEquals(1, rule.lastIndexStartingAtOrBefore(LocalDateTime.of(2030, 2, 28, 10, 0)));
+    }
+
+    @Test
+    void overlaps_checksOnlyOccurrences() {
+        RecurrenceRule rule = RecurrenceRule.of(start, start.plusHours(4), BookingRecurrence.WEEKLY,
+                start.plusWeeks(51));
+
+        assertTrue(rule.overlaps(start.plusWeeks(10).plusHours(3), start.plusWeeks(10).plusHours(5)));
+        assertFalse(rule.overlaps(start.plusWeeks(10).plusHours(4), start.plusWeeks(10).plusHours(5)));
+        assertFalse(rule.overlaps(start.minusHours(1), start));
+        assertFalse(rule.overlaps(start.plusWeeks(52), start.plusWeeks(53)));
+    }
+
+    @Test
+    void overlaps_comparesTwoRules() {
+        RecurrenceRule saturdays = RecurrenceRule.of(start, start.plusHours(4), BookingRecurrence.WEEKLY,
+                start.plusWeeks(51));
+        RecurrenceRule sundays = RecurrenceRule.of(start.plusDays(1), start.plusDays(1).plusHours(4),
+                BookingRecurrence.WEEKLY, start.plusWeeks(60));
+        RecurrenceRule monthly = RecurrenceRule.of(start.plusWeeks(30).plusHours(1),
+                start.plusWeeks(30).plusHours(2), BookingRecurrence.MONTHLY, start.plusYears(3));
+
+        assertFalse(saturdays.overlaps(sundays));
+        assertTrue(saturdays.overlaps(monthly));
+        assertTrue(monthly.overlaps(saturdays));
+        assertTrue(RecurrenceRule.once(start.plusWeeks(3), start.plusWeeks(3).plusMinutes(1)).overlaps(saturdays));
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.AvailabilityProbeDto;
+import ru.practicum.shareit.booking.model.BookingHold;
+import ru.practicum.shareit.booking.model.BookingRecurrence;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingIntervalView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.validation.ValidationException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingAvailabilityServiceTest {
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+    @InjectMocks
+    private BookingAvailabilityService bookingAvailabilityService;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingHoldRegistry bookingHoldRegistry;
+
+    @Test
+    void checkAvailability_answersAllProbesWithOneQuery() {
+        when(itemRepository.findAvailableIdsByIdIn(Set.of(1L, 2L, 3L))).thenReturn(List.of(1L, 2L));
+        when(bookingRepository.findIntervals(Set.of(1L, 2L), BookingStatus.APPROVED, start,
+                start.plusWeeks(2).plusHours(1).plusMinutes(1))).thenReturn(List.of(
+                interval(1L, start, start.plusHours(2), null, null),
+                interval(1L, start.plusHours(3), start.plusHours(10), null, null),
+                interval(2L, start, start.plusHours(1), BookingRecurrence.WEEKLY, start.plusWeeks(4))));
+        when(bookingHoldRegistry.findActiveByItemIds(Set.of(1L, 2L))).thenReturn(List.of(
+                hold(1L, 5L, start.plusDays(1), start.plusDays(1).plusHours(1)),
+                hold(1L, 7L, start.plusDays(2), start.plusDays(2).plusHours(1))));
+
+        List<AvailabilityProbeDto> result = bookingAvailabilityService.checkAvailability(7L, List.of(
+                probe(1L, start.plusHours(1), start.plusHours(4)),
+                probe(1L, start.plusHours(10), start.plusHours(11)),
+                probe(1L, start.plusDays(1), start.plusDays(1).plusMinutes(30)),
+                probe(1L, start.plusDays(2), start.plusDays(2).plusMinutes(30)),
+                probe(2L, start.plusWeeks(2), start.plusWeeks(2).plusHours(1)),
+                probe(2L, start.plusWeeks(2).plusHours(1), start.plusWeeks(2).plusHours(1).plusMinutes(1)),
+                probe(3L, start, start.plusHours(1))));
+
+        assertEquals(List.of(false, true, false, true, false, true, false), result.stream()
+                .map(AvailabilityProbeDto::getAvailable)
+                .collect(Collectors.toList()));
+        assertEquals(1L, result.get(0).getItemId());
+        verify(bookingRepository, times(1)).findIntervals(anyCollection(), any(), any(), any());
+    }
+
+    @Test
+    void checkAvailability_skipsQuery_whenNoItemIsAvailable() {
+        when(itemRepository.findAvailableIdsByIdIn(Set.of(1L))).thenReturn(List.of());
+
+        List<AvailabilityProbeDto> result = bookingAvailabilityService.checkAvailability(null,
+                List.of(probe(1L, start, start.plusHours(1))));
+
+        assertFalse(result.get(0).getAvailable());
+        verify(bookingRepository, never()).findIntervals(anyCollection(), any(), any(), any());
+    }
+
+    @Test
+    void checkAvailability_throwsException_whenProbeEndsBeforeStart() {
+        List<AvailabilityProbeDto> probes = List.of(probe(1L, start, start));
+
+        assertThrows(ValidationException.class, () -> bookingAvailabilityService.checkAvailability(null, probes));
+        verify(itemRepository, never()).findAvailableIdsByIdIn(anyCollection());
+    }
+
+    private AvailabilityProbeDto probe(long itemId, LocalDateTime probeStart, LocalDateTime probeEnd) {
+        return AvailabilityProbeDto.builder()
+                .itemId(itemId)
+                .start(probeStart)
+                .end(probeEnd)
+                .build();
+    }
+
+    private BookingHold hold(long itemId, long bookerId, LocalDateTime holdStart, LocalDateTime holdEnd) {
+        return BookingHold.builder()
+                .id("hold-" + bookerId)
+                .itemId(itemId)
+                .bookerId(bookerId)
+                .ownerId(2L)
+                .start(holdStart)
+                .end(holdEnd)
+                .expiresAtMillis(System.currentTimeMillis() + 60_000)
+                .build();
+    }
+
+    private BookingIntervalView interval(long itemId, LocalDateTime intervalStart, LocalDateTime intervalEnd,
+                                         BookingRecurrence recurrence, LocalDateTime until) {
+        return new BookingIntervalView() {
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getStartDate() {
+                return intervalStart;
+            }
+
+            @Override
+            public LocalDateTime getEndDate() {
+                return intervalEnd;
+            }
+
+            @Override
+            public BookingRecurrence getRecurrence() {
+                return recurrence;
+            }
+
+            @Override
+            public LocalDateTime getRecurrenceUntil() {
+                return until;
+            }
+        };
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.context.request.async.DeferredResult;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.NotFoundException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingAwaitServiceTest {
+    private static final int WAITERS = 10_000;
+    private static final int BOOKINGS = 100;
+
+    @Mock
+    private BookingService bookingService;
+
+    @InjectMocks
+    private BookingAwaitService bookingAwaitService;
+
+    @Test
+    void awaitBooking_completesImmediately_whenBookingNotWaiting() {
+        when(bookingService.getBookingById(1L, 1L)).thenReturn(bookingDto(1L, BookingStatus.APPROVED));
+
+        DeferredResult<?> result = bookingAwaitService.awaitBooking(1L, 1L, 1_000);
+
+        assertTrue(result.hasResult());
+        assertEquals(0, bookingAwaitService.getWaiterCount());
+    }
+
+    @Test
+    void awaitBooking_throwsException_whenBookingNotFound() {
+        when(bookingService.getBookingById(1L, 1L)).thenThrow(new NotFoundException("Booking with id:1 not found"));
+
+        assertThrows(NotFoundException.class, () -> bookingAwaitService.awaitBooking(1L, 1L, 1_000));
+        assertEquals(0, bookingAwaitService.getWaiterCount());
+    }
+
+    @Test
+    void onBookingEvent_ignoresCreatedEvents() {
+        when(bookingService.getBookingById(1L, 1L)).thenReturn(bookingDto(1L, BookingStatus.WAITING));
+        DeferredResult<?> result = bookingAwaitService.awaitBooking(1L, 1L, 1_000);
+
+        bookingAwaitService.onBookingEvent(new BookingEvent(BookingEventType.CREATED, 2L,
+                bookingDto(1L, BookingStatus.WAITING)));
+
+        assertFalse(result.hasResult());
+        assertEquals(1, bookingAwaitService.getWaiterCount());
+    }
+
+    @Test
+    void onBookingEvent_releasesAllParkedWaiters() throws Exception {
+        when(bookingService.getBookingById(anyLong(), anyLong()))
+                .thenAnswer(invocation -> bookingDto(invocation.getArgument(1), BookingStatus.WAITING));
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<DeferredResult<BookingDto>> results = new ArrayList<>();
+        try {
+            List<Callable<DeferredResult<BookingDto>>> tasks = new ArrayList<>();
+            for (int i = 0; i < WAITERS; i++) {
+                long bookingId = i % BOOKINGS;
+                tasks.add(() -> bookingAwaitService.awaitBooking(1L, bookingId, 60_000));
+            }
+            for (Future<DeferredResult<BookingDto>> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(WAITERS, bookingAwaitService.getWaiterCount());
+        assertTrue(results.stream().noneMatch(DeferredResult::hasResult));
+
+        LongStream.range(0, BOOKINGS).forEach(bookingId -> bookingAwaitService.onBookingEvent(new BookingEvent(
+                BookingEventType.STATUS_CHANGED, 2L, bookingDto(bookingId, BookingStatus.APPROVED))));
+
+        assertEquals(0, bookingAwaitService.getWaiterCount());
+        assertTrue(results.stream().allMatch(result ->
+                ((BookingDto) result.getResult()).getStatus() == BookingStatus.APPROVED));
+    }
+
+    private static BookingDto bookingDto(long bookingId, BookingStatus status) {
+        return BookingDto.builder()
+                .id(bookingId)
+                .status(status)
+                .build();
+    }
+}
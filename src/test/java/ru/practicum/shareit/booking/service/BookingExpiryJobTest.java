@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.scheduler.SchedulerLockService;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingExpiryJobTest {
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private SchedulerLockService schedulerLockService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BookingExpiryJob bookingExpiryJob;
+
+    @BeforeEach
+    void setUp() {
+        bookingExpiryJob = new BookingExpiryJob(bookingRepository, new BookingMapper(new ItemMapper(),
+                new UserMapper()), schedulerLockService, transactionTemplate, eventPublisher, meterRegistry, 2,
+                Duration.ofMinutes(5));
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void expireStaleBookings_doesNothing_whenLockHeldByAnotherNode() {
+        when(schedulerLockService.tryLock(eq(BookingExpiryJob.LOCK_NAME), any(Duration.class))).thenReturn(false);
+
+        bookingExpiryJob.expireStaleBookings();
+
+        verifyNoInteractions(bookingRepository);
+        verify(schedulerLockService, never()).unlock(any());
+    }
+
+    @Test
+    void expireStaleBookings_cancelsBookingsChunkByChunk() {
+        when(schedulerLockService.tryLock(eq(BookingExpiryJob.LOCK_NAME), any(Duration.class))).thenReturn(true);
+        when(bookingRepository.findIdsByStatusAndStartBefore(eq(BookingStatus.WAITING), any(LocalDateTime.class),
+                eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(bookingRepository.findIdsByStatusAndStartBefore(eq(BookingStatus.WAITING), any(LocalDateTime.class),
+                eq(2L), any(Pageable.class))).thenReturn(List.of(3L));
+        when(bookingRepository.updateStatusByIdIn(eq(List.of(1L, 2L)), eq(BookingStatus.WAITING),
+                eq(BookingStatus.CANCELED), any(LocalDateTime.class))).thenReturn(1);
+        when(bookingRepository.updateStatusByIdIn(eq(List.of(3L)), eq(BookingStatus.WAITING),
+                eq(BookingStatus.CANCELED), any(LocalDateTime.class))).thenReturn(1);
+        when(bookingRepository.findAllById(List.of(1L, 2L)))
+                .thenReturn(List.of(booking(1L, BookingStatus.CANCELED), booking(2L, BookingStatus.APPROVED)));
+        when(bookingRepository.findAllById(List.of(3L))).thenReturn(List.of(booking(3L, BookingStatus.CANCELED)));
+
+        bookingExpiryJob.expireStaleBookings();
+
+        verify(bookingRepository, times(2)).findIdsByStatusAndStartBefore(any(), any(), anyLong(), any());
+        verify(eventPublisher, times(2)).publishEvent(any(BookingEvent.class));
+        verify(schedulerLockService, times(2)).tryLock(eq(BookingExpiryJob.LOCK_NAME), any(Duration.class));
+        verify(schedulerLockService).unlock(BookingExpiryJob.LOCK_NAME);
+        assertEquals(2.0, meterRegistry.get("shareit.booking.expiry.expired").counter().count());
+        assertEquals(2.0, meterRegistry.get("shareit.booking.expiry.chunks").counter().count());
+        assertEquals(0.0, meterRegistry.get("shareit.booking.expiry.lag").gauge().value());
+    }
+
+    private static Booking booking(long id, BookingStatus status) {
+        User owner = User.builder().id(1L).name("owner").email("owner@example.com").build();
+        return Booking.builder()
+                .id(id)
+                .start(LocalDateTime.now().minusDays(1))
+                .end(LocalDateTime.now().plusDays(1))
+                .item(Item.builder().id(1L).name("item").description("description").available(true).owner(owner)
+                        .build())
+                .booker(User.builder().id(2L).name("booker").email("booker@example.com").build())
+                .ownerId(owner.getId())
+                .status(status)
+                .build();
+    }
+}
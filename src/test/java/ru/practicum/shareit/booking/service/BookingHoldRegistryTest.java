@@ -0,0 +1,144 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.practicum.shareit.booking.model.BookingHold;
+
+import javax.validation.ValidationException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingHoldRegistryTest {
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+    @TempDir
+    Path directory;
+
+    private Path journal;
+    private BookingHoldRegistry registry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journal = directory.resolve("holds.journal");
+        registry = open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        registry.close();
+    }
+
+    @Test
+    void add_rejectsOverlappingHoldOfOtherBooker() {
+        registry.add(hold("a", 1L, start, 60_000));
+
+        assertThrows(ValidationException.class, () -> registry.add(hold("b", 2L, start.plusMinutes(30), 60_000)));
+        registry.add(hold("c", 1L, start.plusMinutes(30), 60_000));
+        registry.add(hold("d", 2L, start.plusHours(2), 60_000));
+
+        assertEquals(3, registry.size());
+        assertTrue(registry.isHeldByOthers(1L, 2L, start, start.plusMinutes(10)));
+        assertFalse(registry.isHeldByOthers(1L, 1L, start, start.plusMinutes(10)));
+    }
+
+    @Test
+    void expireHolds_dropsHoldsOnceTheirTtlPassed() throws InterruptedException {
+        registry.add(hold("a", 1L, start, 20));
+        registry.add(hold("b", 1L, start.plusHours(2), 60_000));
+
+        Thread.sleep(50);
+        assertTrue(registry.find("a").isEmpty());
+        assertFalse(registry.isHeldByOthers(1L, 2L, start, start.plusHours(1)));
+        registry.expireHolds();
+
+        assertEquals(1, registry.size());
+        assertTrue(registry.find("b").isPresent());
+    }
+
+    @Test
+    void claim_handsHoldToOneCallerOnly() throws IOException {
+        registry.add(hold("a", 1L, start, 60_000));
+
+        assertTrue(registry.claim("a", 2L).isEmpty());
+        BookingHold claimed = registry.claim("a", 1L).orElseThrow();
+        assertTrue(registry.claim("a", 1L).isEmpty());
+        assertFalse(registry.isHeldByOthers(1L, 2L, start, start.plusHours(1)));
+
+        registry.restore(claimed);
+        assertTrue(registry.claim("a", 1L).isPresent());
+        registry.release("a");
+        registry.close();
+        registry = open();
+
+        assertTrue(registry.find("a").isEmpty());
+    }
+
+    @Test
+    void open_restoresLiveHoldsFromJournal() throws IOException, InterruptedException {
+        registry.add(hold("live", 1L, start, 60_000));
+        registry.add(hold("released", 1L, start.plusHours(2), 60_000));
+        registry.add(hold("expired", 1L, start.plusHours(4), 20));
+        registry.release("released");
+        registry.close();
+        Files.writeString(journal, "HOLD\ttorn", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        Thread.sleep(50);
+
+        registry = open();
+
+        assertEquals(1, registry.size());
+        assertEquals(hold("live", 1L, start, 0).getEnd(), registry.find("live").orElseThrow().getEnd());
+        assertEquals(1, Files.readAllLines(journal).size());
+    }
+
+    @Test
+    void open_dropsTornLastRecord_whenItWouldParse() throws IOException {
+        registry.add(hold("live", 1L, start, 60_000));
+        registry.close();
+        Files.writeString(journal, "RELEASE\tlive", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        registry = open();
+        registry.add(hold("next", 1L, start.plusHours(2), 60_000));
+        registry.close();
+        registry = open();
+
+        assertTrue(registry.find("live").isPresent());
+        assertTrue(registry.find("next").isPresent());
+        assertEquals(2, Files.readAllLines(journal).size());
+    }
+
+    @Test
+    void open_throwsException_whenDirectoryIsNotWritable() throws IOException {
+        Path file = Files.createFile(directory.resolve("file"));
+
+        assertThrows(IOException.class, () -> new BookingHoldRegistry(file.resolve("holds").toString(),
+                Duration.ofMillis(10), 8));
+    }
+
+    private BookingHoldRegistry open() throws IOException {
+        return new BookingHoldRegistry(directory.toString(), Duration.ofMillis(10), 8);
+    }
+
+    private BookingHold hold(String id, long bookerId, LocalDateTime holdStart, long ttlMillis) {
+        return BookingHold.builder()
+                .id(id)
+                .itemId(1L)
+                .bookerId(bookerId)
+                .ownerId(3L)
+                .start(holdStart)
+                .end(holdStart.plusHours(1))
+                .expiresAtMillis(System.currentTimeMillis() + ttlMillis)
+                .build();
+    }
+}
@@ -0,0 +1,186 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.event.BookingJournalEvent;
+import ru.practicum.shareit.booking.model.BookingRecurrence;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.journal.JournalReplayStats;
+import ru.practicum.shareit.outbox.model.DomainEvent;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+class BookingJournalTest {
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(123_000);
+
+    @TempDir
+    Path directory;
+
+    private BookingJournal bookingJournal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        bookingJournal = open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        bookingJournal.close();
+    }
+
+    @Test
+    void rebuild_feedsJournaledChangesToReadModel() throws Exception {
+        bookingJournal.onEvent(event(1L, DomainEventType.BOOKING_CREATED, 10L, BookingStatus.WAITING, null));
+        bookingJournal.onEvent(event(2L, DomainEventType.BOOKING_CREATED, 11L, BookingStatus.WAITING,
+                BookingRecurrence.WEEKLY));
+        bookingJournal.onEvent(event(3L, DomainEventType.BOOKING_STATUS_CHANGED, 10L, BookingStatus.APPROVED, null));
+        bookingJournal.flush();
+        RecordingModel model = new RecordingModel();
+
+        JournalReplayStats stats = bookingJournal.rebuild(model);
+
+        assertEquals(3, stats.getEvents());
+        assertEquals(3, model.events.size());
+        BookingJournalEvent approved = model.events.get(2);
+        assertEquals(3L, approved.getEventId());
+        assertEquals(BookingEventType.STATUS_CHANGED, approved.getType());
+        assertEquals(10L, approved.getBookingId());
+        assertEquals(5L, approved.getItemId());
+        assertEquals(7L, approved.getBookerId());
+        assertEquals(BookingStatus.APPROVED, approved.getStatus());
+        assertEquals(start, approved.getStart());
+        assertNull(approved.getRecurrence());
+        assertEquals(BookingRecurrence.WEEKLY, model.events.get(1).getRecurrence());
+        assertEquals(start.plusWeeks(4), model.events.get(1).getRecurrenceUntil());
+    }
+
+    @Test
+    void onEvent_skipsEventJournaledBeforeRestart() throws Exception {
+        bookingJournal.onEvent(event(1L, DomainEventType.BOOKING_CREATED, 10L, BookingStatus.WAITING, null));
+        bookingJournal.flush();
+        bookingJournal.close();
+        bookingJournal = open();
+
+        bookingJournal.onEvent(event(1L, DomainEventType.BOOKING_CREATED, 10L, BookingStatus.WAITING, null));
+        bookingJournal.onEvent(event(2L, DomainEventType.BOOKING_STATUS_CHANGED, 10L, BookingStatus.APPROVED, null));
+        bookingJournal.flush();
+
+        RecordingModel model = new RecordingModel();
+        bookingJournal.rebuild(model);
+        assertEquals(List.of(1L, 2L), List.of(model.events.get(0).getEventId(), model.events.get(1).getEventId()));
+    }
+
+    @Test
+    void supports_onlyBookingEvents() {
+        assertTrue(bookingJournal.supports(DomainEventType.BOOKING_STATUS_CHANGED));
+        assertFalse(bookingJournal.supports(DomainEventType.ITEM_UPDATED));
+    }
+
+    @Test
+    void rebuild_replayThroughput() throws Exception {
+        int events = 200_000;
+        for (long id = 1; id <= events; id++) {
+            bookingJournal.onEvent(event(id, id % 2 == 0 ? DomainEventType.BOOKING_STATUS_CHANGED
+                    : DomainEventType.BOOKING_CREATED, id / 2, BookingStatus.WAITING, null));
+            if (id % 1_000 == 0) {
+                bookingJournal.flush();
+            }
+        }
+        bookingJournal.flush();
+        StatusCountModel model = new StatusCountModel();
+
+        JournalReplayStats stats = bookingJournal.rebuild(model);
+
+        log.info("Replayed {} booking journal events at {} events/s", stats.getEvents(),
+                (long) stats.getEventsPerSecond());
+        assertEquals(events, stats.getEvents());
+        assertEquals(events / 2 + 1, model.statuses.size());
+    }
+
+    private BookingJournal open() throws IOException {
+        return new BookingJournal(objectMapper, new SimpleMeterRegistry(), directory.toString(),
+                DataSize.ofMegabytes(1));
+    }
+
+    private DomainEvent event(long id, DomainEventType type, long bookingId, BookingStatus status,
+                              BookingRecurrence recurrence) throws Exception {
+        BookingDto booking = BookingDto.builder()
+                .id(bookingId)
+                .itemId(5L)
+                .bookerId(7L)
+                .status(status)
+                .start(start)
+                .end(start.plusHours(2))
+                .recurrence(recurrence)
+                .recurrenceUntil(recurrence == null ? null : start.plusWeeks(4))
+                .build();
+        return DomainEvent.builder()
+                .id(id)
+                .type(type)
+                .aggregateId(bookingId)
+                .payload(objectMapper.writeValueAsString(booking))
+                .created(LocalDateTime.now())
+                .build();
+    }
+
+    private static class RecordingModel implements BookingReadModel {
+        private final List<BookingJournalEvent> events = new ArrayList<>();
+
+        @Override
+        public void reset() {
+            events.clear();
+        }
+
+        @Override
+        public void apply(BookingJournalEvent event) {
+            events.add(event);
+        }
+    }
+
+    private static class StatusCountModel implements BookingReadModel {
+        private final Map<Long, BookingStatus> statuses = new HashMap<>();
+        private final Map<BookingStatus, Integer> counts = new EnumMap<>(BookingStatus.class);
+
+        @Override
+        public void reset() {
+            statuses.clear();
+            counts.clear();
+        }
+
+        @Override
+        public void apply(BookingJournalEvent event) {
+            BookingStatus previous = statuses.put(event.getBookingId(), event.getStatus());
+            if (previous != null) {
+                counts.merge(previous, -1, Integer::sum);
+            }
+            counts.merge(event.getStatus(), 1, Integer::sum);
+        }
+    }
+}
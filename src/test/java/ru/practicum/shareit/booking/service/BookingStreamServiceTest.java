@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingStreamServiceTest {
+    @Mock
+    private UserRepository userRepository;
+
+    private BookingStreamService bookingStreamService;
+
+    @BeforeEach
+    void setUp() {
+        bookingStreamService = new BookingStreamService(userRepository, Duration.ofMinutes(1), 2, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingStreamService.shutdown();
+    }
+
+    @Test
+    void subscribe_throwsException_whenUserNotFound() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> bookingStreamService.subscribe(1L));
+    }
+
+    @Test
+    void subscriber_dropsOldestEvent_whenBufferIsFull() {
+        BookingStreamService.Subscriber subscriber = new BookingStreamService.Subscriber(new SseEmitter(), 2);
+
+        assertTrue(subscriber.offer(event(1L, 1L)));
+        assertFalse(subscriber.offer(event(1L, 2L)));
+        assertFalse(subscriber.offer(event(1L, 3L)));
+
+        assertEquals(2L, subscriber.poll().getBooking().getId());
+        assertEquals(3L, subscriber.poll().getBooking().getId());
+        assertNull(subscriber.poll());
+        assertTrue(subscriber.offer(event(1L, 4L)));
+    }
+
+    private static BookingEvent event(long ownerId, long bookingId) {
+        return new BookingEvent(BookingEventType.CREATED, ownerId, BookingDto.builder()
+                .id(bookingId)
+                .status(BookingStatus.WAITING)
+                .build());
+    }
+}
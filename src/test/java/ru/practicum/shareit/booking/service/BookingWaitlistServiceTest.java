@@ -0,0 +1,233 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.WaitlistEntryDto;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRecurrence;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.WaitlistEntry;
+import ru.practicum.shareit.booking.repository.BookingIntervalView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.WaitlistEntryRepository;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.validation.ValidationException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingWaitlistServiceTest {
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1);
+    private final AtomicLong ids = new AtomicLong();
+
+    @Mock
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private BookingHoldRegistry bookingHoldRegistry;
+
+    @Spy
+    private BookingMapper bookingMapper = new BookingMapper(new ItemMapper(), new UserMapper());
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BookingWaitlistService bookingWaitlistService;
+
+    @Test
+    void join_savesEntryWithPosition() {
+        stubJoin();
+
+        WaitlistEntryDto first = bookingWaitlistService.join(3L, 1L, window(start));
+        WaitlistEntryDto second = bookingWaitlistService.join(4L, 1L, window(start));
+
+        assertEquals(1, first.getPosition());
+        assertEquals(2, second.getPosition());
+        verify(waitlistEntryRepository, times(2)).save(any(WaitlistEntry.class));
+    }
+
+    @Test
+    void join_throwsException_whenUserAlreadyWaitsForPeriod() {
+        when(itemRepository.findAllByIdInForUpdate(List.of(1L))).thenReturn(List.of(item()));
+        when(userRepository.existsById(3L)).thenReturn(true);
+        when(waitlistEntryRepository.existsByItemIdAndUserIdAndStartAndEnd(1L, 3L, start, start.plusHours(1)))
+                .thenReturn(true);
+
+        assertThrows(ValidationException.class, () -> bookingWaitlistService.join(3L, 1L, window(start)));
+        verify(waitlistEntryRepository, never()).save(any());
+    }
+
+    @Test
+    void join_throwsException_whenOwnerJoins() {
+        when(itemRepository.findAllByIdInForUpdate(List.of(1L))).thenReturn(List.of(item()));
+        when(userRepository.existsById(2L)).thenReturn(true);
+
+        assertThrows(NotFoundException.class, () -> bookingWaitlistService.join(2L, 1L, window(start)));
+        verify(waitlistEntryRepository, never()).save(any());
+    }
+
+    @Test
+    void onBookingEvent_promotesFirstCompatibleWaiter_whenBookingRejected() {
+        WaitlistEntry later = entry(3L, start.plusDays(5));
+        WaitlistEntry blocked = entry(4L, start.plusMinutes(30));
+        WaitlistEntry free = entry(5L, start);
+        when(itemRepository.findAllByIdInForUpdate(List.of(1L))).thenReturn(List.of(item()));
+        when(waitlistEntryRepository.findAllByItemIdOrderById(1L)).thenReturn(List.of(later, blocked, free));
+        when(bookingRepository.findIntervals(List.of(1L), BookingStatus.APPROVED, start.plusMinutes(30),
+                start.plusMinutes(90))).thenReturn(List.of(approved(start.plusMinutes(60), start.plusMinutes(120))));
+        when(bookingRepository.findIntervals(List.of(1L), BookingStatus.APPROVED, start, start.plusHours(1)))
+                .thenReturn(List.of());
+        when(userRepository.findById(5L)).thenReturn(Optional.of(user(5L)));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        bookingWaitlistService.onBookingEvent(event(BookingStatus.REJECTED));
+
+        ArgumentCaptor<Booking> booking = ArgumentCaptor.forClass(Booking.class);
+        verify(bookingRepository).save(booking.capture());
+        assertEquals(5L, booking.getValue().getBooker().getId());
+        assertEquals(BookingStatus.WAITING, booking.getValue().getStatus());
+        assertEquals(start, booking.getValue().getStart());
+        verify(waitlistEntryRepository).delete(free);
+        verify(waitlistEntryRepository, never()).delete(later);
+        verify(waitlistEntryRepository, never()).delete(blocked);
+        verify(eventPublisher).publishEvent(any(BookingEvent.class));
+    }
+
+    @Test
+    void onBookingEvent_ignoresApprovedBookings() {
+        bookingWaitlistService.onBookingEvent(event(BookingStatus.APPROVED));
+
+        verify(bookingRepository, never()).save(any());
+        verify(waitlistEntryRepository, never()).findAllByItemIdOrderById(anyLong());
+        verify(waitlistEntryRepository, never()).delete(any(WaitlistEntry.class));
+    }
+
+    private void stubJoin() {
+        when(itemRepository.findAllByIdInForUpdate(List.of(1L))).thenReturn(List.of(item()));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(waitlistEntryRepository.save(any(WaitlistEntry.class))).thenAnswer(invocation -> {
+            WaitlistEntry entry = invocation.getArgument(0);
+            entry.setId(ids.incrementAndGet());
+            return entry;
+        });
+        when(waitlistEntryRepository.countByItemIdAndIdLessThanEqual(eq(1L), anyLong()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+    }
+
+    private BookingEvent event(BookingStatus status) {
+        return new BookingEvent(BookingEventType.STATUS_CHANGED, 2L, BookingDto.builder()
+                .id(10L)
+                .item(ItemDto.builder().id(1L).build())
+                .status(status)
+                .start(start)
+                .end(start.plusHours(1))
+                .build());
+    }
+
+    private WaitlistEntry entry(long userId, LocalDateTime windowStart) {
+        return WaitlistEntry.builder()
+                .id(ids.incrementAndGet())
+                .itemId(1L)
+                .userId(userId)
+                .start(windowStart)
+                .end(windowStart.plusHours(1))
+                .created(LocalDateTime.now())
+                .build();
+    }
+
+    private WaitlistEntryDto window(LocalDateTime windowStart) {
+        return WaitlistEntryDto.builder()
+                .start(windowStart)
+                .end(windowStart.plusHours(1))
+                .build();
+    }
+
+    private BookingIntervalView approved(LocalDateTime intervalStart, LocalDateTime intervalEnd) {
+        return new BookingIntervalView() {
+            @Override
+            public Long getItemId() {
+                return 1L;
+            }
+
+            @Override
+            public LocalDateTime getStartDate() {
+                return intervalStart;
+            }
+
+            @Override
+            public LocalDateTime getEndDate() {
+                return intervalEnd;
+            }
+
+            @Override
+            public BookingRecurrence getRecurrence() {
+                return null;
+            }
+
+            @Override
+            public LocalDateTime getRecurrenceUntil() {
+                return null;
+            }
+        };
+    }
+
+    private Item item() {
+        return Item.builder()
+                .id(1L)
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(user(2L))
+                .build();
+    }
+
+    private User user(long id) {
+        return User.builder()
+                .id(id)
+                .build();
+    }
+}
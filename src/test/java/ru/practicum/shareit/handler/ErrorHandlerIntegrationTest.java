@@ -7,10 +7,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.controller.UserController;
 import ru.practicum.shareit.user.service.UserService;
@@ -20,6 +22,7 @@ import java.time.LocalDateTime;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -70,6 +73,24 @@ class ErrorHandlerIntegrationTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @SneakyThrows
+    void handleOptimisticLockExceptionStatusTest() {
+        long itemId = 1L;
+        ItemDto itemDto = ItemDto.builder()
+                .name("updated name")
+                .build();
+
+        when(itemService.updateItem(any(ItemDto.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(ItemDto.class, itemId));
+
+        mockMvc.perform(patch("/items/{itemId}", itemId)
+                        .header("X-Sharer-User-Id", "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(itemDto)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     @SneakyThrows
     void handleExceptionTest() {
@@ -0,0 +1,219 @@
+package ru.practicum.shareit.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyKeyFilterTest {
+    private final AtomicInteger executions = new AtomicInteger();
+    private IdempotencyStore store;
+    private IdempotencyKeyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(2, Duration.ofHours(1));
+        filter = new IdempotencyKeyFilter(store, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void shouldReplayResponseForRepeatedKey() throws Exception {
+        MockHttpServletResponse first = perform(request(1L, "/bookings", "key"), countingChain(201));
+        MockHttpServletResponse second = perform(request(1L, "/bookings", "key"), countingChain(201));
+
+        assertEquals(1, executions.get());
+        assertEquals(201, second.getStatus());
+        assertEquals(first.getContentAsString(), second.getContentAsString());
+        assertEquals("true", second.getHeader(IdempotencyKeyFilter.IDEMPOTENT_REPLAYED_HEADER));
+        assertNull(first.getHeader(IdempotencyKeyFilter.IDEMPOTENT_REPLAYED_HEADER));
+    }
+
+    @Test
+    void shouldRejectRepeatedKeyWithAnotherBody() throws Exception {
+        StringBuilder handledBody = new StringBuilder();
+        FilterChain chain = (req, res) -> {
+            handledBody.append(new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+            countingChain(201).doFilter(req, res);
+        };
+        MockHttpServletResponse first = perform(request(1L, "/bookings", "key", "{\"itemId\":1}"), chain);
+        MockHttpServletResponse replayed = perform(request(1L, "/bookings", "key", "{\"itemId\":1}"), chain);
+        MockHttpServletResponse rejected = perform(request(1L, "/bookings", "key", "{\"itemId\":2}"), chain);
+
+        assertEquals(1, executions.get());
+        assertEquals("{\"itemId\":1}", handledBody.toString());
+        assertEquals(first.getContentAsString(), replayed.getContentAsString());
+        assertEquals(422, rejected.getStatus());
+    }
+
+    @Test
+    void shouldNotifyReadListenerOfCachedBody() throws Exception {
+        StringBuilder handledBody = new StringBuilder();
+        FilterChain chain = (req, res) -> {
+            ServletInputStream input = req.getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    handledBody.append(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    handledBody.append('.');
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    handledBody.append('!');
+                }
+            });
+            countingChain(201).doFilter(req, res);
+        };
+
+        perform(request(1L, "/bookings", "key", "{\"itemId\":1}"), chain);
+
+        assertEquals("{\"itemId\":1}.", handledBody.toString());
+    }
+
+    @Test
+    void shouldRefuseNewKeyWhenStoreIsFullOfPendingEntries() throws Exception {
+        assertNotNull(store.putIfAbsent("a", new byte[0], new CompletableFuture<>()));
+        assertNotNull(store.putIfAbsent("b", new byte[0], new CompletableFuture<>()));
+
+        MockHttpServletResponse response = perform(request(1L, "/bookings", "key"), countingChain(201));
+
+        assertEquals(503, response.getStatus());
+        assertEquals(0, executions.get());
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void shouldScopeKeyByUserAndPath() throws Exception {
+        perform(request(1L, "/bookings", "key"), countingChain(201));
+        perform(request(2L, "/bookings", "key"), countingChain(201));
+        perform(request(1L, "/items", "key"), countingChain(201));
+
+        assertEquals(3, executions.get());
+    }
+
+    @Test
+    void shouldNotCacheWithoutKeyOrForOtherPaths() throws Exception {
+        perform(request(1L, "/bookings", null), countingChain(201));
+        perform(request(1L, "/bookings", null), countingChain(201));
+        perform(request(1L, "/users", "key"), countingChain(201));
+        perform(request(1L, "/users", "key"), countingChain(201));
+
+        assertEquals(4, executions.get());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void shouldExecuteAgainAfterServerError() throws Exception {
+        perform(request(1L, "/bookings", "key"), countingChain(500));
+        MockHttpServletResponse retry = perform(request(1L, "/bookings", "key"), countingChain(201));
+
+        assertEquals(2, executions.get());
+        assertEquals(201, retry.getStatus());
+    }
+
+    @Test
+    void shouldEvictOldestEntryWhenFull() throws Exception {
+        perform(request(1L, "/bookings", "a"), countingChain(201));
+        perform(request(1L, "/bookings", "b"), countingChain(201));
+        perform(request(1L, "/bookings", "c"), countingChain(201));
+        perform(request(1L, "/bookings", "a"), countingChain(201));
+
+        assertEquals(4, executions.get());
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void shouldExpireEntriesAfterTtl() throws Exception {
+        store = new IdempotencyStore(10, Duration.ofMillis(10));
+        filter = new IdempotencyKeyFilter(store, Duration.ofSeconds(5));
+        perform(request(1L, "/bookings", "key"), countingChain(201));
+        Thread.sleep(50);
+        perform(request(1L, "/bookings", "key"), countingChain(201));
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void shouldMakeInFlightDuplicateWaitForFirstExecution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slowChain = (req, res) -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            countingChain(201).doFilter(req, res);
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<MockHttpServletResponse> first = executor.submit(
+                    () -> perform(request(1L, "/bookings", "key"), slowChain));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<MockHttpServletResponse> duplicate = executor.submit(
+                    () -> perform(request(1L, "/bookings", "key"), countingChain(201)));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertEquals(first.get(5, TimeUnit.SECONDS).getContentAsString(),
+                    duplicate.get(5, TimeUnit.SECONDS).getContentAsString());
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private FilterChain countingChain(int status) {
+        return (req, res) -> {
+            int execution = executions.incrementAndGet();
+            ((HttpServletResponse) res).setStatus(status);
+            res.setContentType("application/json");
+            res.getOutputStream().write(String.format("{\"id\":%d}", execution).getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static MockHttpServletRequest request(Long userId, String path, String key) {
+        return request(userId, path, key, "");
+    }
+
+    private static MockHttpServletRequest request(Long userId, String path, String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        request.addHeader("X-Sharer-User-Id", userId);
+        if (key != null) {
+            request.addHeader(IdempotencyKeyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.event.BookingJournalEvent;
+import ru.practicum.shareit.booking.event.BookingsEndedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingBookerView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingJournal;
+import ru.practicum.shareit.item.service.CommentEligibilityIndex;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CommentEligibilityIndexTest {
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ObjectProvider<BookingJournal> bookingJournal;
+
+    private CommentEligibilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CommentEligibilityIndex(bookingRepository, bookingJournal, Duration.ofDays(30), 2);
+    }
+
+    @Test
+    void contains_onlyAddedBookersOfTheItem() {
+        index.add(1L, 5L);
+        index.add(1L, 3L);
+        index.add(1L, 5L);
+        index.add(2L, 4L);
+
+        assertTrue(index.contains(1L, 3L));
+        assertTrue(index.contains(1L, 5L));
+        assertFalse(index.contains(1L, 4L));
+        assertFalse(index.contains(3L, 5L));
+    }
+
+    @Test
+    void onBookingsEnded_addsEveryBooker() {
+        index.onBookingsEnded(new BookingsEndedEvent(List.of(booking(1, 1, 9), booking(2, 1, 2),
+                booking(3, 2, 9), booking(4, 1, 9))));
+
+        assertTrue(index.contains(1L, 9L));
+        assertTrue(index.contains(1L, 2L));
+        assertTrue(index.contains(2L, 9L));
+        assertFalse(index.contains(2L, 2L));
+    }
+
+    @Test
+    void apply_addsBookersOfEndedApprovedBookings() {
+        LocalDateTime now = LocalDateTime.now();
+
+        index.apply(journalEvent(1L, 9L, BookingStatus.APPROVED, now.minusDays(1)));
+        index.apply(journalEvent(1L, 8L, BookingStatus.APPROVED, now.plusDays(1)));
+        index.apply(journalEvent(1L, 7L, BookingStatus.REJECTED, now.minusDays(1)));
+
+        assertTrue(index.contains(1L, 9L));
+        assertFalse(index.contains(1L, 8L));
+        assertFalse(index.contains(1L, 7L));
+    }
+
+    @Test
+    void warmUp_readsEndedBookingsInChunks() {
+        when(bookingRepository.findBookersByStatusAndEndBetween(eq(BookingStatus.APPROVED), any(), any(), eq(0L),
+                eq(PageRequest.of(0, 2)))).thenReturn(List.of(booking(1, 1, 7), booking(4, 2, 8)));
+        when(bookingRepository.findBookersByStatusAndEndBetween(eq(BookingStatus.APPROVED), any(), any(), eq(4L),
+                eq(PageRequest.of(0, 2)))).thenReturn(List.of(booking(6, 1, 6)));
+        when(bookingRepository.findBookersByStatusAndEndBetween(eq(BookingStatus.APPROVED), any(), any(), eq(6L),
+                eq(PageRequest.of(0, 2)))).thenReturn(List.of());
+
+        index.warmUp();
+
+        verify(bookingJournal).ifAvailable(any());
+
+        assertTrue(index.contains(1L, 6L));
+        assertTrue(index.contains(1L, 7L));
+        assertTrue(index.contains(2L, 8L));
+        assertFalse(index.contains(2L, 7L));
+    }
+
+    private static BookingJournalEvent journalEvent(long itemId, long bookerId, BookingStatus status,
+                                                    LocalDateTime end) {
+        return BookingJournalEvent.builder()
+                .type(BookingEventType.STATUS_CHANGED)
+                .itemId(itemId)
+                .bookerId(bookerId)
+                .status(status)
+                .start(end.minusHours(1))
+                .end(end)
+                .build();
+    }
+
+    private static BookingBookerView booking(long id, long itemId, long bookerId) {
+        return new BookingBookerView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getBookerId() {
+                return bookerId;
+            }
+        };
+    }
+}
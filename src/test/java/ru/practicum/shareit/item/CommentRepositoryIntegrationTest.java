@@ -1,10 +1,14 @@
 package ru.practicum.shareit.item;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
@@ -12,11 +16,11 @@ import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
 
-@DataJpaTest
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true"})
 class CommentRepositoryIntegrationTest {
     @Autowired
     private TestEntityManager entityManager;
@@ -63,13 +67,94 @@ class CommentRepositoryIntegrationTest {
     }
 
     @Test
-    void findByItemIdTest() {
+    void countByItemIdTest() {
         long itemId = persistedItem.getId();
-        List<Comment> comments = commentRepository.findByItemId(itemId);
 
-        assertNotNull(comments);
-        assertEquals(2, comments.size());
-        assertEquals("test comment 1", comments.get(0).getText());
-        assertEquals("test comment 2", comments.get(1).getText());
+        assertEquals(2, commentRepository.countByItemId(itemId));
+    }
+
+    @Test
+    void findLatestCommentDtosByItemId_readsAuthorsInOneStatement() {
+        for (int i = 0; i < 10; i++) {
+            User author = entityManager.persist(User.builder()
+                    .name("author " + i)
+                    .email(String.format("author%d@example.com", i))
+                    .build());
+            entityManager.persist(Comment.builder()
+                    .text("comment " + i)
+                    .author(author)
+                    .item(persistedItem)
+                    .created(LocalDateTime.now())
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<CommentDto> comments = commentRepository.findLatestCommentDtosByItemId(persistedItem.getId(),
+                PageRequest.of(0, 20));
+
+        assertEquals(12, comments.size());
+        assertEquals("author 9", comments.get(0).getAuthorName());
+        assertEquals("test user", comments.get(11).getAuthorName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findLatestCommentDtosByItemId_returnsNewestFirst() {
+        entityManager.flush();
+        entityManager.clear();
+
+        List<CommentDto> comments = commentRepository.findLatestCommentDtosByItemId(persistedItem.getId(),
+                PageRequest.of(0, 1));
+
+        assertEquals(List.of("test comment 2"), comments.stream()
+                .map(CommentDto::getText)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void findCommentDtosByItemIdBefore_continuesAfterTheCursor() {
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 12, 0);
+        User author = entityManager.persist(User.builder()
+                .name("author")
+                .email("author@example.com")
+                .build());
+        Item item = entityManager.persist(Item.builder()
+                .name("other item")
+                .description("other description")
+                .owner(author)
+                .available(true)
+                .build());
+        for (int i = 0; i < 4; i++) {
+            entityManager.persist(Comment.builder()
+                    .text("comment " + i)
+                    .author(author)
+                    .item(item)
+                    .created(i < 2 ? created : created.plusHours(i))
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<CommentDto> first = commentRepository.findLatestCommentDtosByItemId(item.getId(), PageRequest.of(0, 2));
+        CommentDto last = first.get(1);
+        List<CommentDto> second = commentRepository.findCommentDtosByItemIdBefore(item.getId(), last.getCreated(),
+                last.getId(), PageRequest.of(0, 2));
+        CommentDto tieBreak = second.get(0);
+        List<CommentDto> third = commentRepository.findCommentDtosByItemIdBefore(item.getId(),
+                tieBreak.getCreated(), tieBreak.getId(), PageRequest.of(0, 2));
+
+        assertEquals(List.of("comment 3", "comment 2"), texts(first));
+        assertEquals(List.of("comment 1", "comment 0"), texts(second));
+        assertEquals(List.of("comment 0"), texts(third));
+    }
+
+    private static List<String> texts(List<CommentDto> comments) {
+        return comments.stream()
+                .map(CommentDto::getText)
+                .collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.event.CommentCreatedEvent;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.CommentTextView;
+import ru.practicum.shareit.item.service.CommentSearchIndex;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CommentSearchIndexTest {
+    @Mock
+    private CommentRepository commentRepository;
+
+    private CommentSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CommentSearchIndex(commentRepository, 2);
+    }
+
+    @Test
+    void search_matchesEveryWordAsPrefix() {
+        when(commentRepository.findTextsByOwnerId(1L)).thenReturn(List.of(
+                comment(10, "Дрель сломанная, грязный кейс"),
+                comment(11, "Всё отлично, чистая"),
+                comment(12, "Сломан патрон")));
+
+        assertEquals(Set.of(10L, 12L), index.search(1L, "сломан"));
+        assertEquals(Set.of(10L), index.search(1L, "СЛОМАН грязн"));
+        assertEquals(Set.of(11L), index.search(1L, "все"));
+        assertEquals(Set.of(), index.search(1L, "сломан чистая"));
+        assertEquals(Set.of(), index.search(1L, " , "));
+        verify(commentRepository, times(1)).findTextsByOwnerId(1L);
+    }
+
+    @Test
+    void search_readsOnlyTheOwnersShard() {
+        when(commentRepository.findTextsByOwnerId(1L)).thenReturn(List.of(comment(10, "broken")));
+        when(commentRepository.findTextsByOwnerId(2L)).thenReturn(List.of(comment(20, "broken handle")));
+
+        assertEquals(Set.of(10L), index.search(1L, "broken"));
+        assertEquals(Set.of(20L), index.search(2L, "broken"));
+        assertEquals(Set.of(), index.search(1L, "handle"));
+    }
+
+    @Test
+    void onCommentCreated_updatesBuiltShardOnly() {
+        when(commentRepository.findTextsByOwnerId(1L)).thenReturn(List.of(comment(10, "dirty")));
+        index.onCommentCreated(new CommentCreatedEvent(2L, 5L, 30L, "dirty"));
+        index.search(1L, "dirty");
+
+        index.onCommentCreated(new CommentCreatedEvent(1L, 5L, 11L, "Dirty and broken"));
+
+        assertEquals(Set.of(10L, 11L), index.search(1L, "dirty"));
+        verify(commentRepository, never()).findTextsByOwnerId(2L);
+    }
+
+    @Test
+    void search_rebuildsEvictedShard() {
+        when(commentRepository.findTextsByOwnerId(1L)).thenReturn(List.of(comment(10, "dirty")));
+        when(commentRepository.findTextsByOwnerId(2L)).thenReturn(List.of());
+        when(commentRepository.findTextsByOwnerId(3L)).thenReturn(List.of());
+
+        index.search(1L, "dirty");
+        index.search(2L, "dirty");
+        index.search(3L, "dirty");
+
+        assertEquals(Set.of(10L), index.search(1L, "dirty"));
+        verify(commentRepository, times(2)).findTextsByOwnerId(1L);
+    }
+
+    private static CommentTextView comment(long id, String text) {
+        return new CommentTextView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getText() {
+                return text;
+            }
+        };
+    }
+}
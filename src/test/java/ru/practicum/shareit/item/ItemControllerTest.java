@@ -5,24 +5,30 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.CommentSearchHitDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -125,6 +131,45 @@ class ItemControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getComments_passesCursorAndReturnsNextCursor() throws Exception {
+        when(itemService.getComments(1L, 2L, "abc", 5)).thenReturn(new CommentPageDto(
+                List.of(CommentDto.builder().id(7L).text("comment").build()), "def"));
+
+        this.mockMvc.perform(get("/items/1/comments")
+                        .header("X-Sharer-User-Id", "2")
+                        .param("after", "abc")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].id").value(7))
+                .andExpect(jsonPath("$.nextCursor").value("def"));
+    }
+
+    @Test
+    void getComments_respondsWithBadRequest_whenSizeExceedsMaximum() throws Exception {
+        this.mockMvc.perform(get("/items/1/comments")
+                        .header("X-Sharer-User-Id", "2")
+                        .param("size", "101"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemService);
+    }
+
+    @Test
+    void searchComments_returnsHitsOfCaller() throws Exception {
+        when(itemService.searchComments(2L, "сломан", PageRequest.of(1, 5))).thenReturn(List.of(
+                CommentSearchHitDto.builder().id(7L).itemId(3L).text("Сломан").build()));
+
+        this.mockMvc.perform(get("/items/comments/search")
+                        .header("X-Sharer-User-Id", "2")
+                        .param("text", "сломан")
+                        .param("from", "5")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(7))
+                .andExpect(jsonPath("$[0].itemId").value(3));
+    }
+
     @Test
     void createCommentTest_returnStatusOk() throws Exception {
         String json = objectMapper.writeValueAsString(createCommentDto());
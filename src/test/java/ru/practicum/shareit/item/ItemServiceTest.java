@@ -7,6 +7,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -14,6 +15,7 @@ import org.springframework.data.jpa.domain.Specification;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.*;
@@ -21,15 +23,24 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.event.CommentCreatedEvent;
+import ru.practicum.shareit.item.service.CommentEligibilityIndex;
+import ru.practicum.shareit.item.service.CommentSearchIndex;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.service.OwnerItemViewService;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.validation.ValidationException;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -47,9 +58,27 @@ class ItemServiceTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private OwnerItemViewService ownerItemViewService;
+
+    @Mock
+    private CommentEligibilityIndex commentEligibilityIndex;
+
+    @Mock
+    private CommentSearchIndex commentSearchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @Spy
     private ItemMapper itemMapper;
 
@@ -280,7 +309,8 @@ class ItemServiceTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(commentRepository.findByItemId(anyLong())).thenReturn(Collections.emptyList());
+        when(commentRepository.findLatestCommentDtosByItemId(anyLong(), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
         when(bookingRepository.findAll(any(Specification.class), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(List.of(lastBooking)))
                 .thenReturn(new PageImpl<>(List.of(nextBooking)));
@@ -303,38 +333,21 @@ class ItemServiceTest {
         User user = User.builder()
                 .id(userId)
                 .build();
-
-        Item item = Item.builder()
+        ItemDto itemDto = ItemDto.builder()
                 .id(1L)
-                .owner(user)
+                .commentCount(0)
                 .build();
-
-        Booking booking = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().minusMonths(1))
-                .end(LocalDateTime.now().plusDays(2))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.WAITING)
-                .build();
-
         Pageable pageable = PageRequest.of(0, 10);
-        List<Item> items = Collections.singletonList(item);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwnerId(anyLong(), any(Pageable.class))).thenReturn(items);
-        when(bookingRepository.findAll(any(Specification.class), eq(PageRequest.of(0, 1))))
-                .thenReturn(new PageImpl<>(Collections.singletonList(booking)));
-        when(commentRepository.findByItemId(anyLong())).thenReturn(Collections.emptyList());
+        when(ownerItemViewService.findByOwnerId(userId, pageable)).thenReturn(List.of(itemDto));
 
 
         List<ItemDto> result = itemService.getAllItemsByUserId(userId, pageable);
 
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(itemMapper, times(1)).toItemDto(item);
-        verify(bookingMapper, times(2)).toBookingDto(booking);
+        assertEquals(List.of(itemDto), result);
+        verify(itemRepository, never()).findAllByOwnerId(anyLong(), any(Pageable.class));
     }
 
     @Test
@@ -412,5 +425,120 @@ class ItemServiceTest {
         assertNotNull(result);
         assertEquals(commentDto.getText(), result.getText());
         assertEquals(user.getName(), result.getAuthorName());
+        verify(commentEligibilityIndex).add(itemId, userId);
+        verify(eventPublisher).publishEvent(any(CommentCreatedEvent.class));
+    }
+
+    @Test
+    void createComment_skipsBookingQueriesWhenIndexed() {
+        long itemId = 1L;
+        long userId = 2L;
+        User user = User.builder()
+                .id(userId)
+                .name("test user")
+                .build();
+        Item item = Item.builder()
+                .id(itemId)
+                .owner(User.builder().id(3L).build())
+                .name("test item")
+                .available(true)
+                .build();
+        Comment comment = Comment.builder()
+                .id(1L)
+                .text("test comment")
+                .author(user)
+                .item(item)
+                .created(LocalDateTime.now())
+                .build();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(commentEligibilityIndex.contains(itemId, userId)).thenReturn(true);
+        when(commentRepository.save(any(Comment.class))).thenReturn(comment);
+
+        CommentDto result = itemService.createComment(itemId, userId,
+                CommentDto.builder().text("test comment").build());
+
+        assertEquals("test comment", result.getText());
+        verifyNoInteractions(bookingRepository, archivedBookingRepository);
+    }
+
+    @Test
+    void createComment_rejectedWhenNotIndexedAndNoCompletedBooking() {
+        long itemId = 1L;
+        long userId = 2L;
+        when(userRepository.findById(userId)).thenReturn(Optional.of(User.builder().id(userId).build()));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(Item.builder().id(itemId).build()));
+        when(bookingRepository.exists(any(Specification.class))).thenReturn(false);
+
+        assertThrows(ValidationException.class, () -> itemService.createComment(itemId, userId,
+                CommentDto.builder().text("test comment").build()));
+        verify(commentEligibilityIndex, never()).add(anyLong(), anyLong());
+    }
+
+    @Test
+    void getComments_pagesWithCursorUntilLastPage() {
+        long itemId = 1L;
+        long userId = 2L;
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<CommentDto> comments = LongStream.rangeClosed(1, 3)
+                .mapToObj(id -> CommentDto.builder()
+                        .id(4 - id)
+                        .text("comment " + (4 - id))
+                        .created(created.minusHours(id))
+                        .build())
+                .collect(Collectors.toList());
+        when(userRepository.findById(userId)).thenReturn(Optional.of(User.builder().id(userId).build()));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(Item.builder().id(itemId).build()));
+        when(commentRepository.findLatestCommentDtosByItemId(itemId, PageRequest.of(0, 3)))
+                .thenReturn(comments);
+        when(commentRepository.findCommentDtosByItemIdBefore(itemId, created.minusHours(2), 2L,
+                PageRequest.of(0, 3))).thenReturn(comments.subList(2, 3));
+
+        CommentPageDto first = itemService.getComments(itemId, userId, null, 2);
+        CommentPageDto second = itemService.getComments(itemId, userId, first.getNextCursor(), 2);
+
+        assertEquals(2, first.getComments().size());
+        assertNotNull(first.getNextCursor());
+        assertEquals(List.of(1L), second.getComments().stream()
+                .map(CommentDto::getId)
+                .collect(Collectors.toList()));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void getComments_rejectsMalformedCursor() {
+        when(userRepository.findById(2L)).thenReturn(Optional.of(User.builder().id(2L).build()));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(Item.builder().id(1L).build()));
+
+        assertThrows(ValidationException.class, () -> itemService.getComments(1L, 2L, "not a cursor", 10));
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void searchComments_readsHitsOfRequestedPageOnly() {
+        long userId = 1L;
+        Pageable pageable = PageRequest.of(1, 2);
+        CommentSearchHitDto hit = CommentSearchHitDto.builder()
+                .id(5L)
+                .itemId(2L)
+                .text("Сломан замок")
+                .build();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(User.builder().id(userId).build()));
+        when(commentSearchIndex.search(userId, "сломан")).thenReturn(Set.of(3L, 5L, 7L, 9L, 11L));
+        when(commentRepository.findSearchHits(List.of(7L, 5L), userId)).thenReturn(List.of(hit));
+
+        assertEquals(List.of(hit), itemService.searchComments(userId, "сломан", pageable));
+        assertTrue(itemService.searchComments(userId, "сломан", PageRequest.of(3, 2)).isEmpty());
+    }
+
+    @Test
+    void searchComments_skipsQueryWhenNothingMatches() {
+        long userId = 1L;
+        when(userRepository.findById(userId)).thenReturn(Optional.of(User.builder().id(userId).build()));
+        when(commentSearchIndex.search(userId, "грязный")).thenReturn(Set.of());
+
+        assertTrue(itemService.searchComments(userId, "грязный", PageRequest.of(0, 10)).isEmpty());
+        assertTrue(itemService.searchComments(userId, " ", PageRequest.of(0, 10)).isEmpty());
+        verifyNoInteractions(commentRepository);
     }
 }
\ No newline at end of file
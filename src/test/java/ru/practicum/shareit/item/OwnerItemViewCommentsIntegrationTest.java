@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource(properties = {"db.name=testOwnerItemViewComments", "shareit.owner-item-view.latest-comments=10"})
+class OwnerItemViewCommentsIntegrationTest {
+    private static final int MAX_COMMENT_LENGTH = 1024;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void getAllItemsByUserId_keepsLatestCommentsOfMaximumLengthAndEscaping() {
+        long ownerId = createUser("owner");
+        long bookerId = createUser("booker");
+        long itemId = itemService.createItem(ItemDto.builder()
+                .ownerId(ownerId)
+                .available(true)
+                .name("Item")
+                .description("Item description")
+                .build()).getId();
+        long bookingId = bookingService.createBooking(BookingDto.builder()
+                .bookerId(bookerId)
+                .itemId(itemId)
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .build()).getId();
+        bookingService.updateBooking(BookingDto.builder()
+                .id(bookingId)
+                .bookerId(ownerId)
+                .approved(true)
+                .build());
+        String text = IntStream.range(0, MAX_COMMENT_LENGTH)
+                .mapToObj(i -> String.valueOf("\"\\\n\u0001".charAt(i % 4)))
+                .collect(Collectors.joining());
+
+        for (int i = 0; i < 10; i++) {
+            itemService.createComment(itemId, bookerId, CommentDto.builder()
+                    .text(text)
+                    .build());
+        }
+
+        ItemDto item = itemService.getAllItemsByUserId(ownerId, PageRequest.of(0, 10)).get(0);
+        assertEquals(10, item.getCommentCount());
+        assertEquals(10, item.getComments().size());
+        assertTrue(item.getComments().stream().allMatch(comment -> text.equals(comment.getText())));
+    }
+
+    private long createUser(String name) {
+        return userService.createUser(UserDto.builder()
+                .name(name)
+                .email(name + "@mail.net")
+                .build()).getId();
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.OwnerItemViewService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@TestPropertySource(properties = {"db.name=testOwnerItemView", "shareit.owner-item-view.latest-comments=2"})
+class OwnerItemViewIntegrationTest {
+    private final Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private OwnerItemViewService ownerItemViewService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void getAllItemsByUserId_followsItemBookingAndCommentWrites() throws InterruptedException {
+        long ownerId = createUser("owner");
+        long bookerId = createUser("booker");
+        long itemId = itemService.createItem(ItemDto.builder()
+                .ownerId(ownerId)
+                .available(true)
+                .name("Item")
+                .description("Item description")
+                .build()).getId();
+        itemService.updateItem(ItemDto.builder()
+                .id(itemId)
+                .ownerId(ownerId)
+                .name("Drill")
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        long pastBookingId = createApprovedBooking(ownerId, bookerId, itemId, now.minusDays(2), now.minusDays(1));
+        long soonBookingId = createApprovedBooking(ownerId, bookerId, itemId, now.plusSeconds(1),
+                now.plusHours(1));
+
+        ItemDto item = itemService.getAllItemsByUserId(ownerId, pageable).get(0);
+        assertEquals("Drill", item.getName());
+        assertEquals(pastBookingId, item.getLastBooking().getId());
+        assertEquals(soonBookingId, item.getNextBooking().getId());
+        assertEquals(bookerId, item.getNextBooking().getBookerId());
+
+        Thread.sleep(1_500);
+        item = itemService.getAllItemsByUserId(ownerId, pageable).get(0);
+        assertEquals(soonBookingId, item.getLastBooking().getId());
+        assertNull(item.getNextBooking());
+
+        for (String text : List.of("first", "second", "third")) {
+            itemService.createComment(itemId, bookerId, CommentDto.builder()
+                    .text(text)
+                    .build());
+        }
+        item = itemService.getAllItemsByUserId(ownerId, pageable).get(0);
+        assertEquals(3, item.getCommentCount());
+        assertEquals(List.of("third", "second"), texts(item));
+
+        List<ItemDto> incremental = itemService.getAllItemsByUserId(ownerId, pageable);
+        assertEquals(itemRepository.count(), ownerItemViewService.rebuild());
+        assertEquals(incremental, itemService.getAllItemsByUserId(ownerId, pageable));
+    }
+
+    @Test
+    void getAllItemsByUserId_followsUserRenameAndDelete() {
+        long ownerId = createUser("renameOwner");
+        long bookerId = createUser("renameBooker");
+        long itemId = itemService.createItem(ItemDto.builder()
+                .ownerId(ownerId)
+                .available(true)
+                .name("Ladder")
+                .description("Item description")
+                .build()).getId();
+        LocalDateTime now = LocalDateTime.now();
+        createApprovedBooking(ownerId, bookerId, itemId, now.minusDays(2), now.minusDays(1));
+        itemService.createComment(itemId, bookerId, CommentDto.builder()
+                .text("Sturdy")
+                .build());
+
+        userService.updateUser(UserDto.builder()
+                .id(bookerId)
+                .name("Renamed")
+                .build());
+        ItemDto item = itemService.getAllItemsByUserId(ownerId, pageable).get(0);
+        assertEquals("Renamed", item.getComments().get(0).getAuthorName());
+
+        userService.deleteUser(bookerId);
+        item = itemService.getAllItemsByUserId(ownerId, pageable).get(0);
+        assertNull(item.getLastBooking());
+        assertEquals(0, item.getCommentCount());
+        assertEquals(List.of(), item.getComments());
+    }
+
+    private List<String> texts(ItemDto item) {
+        return item.getComments().stream()
+                .map(CommentDto::getText)
+                .collect(Collectors.toList());
+    }
+
+    private long createApprovedBooking(long ownerId, long bookerId, long itemId, LocalDateTime start,
+                                       LocalDateTime end) {
+        long bookingId = bookingService.createBooking(BookingDto.builder()
+                .bookerId(bookerId)
+                .itemId(itemId)
+                .start(start)
+                .end(end)
+                .build()).getId();
+        bookingService.updateBooking(BookingDto.builder()
+                .id(bookingId)
+                .bookerId(ownerId)
+                .approved(true)
+                .build());
+        return bookingId;
+    }
+
+    private long createUser(String name) {
+        return userService.createUser(UserDto.builder()
+                .name(name)
+                .email(name + "@mail.net")
+                .build()).getId();
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_rollsSegmentsAndReplaysInOrder() throws IOException {
+        List<String> written = new ArrayList<>();
+        try (EventJournal journal = EventJournal.open(directory, 256)) {
+            List<CompletableFuture<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                written.add("record-" + i);
+                futures.add(journal.append(("record-" + i).getBytes(StandardCharsets.UTF_8)));
+            }
+            futures.forEach(CompletableFuture::join);
+
+            assertEquals(1L, futures.get(0).join());
+            assertEquals(50L, futures.get(49).join());
+            assertEquals(51, journal.getNextSequence());
+            assertTrue(segments().size() > 1);
+            assertEquals(written, replay(journal, 1));
+            assertEquals(written.subList(39, 50), replay(journal, 40));
+        }
+    }
+
+    @Test
+    void open_truncatesTornRecordAndContinuesSequence() throws IOException {
+        try (EventJournal journal = EventJournal.open(directory, 1024)) {
+            journal.append("first".getBytes(StandardCharsets.UTF_8)).join();
+            journal.append("second".getBytes(StandardCharsets.UTF_8)).join();
+        }
+        Path segment = segments().get(0);
+        long intactSize = Files.size(segment);
+        Files.write(segment, new byte[]{0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (EventJournal journal = EventJournal.open(directory, 1024)) {
+            assertEquals(intactSize, Files.size(segment));
+            assertEquals(3L, journal.append("third".getBytes(StandardCharsets.UTF_8)).join());
+            assertEquals(List.of("first", "second", "third"), replay(journal, 1));
+        }
+    }
+
+    @Test
+    void replay_stopsAtRecordWithBadChecksum() throws IOException {
+        try (EventJournal journal = EventJournal.open(directory, 1024)) {
+            journal.append("first".getBytes(StandardCharsets.UTF_8)).join();
+            journal.append("second".getBytes(StandardCharsets.UTF_8)).join();
+
+            Path segment = segments().get(0);
+            byte[] bytes = Files.readAllBytes(segment);
+            bytes[bytes.length - 1] ^= 1;
+            Files.write(segment, bytes);
+
+            assertEquals(List.of("first"), replay(journal, 1));
+        }
+    }
+
+    private List<String> replay(EventJournal journal, long fromSequence) throws IOException {
+        List<String> records = new ArrayList<>();
+        journal.replay(fromSequence, (sequence, payload) -> records.add(text(payload)));
+        return records;
+    }
+
+    private String text(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+}
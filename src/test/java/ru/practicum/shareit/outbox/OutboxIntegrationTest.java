@@ -0,0 +1,121 @@
+package ru.practicum.shareit.outbox;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.outbox.model.AggregateType;
+import ru.practicum.shareit.outbox.model.DomainEvent;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.outbox.service.DomainEventSubscriber;
+import ru.practicum.shareit.outbox.service.OutboxRelay;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource(properties = {"db.name=testOutbox", "shareit.outbox.enabled=true",
+        "shareit.outbox.interval=PT1H"})
+class OutboxIntegrationTest {
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private RecordingSubscriber recordingSubscriber;
+
+    @Test
+    void changes_areWrittenToOutboxAndDispatchedInOrder() {
+        long ownerId = createUser("owner");
+        long bookerId = createUser("booker");
+        long itemId = itemService.createItem(ItemDto.builder()
+                .ownerId(ownerId)
+                .available(true)
+                .name("Item")
+                .description("Item description")
+                .build()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        long bookingId = bookingService.createBooking(BookingDto.builder()
+                .bookerId(bookerId)
+                .itemId(itemId)
+                .start(start)
+                .end(start.plusHours(2))
+                .build()).getId();
+        bookingService.updateBooking(BookingDto.builder()
+                .id(bookingId)
+                .bookerId(ownerId)
+                .approved(true)
+                .build());
+
+        List<OutboxEvent> pending = outboxEventRepository.findAll();
+        assertEquals(List.of(DomainEventType.USER_CREATED, DomainEventType.USER_CREATED,
+                DomainEventType.ITEM_CREATED, DomainEventType.BOOKING_CREATED,
+                DomainEventType.BOOKING_STATUS_CHANGED), pending.stream()
+                .map(OutboxEvent::getType)
+                .collect(Collectors.toList()));
+        assertTrue(pending.get(4).getPayload().contains("\"status\":\"APPROVED\""));
+
+        outboxRelay.dispatchPending();
+
+        List<DomainEvent> bookingEvents = recordingSubscriber.events.stream()
+                .filter(event -> event.getAggregateType() == AggregateType.BOOKING
+                        && event.getAggregateId() == bookingId)
+                .collect(Collectors.toList());
+        assertEquals(List.of(DomainEventType.BOOKING_CREATED, DomainEventType.BOOKING_STATUS_CHANGED),
+                bookingEvents.stream()
+                        .map(DomainEvent::getType)
+                        .collect(Collectors.toList()));
+        outboxEventRepository.findAll().forEach(event -> assertNotNull(event.getDispatched()));
+    }
+
+    private long createUser(String name) {
+        return userService.createUser(UserDto.builder()
+                .name(name)
+                .email(name + "@mail.net")
+                .build()).getId();
+    }
+
+    @TestConfiguration
+    static class SubscriberConfiguration {
+        @Bean
+        RecordingSubscriber recordingSubscriber() {
+            return new RecordingSubscriber();
+        }
+    }
+
+    static class RecordingSubscriber implements DomainEventSubscriber {
+        private final List<DomainEvent> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onEvent(DomainEvent event) {
+            events.add(event);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.model.AggregateType;
+import ru.practicum.shareit.outbox.model.DomainEvent;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.outbox.service.DomainEventSubscriber;
+import ru.practicum.shareit.outbox.service.OutboxRelay;
+import ru.practicum.shareit.scheduler.SchedulerLockService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private ObjectProvider<DomainEventSubscriber> subscribers;
+
+    @Mock
+    private DomainEventSubscriber subscriber;
+
+    @Mock
+    private SchedulerLockService schedulerLockService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxEventRepository, subscribers, schedulerLockService, transactionTemplate,
+                meterRegistry, 3, 2, Duration.ofDays(1), Duration.ofMinutes(5));
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(subscribers.orderedStream()).thenAnswer(invocation -> Stream.of(subscriber));
+        lenient().when(subscriber.supports(any())).thenReturn(true);
+    }
+
+    @Test
+    void relay_doesNothing_whenLockHeldByAnotherNode() {
+        when(schedulerLockService.tryLock(eq("outbox-relay"), any(Duration.class))).thenReturn(false);
+
+        outboxRelay.relay();
+
+        verifyNoInteractions(outboxEventRepository, subscriber);
+        verify(schedulerLockService, never()).unlock(any());
+    }
+
+    @Test
+    void dispatchPending_deliversEventsInOrderBatchByBatch() {
+        when(schedulerLockService.tryLock(eq("outbox-relay"), any(Duration.class))).thenReturn(true);
+        when(outboxEventRepository.findPending(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                event(1L, DomainEventType.ITEM_CREATED, 1L, 0),
+                event(2L, DomainEventType.ITEM_UPDATED, 1L, 0),
+                event(3L, DomainEventType.USER_CREATED, 1L, 0)));
+        when(outboxEventRepository.findPending(eq(3L), any(Pageable.class)))
+                .thenReturn(List.of(event(4L, DomainEventType.ITEM_DELETED, 1L, 0)));
+
+        long dispatched = outboxRelay.dispatchPending();
+
+        assertEquals(4, dispatched);
+        InOrder inOrder = inOrder(subscriber, outboxEventRepository);
+        inOrder.verify(subscriber).onEvent(argThat(event -> event.getId() == 1L));
+        inOrder.verify(subscriber).onEvent(argThat(event -> event.getId() == 2L));
+        inOrder.verify(subscriber).onEvent(argThat(event -> event.getId() == 3L));
+        inOrder.verify(outboxEventRepository).markDispatched(eq(List.of(1L, 2L, 3L)), any(LocalDateTime.class));
+        inOrder.verify(subscriber).onEvent(argThat(event -> event.getId() == 4L
+                && event.getAggregateType() == AggregateType.ITEM));
+        inOrder.verify(outboxEventRepository).markDispatched(eq(List.of(4L)), any(LocalDateTime.class));
+        assertEquals(4, meterRegistry.counter("shareit.outbox.dispatched").count());
+        assertEquals(4, meterRegistry.timer("shareit.outbox.lag").count());
+    }
+
+    @Test
+    void dispatchPending_holdsBackLaterEventsOfAggregate_whenSubscriberFails() {
+        when(outboxEventRepository.findPending(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                event(1L, DomainEventType.ITEM_UPDATED, 1L, 0),
+                event(2L, DomainEventType.ITEM_UPDATED, 2L, 0)));
+        lenient().doThrow(new IllegalStateException("subscriber is down"))
+                .when(subscriber).onEvent(argThat(event -> event.getId() == 1L));
+
+        long dispatched = outboxRelay.dispatchPending();
+
+        assertEquals(1, dispatched);
+        verify(outboxEventRepository).recordFailure(1L, "subscriber is down");
+        verify(outboxEventRepository).markDispatched(eq(List.of(2L)), any(LocalDateTime.class));
+        assertEquals(1, meterRegistry.counter("shareit.outbox.failed").count());
+    }
+
+    @Test
+    void dispatchPending_skipsEventsAfterFailedOneOfSameAggregate() {
+        when(outboxEventRepository.findPending(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                event(1L, DomainEventType.BOOKING_CREATED, 5L, 0),
+                event(2L, DomainEventType.BOOKING_STATUS_CHANGED, 5L, 0)));
+        lenient().doThrow(new IllegalStateException("subscriber is down"))
+                .when(subscriber).onEvent(argThat(event -> event.getId() == 1L));
+
+        long dispatched = outboxRelay.dispatchPending();
+
+        assertEquals(0, dispatched);
+        verify(subscriber, never()).onEvent(argThat(event -> event.getId() == 2L));
+        verify(outboxEventRepository, never()).markDispatched(any(), any());
+    }
+
+    @Test
+    void dispatchPending_givesUpEvent_whenAttemptsRunOut() {
+        when(outboxEventRepository.findPending(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(event(1L, DomainEventType.USER_UPDATED, 1L, 1)));
+        doThrow(new IllegalStateException("bad payload")).when(subscriber).onEvent(any());
+
+        outboxRelay.dispatchPending();
+
+        verify(outboxEventRepository).recordFailure(anyLong(), anyString());
+        verify(outboxEventRepository).markDispatched(eq(List.of(1L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void dispatchPending_skipsSubscribersNotSupportingType() {
+        when(outboxEventRepository.findPending(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(event(1L, DomainEventType.REQUEST_CREATED, 1L, 0)));
+        when(subscriber.supports(DomainEventType.REQUEST_CREATED)).thenReturn(false);
+
+        outboxRelay.dispatchPending();
+
+        verify(subscriber, never()).onEvent(any(DomainEvent.class));
+        verify(outboxEventRepository).markDispatched(eq(List.of(1L)), any(LocalDateTime.class));
+    }
+
+    private OutboxEvent event(long id, DomainEventType type, long aggregateId, int attempts) {
+        return OutboxEvent.builder()
+                .id(id)
+                .aggregateType(type.getAggregateType())
+                .aggregateId(aggregateId)
+                .type(type)
+                .payload("{}")
+                .created(LocalDateTime.now().minusSeconds(1))
+                .attempts(attempts)
+                .build();
+    }
+}
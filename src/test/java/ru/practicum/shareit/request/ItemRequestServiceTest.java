@@ -16,6 +16,7 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -48,6 +49,9 @@ class ItemRequestServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private OutboxService outboxService;
+
     @Spy
     private ItemMapper itemMapper;
 
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.retry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OptimisticLockRetryAspectTest {
+
+    @Test
+    void retry_returnsResult_whenConflictResolvedWithinAttempts() {
+        ConflictingService target = new ConflictingService(2);
+        ConflictingService proxy = proxy(target);
+
+        assertEquals("updated", proxy.update());
+        assertEquals(3, target.getCalls());
+    }
+
+    @Test
+    void retry_rethrowsConflict_whenAttemptsExhausted() {
+        ConflictingService target = new ConflictingService(5);
+        ConflictingService proxy = proxy(target);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, proxy::update);
+        assertEquals(3, target.getCalls());
+    }
+
+    @Test
+    void retry_runsEachAttemptInNewTransaction_whenCalledThroughContextProxy() {
+        try (AnnotationConfigApplicationContext context =
+                     new AnnotationConfigApplicationContext(RetryConfiguration.class)) {
+            TransactionalConflictingService service = context.getBean(TransactionalConflictingService.class);
+            CountingTransactionManager transactionManager = context.getBean(CountingTransactionManager.class);
+
+            assertTrue(AopUtils.isAopProxy(service));
+            assertEquals("updated", service.update());
+            assertEquals(3, service.getCalls());
+            assertEquals(3, transactionManager.getBegun());
+        }
+    }
+
+    private ConflictingService proxy(ConflictingService target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new OptimisticLockRetryAspect());
+        return factory.getProxy();
+    }
+
+    static class ConflictingService {
+        private final int conflicts;
+        private int calls;
+
+        ConflictingService(int conflicts) {
+            this.conflicts = conflicts;
+        }
+
+        @RetryOnOptimisticLock(backoffMillis = 1)
+        public String update() {
+            calls++;
+            if (calls <= conflicts) {
+                throw new ObjectOptimisticLockingFailureException(Object.class, calls);
+            }
+            return "updated";
+        }
+
+        int getCalls() {
+            return calls;
+        }
+    }
+
+    static class TransactionalConflictingService extends ConflictingService {
+        TransactionalConflictingService() {
+            super(2);
+        }
+
+        @Override
+        @Transactional
+        @RetryOnOptimisticLock(backoffMillis = 1)
+        public String update() {
+            return super.update();
+        }
+    }
+
+    static class CountingTransactionManager extends AbstractPlatformTransactionManager {
+        private int begun;
+
+        int getBegun() {
+            return begun;
+        }
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            begun++;
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    @EnableTransactionManagement
+    static class RetryConfiguration {
+        @Bean
+        OptimisticLockRetryAspect optimisticLockRetryAspect() {
+            return new OptimisticLockRetryAspect();
+        }
+
+        @Bean
+        CountingTransactionManager transactionManager() {
+            return new CountingTransactionManager();
+        }
+
+        @Bean
+        TransactionalConflictingService transactionalConflictingService() {
+            return new TransactionalConflictingService();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.scheduler;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource(properties = {"db.name=testSchedulerLock"})
+class SchedulerLockServiceTest {
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void tryLock_allowsOnlyOneNodeUntilReleased() {
+        SchedulerLockService first = new SchedulerLockService(schedulerLockRepository, transactionTemplate);
+        SchedulerLockService second = new SchedulerLockService(schedulerLockRepository, transactionTemplate);
+
+        assertTrue(first.tryLock("job", Duration.ofMinutes(5)));
+        assertFalse(second.tryLock("job", Duration.ofMinutes(5)));
+        assertTrue(first.tryLock("job", Duration.ofMinutes(5)), "Holder should be able to extend its lease");
+
+        first.unlock("job");
+
+        assertTrue(second.tryLock("job", Duration.ofMinutes(5)));
+        assertFalse(first.tryLock("job", Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void tryLock_takesOverExpiredLease() throws InterruptedException {
+        SchedulerLockService first = new SchedulerLockService(schedulerLockRepository, transactionTemplate);
+        SchedulerLockService second = new SchedulerLockService(schedulerLockRepository, transactionTemplate);
+
+        assertTrue(first.tryLock("expiring-job", Duration.ofMillis(1)));
+        Thread.sleep(20);
+
+        assertTrue(second.tryLock("expiring-job", Duration.ofMinutes(5)));
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+    private static final long TICK = 10;
+    private static final long START = 1_000_005;
+
+    @Test
+    void advance_firesTimersNotEarlierThanExpirationAndWithinOneTick() {
+        TimingWheel<Long> timingWheel = new TimingWheel<>(TICK, 4, START);
+        Random random = new Random(42);
+        Map<Long, Long> expirations = new HashMap<>();
+        for (long i = 0; i < 1_000; i++) {
+            long expiration = START + random.nextInt(5_000);
+            expirations.put(i, expiration);
+            timingWheel.add(i, expiration);
+        }
+
+        Map<Long, Long> firedAt = new HashMap<>();
+        for (long now = START; now <= START + 5_100; now += 7) {
+            for (Long timer : timingWheel.advance(now)) {
+                firedAt.put(timer, now);
+            }
+        }
+
+        assertEquals(expirations.size(), firedAt.size());
+        expirations.forEach((timer, expiration) -> {
+            long fired = firedAt.get(timer);
+            assertTrue(fired > expiration, "Timer " + timer + " fired early");
+            assertTrue(fired <= expiration + 2 * TICK + 7, "Timer " + timer + " fired late");
+        });
+    }
+
+    @Test
+    void advance_firesOverdueTimerOnNextAdvance() {
+        TimingWheel<String> timingWheel = new TimingWheel<>(TICK, 4, START);
+        timingWheel.advance(START + 100);
+
+        timingWheel.add("overdue", START);
+
+        assertEquals(List.of("overdue"), timingWheel.advance(START + 120));
+    }
+
+    @Test
+    void advance_returnsNothing_whenNoTimerIsDue() {
+        TimingWheel<String> timingWheel = new TimingWheel<>(TICK, 4, START);
+        timingWheel.add("later", START + 1_000);
+
+        assertTrue(timingWheel.advance(START + 500).isEmpty());
+        assertEquals(List.of("later"), timingWheel.advance(START + 1_010));
+    }
+}
@@ -6,6 +6,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.service.OwnerItemViewService;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -14,6 +16,7 @@ import ru.practicum.shareit.user.service.UserServiceImpl;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -26,6 +29,12 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private OwnerItemViewService ownerItemViewService;
+
     @Spy
     private UserMapper userMapper;
 
@@ -59,12 +68,12 @@ class UserServiceTest {
     @Test
     void updateUser_returnsUpdatedUser_whenUserExists() {
         String updatedName = "updated name";
-        user.setName(updatedName);
-
         UserDto updateDto = userMapper.toUserDto(user);
+        updateDto.setName(updatedName);
 
         when(userRepository.findById(any(Long.class))).thenReturn(Optional.of(user));
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.save(any(User.class))).then(AdditionalAnswers.returnsFirstArg());
+        when(ownerItemViewService.findItemIdsShowingUser(1L)).thenReturn(Set.of(3L));
 
         UserDto savedDto = userService.updateUser(updateDto);
 
@@ -72,6 +81,7 @@ class UserServiceTest {
         assertThat(savedDto.getName(), equalTo(updatedName));
         verify(userRepository, times(1)).findById(any(Long.class));
         verify(userRepository, times(1)).save(any(User.class));
+        verify(ownerItemViewService, times(1)).refresh(Set.of(3L));
     }
 
     @Test
@@ -91,6 +101,7 @@ class UserServiceTest {
         assertThat(savedUser.getEmail(), equalTo(newUserDto.getEmail()));
         verify(userRepository, times(1)).findById(any(Long.class));
         verify(userRepository, times(1)).save(any(User.class));
+        verifyNoInteractions(ownerItemViewService);
     }
 
     @Test
@@ -128,9 +139,14 @@ class UserServiceTest {
 
     @Test
     void deleteByIdTest() {
+        when(ownerItemViewService.findItemIdsShowingUser(1L)).thenReturn(Set.of(3L, 4L));
+
         userService.deleteUser(1L);
 
-        verify(userRepository, times(1)).deleteById(1L);
+        InOrder inOrder = inOrder(ownerItemViewService, userRepository);
+        inOrder.verify(ownerItemViewService).findItemIdsShowingUser(1L);
+        inOrder.verify(userRepository).deleteById(1L);
+        inOrder.verify(ownerItemViewService).refresh(Set.of(3L, 4L));
     }
 
     @Test